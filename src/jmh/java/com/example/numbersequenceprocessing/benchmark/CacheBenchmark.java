@@ -0,0 +1,78 @@
+package com.example.numbersequenceprocessing.benchmark;
+
+import com.example.numbersequenceprocessing.NumberSequenceProcessingApplication;
+import com.example.numbersequenceprocessing.service.NumberSequenceService;
+import com.example.numbersequenceprocessing.utils.checksum.ChecksumUtils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A request for the median of a file passed by path, going through the caching proxy of the service
+ * like the controller does: answered from the cache, or computed after the cache was cleared
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheBenchmark {
+    @Param({"1000000"})
+    public int lines;
+
+    private Path file;
+    private ConfigurableApplicationContext context;
+    private NumberSequenceService service;
+    private ChecksumUtils checksumUtils;
+    private CacheManager cacheManager;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Datasets.get(Datasets.Pattern.RANDOM, lines);
+        context = new SpringApplicationBuilder(NumberSequenceProcessingApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("numbers.cache.disk.enabled=false", "numbers.index.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        service = context.getBean(NumberSequenceService.class);
+        checksumUtils = context.getBean(ChecksumUtils.class);
+        cacheManager = context.getBean(CacheManager.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Double cached() throws IOException {
+        return median();
+    }
+
+    @Benchmark
+    @Warmup(iterations = 2, batchSize = 1)
+    @Measurement(iterations = 10, batchSize = 1)
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Double uncached() throws IOException {
+        Objects.requireNonNull(cacheManager.getCache("Numbers")).clear();
+        return median();
+    }
+
+    private Double median() throws IOException {
+        String checksum = checksumUtils.getFileKey(file.toString());
+        try (InputStream reader = checksumUtils.digestingStream(Files.newInputStream(file))) {
+            return service.getMedian(checksum, reader);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.numbersequenceprocessing.benchmark;
+
+import com.example.numbersequenceprocessing.utils.checksum.ChecksumAlgorithm;
+import com.example.numbersequenceprocessing.utils.checksum.ChecksumUtils;
+import com.example.numbersequenceprocessing.utils.file.FileUtils;
+import com.example.numbersequenceprocessing.utils.metrics.MetricsUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checksum of the content of a file with each of the algorithms.
+ * The throughput in MB/s is the file size divided by the reported time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChecksumBenchmark {
+    @Param({"1000000"})
+    public int lines;
+
+    @Param({"MURMUR3_128", "CRC32C", "SHA_256", "MD5"})
+    public ChecksumAlgorithm algorithm;
+
+    private Path file;
+    private ChecksumUtils checksumUtils;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Datasets.get(Datasets.Pattern.RANDOM, lines);
+        checksumUtils = new ChecksumUtils(new FileUtils(DataSize.ofKilobytes(256)), new MetricsUtils(new SimpleMeterRegistry()), algorithm);
+        System.out.printf("%nFile size: %d bytes%n", Files.size(file));
+    }
+
+    @Benchmark
+    public String file() throws IOException {
+        return checksumUtils.getChecksum(file.toString());
+    }
+
+    @Benchmark
+    public String stream() throws IOException {
+        try (DigestInputStream stream = checksumUtils.digestingStream(Files.newInputStream(file))) {
+            return checksumUtils.getChecksum(stream);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.numbersequenceprocessing.benchmark;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Random;
+
+/**
+ * Generated files of numbers for the benchmarks. A file is generated once and then reused
+ * from {@code target/benchmark-data}, the same seed always produces the same numbers.
+ */
+public final class Datasets {
+    private static final Path DIRECTORY = Paths.get("target", "benchmark-data");
+    private static final long SEED = 42;
+
+    public enum Pattern {
+        /**
+         * Uniformly distributed numbers, with short runs
+         */
+        RANDOM,
+        /**
+         * Increasing numbers, the whole file is a single run
+         */
+        SORTED,
+        /**
+         * Alternating numbers, every pair of lines is a run of the longest length, so the amount of
+         * the longest runs is the largest possible
+         */
+        ADVERSARIAL
+    }
+
+    private Datasets() {
+    }
+
+    public static Path get(Pattern pattern, int lines) throws IOException {
+        Path file = DIRECTORY.resolve(pattern.name().toLowerCase() + "-" + lines + ".txt");
+        if (Files.exists(file)) {
+            return file;
+        }
+
+        Files.createDirectories(DIRECTORY);
+        Path temporaryFile = Files.createTempFile(DIRECTORY, "dataset-", ".tmp");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporaryFile), 1 << 16)) {
+            Random random = new Random(SEED);
+            for (int i = 0; i < lines; i++) {
+                out.write(Integer.toString(next(pattern, random, i, lines)).getBytes(StandardCharsets.US_ASCII));
+                out.write('\n');
+            }
+        }
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+        return file;
+    }
+
+    private static int next(Pattern pattern, Random random, int index, int lines) {
+        switch (pattern) {
+            case RANDOM:
+                return random.nextInt();
+            case SORTED:
+                return (int) ((long) index * 2 - lines);
+            case ADVERSARIAL:
+                return index % 2 == 0 ? -random.nextInt(1000) : random.nextInt(1000) + 1;
+            default:
+                throw new IllegalArgumentException("Unknown pattern " + pattern);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.numbersequenceprocessing.benchmark;
+
+import com.example.numbersequenceprocessing.cache.FileStatisticsIndex;
+import com.example.numbersequenceprocessing.cache.IncrementalStateStore;
+import com.example.numbersequenceprocessing.data.dto.response.SequenceStatistics;
+import com.example.numbersequenceprocessing.data.enums.OperationType;
+import com.example.numbersequenceprocessing.data.exception.SequenceException;
+import com.example.numbersequenceprocessing.service.NumberSequenceService;
+import com.example.numbersequenceprocessing.service.analysis.ParallelFileScanner;
+import com.example.numbersequenceprocessing.service.analysis.QuantileSketch;
+import com.example.numbersequenceprocessing.service.analysis.ScanProgress;
+import com.example.numbersequenceprocessing.utils.checksum.ChecksumAlgorithm;
+import com.example.numbersequenceprocessing.utils.checksum.ChecksumUtils;
+import com.example.numbersequenceprocessing.utils.file.FileUtils;
+import com.example.numbersequenceprocessing.utils.metrics.MetricsUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every operation of {@link NumberSequenceService} computed without the cache: the methods are called
+ * on the service itself rather than on its caching proxy, and the results are not stored anywhere
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OperationBenchmark {
+    private static final String CHECKSUM = "benchmark";
+
+    @Param({"1000000"})
+    public int lines;
+
+    @Param({"RANDOM", "SORTED", "ADVERSARIAL"})
+    public Datasets.Pattern pattern;
+
+    private Path file;
+    private ForkJoinPool pool;
+    private NumberSequenceService service;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Datasets.get(pattern, lines);
+        pool = new ForkJoinPool();
+        DataSize medianHeapBudget = DataSize.ofMegabytes(512);
+        ParallelFileScanner scanner = new ParallelFileScanner(pool, DataSize.ofBytes(0), medianHeapBudget,
+                QuantileSketch.DEFAULT_RELATIVE_ACCURACY);
+        FileStatisticsIndex index = new FileStatisticsIndex(false, "target/benchmark-index", 0);
+        MetricsUtils metricsUtils = new MetricsUtils(new SimpleMeterRegistry());
+        IncrementalStateStore incrementalStore = new IncrementalStateStore(false, "target/benchmark-state");
+        FileUtils fileUtils = new FileUtils(DataSize.ofKilobytes(256));
+        ChecksumUtils checksumUtils = new ChecksumUtils(fileUtils, metricsUtils, ChecksumAlgorithm.MURMUR3_128);
+        service = new NumberSequenceService(null, new NoOpCacheManager(), checksumUtils, fileUtils, scanner, index,
+                incrementalStore, metricsUtils, medianHeapBudget, QuantileSketch.DEFAULT_RELATIVE_ACCURACY, 1_000_000,
+                1_000);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Integer maxValue() throws IOException {
+        try (InputStream reader = Files.newInputStream(file)) {
+            return service.getMaxValue(CHECKSUM, reader);
+        }
+    }
+
+    @Benchmark
+    public Integer minValue() throws IOException {
+        try (InputStream reader = Files.newInputStream(file)) {
+            return service.getMinValue(CHECKSUM, reader);
+        }
+    }
+
+    @Benchmark
+    public Double median() throws IOException {
+        try (InputStream reader = Files.newInputStream(file)) {
+            return service.getMedian(CHECKSUM, reader);
+        }
+    }
+
+    @Benchmark
+    public Double mean() throws IOException {
+        try (InputStream reader = Files.newInputStream(file)) {
+            return service.getMean(CHECKSUM, reader);
+        }
+    }
+
+    @Benchmark
+    public Object increasingSequence() throws IOException, SequenceException {
+        try (InputStream reader = Files.newInputStream(file)) {
+            return service.getLongestSequenceOfIncreasingNumbers(CHECKSUM, reader);
+        }
+    }
+
+    @Benchmark
+    public Object decreasingSequence() throws IOException {
+        try (InputStream reader = Files.newInputStream(file)) {
+            return service.getLongestSequenceOfDecreasingNumbers(CHECKSUM, reader);
+        } catch (SequenceException e) {
+            // the sorted file has no decreasing sequence
+            return e;
+        }
+    }
+
+    @Benchmark
+    public SequenceStatistics analyze() throws IOException {
+        try (InputStream reader = Files.newInputStream(file)) {
+            return service.analyze(CHECKSUM, reader);
+        }
+    }
+
+    @Benchmark
+    public SequenceStatistics analyzeInParallel() throws IOException {
+        return service.analyze(CHECKSUM, file, new ScanProgress());
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.numbersequenceprocessing.benchmark;
+
+import com.example.numbersequenceprocessing.service.analysis.NumberStreamParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.IntSummaryStatistics;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading a file: parsing the numbers
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParsingBenchmark {
+    @Param({"1000000"})
+    public int lines;
+
+    @Param({"RANDOM", "SORTED", "ADVERSARIAL"})
+    public Datasets.Pattern pattern;
+
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Datasets.get(pattern, lines);
+    }
+
+    @Benchmark
+    public IntSummaryStatistics parse() throws IOException {
+        IntSummaryStatistics statistics = new IntSummaryStatistics();
+        try (InputStream stream = Files.newInputStream(file)) {
+            new NumberStreamParser(stream).parse(statistics);
+        }
+        return statistics;
+    }
+}
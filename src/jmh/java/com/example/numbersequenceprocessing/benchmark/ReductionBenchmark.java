@@ -0,0 +1,86 @@
+package com.example.numbersequenceprocessing.benchmark;
+
+import com.example.numbersequenceprocessing.service.analysis.IntBatchConsumer;
+import com.example.numbersequenceprocessing.service.analysis.IntKernels;
+import com.example.numbersequenceprocessing.service.analysis.SequenceRunTracker;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.IntSummaryStatistics;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reducing numbers already held in a primitive array: the IntStream pipeline and the per-number consumers
+ * against {@link IntKernels} in batches, in SIMD lanes (VECTOR) or scalar loops (SCALAR). The run trackers
+ * always use {@link IntKernels#get()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ReductionBenchmark {
+    public enum Kernels {
+        VECTOR, SCALAR
+    }
+
+    @Param({"1000000"})
+    public int size;
+
+    @Param({"VECTOR", "SCALAR"})
+    public Kernels kernels;
+
+    private int[] numbers;
+    private IntKernels intKernels;
+
+    @Setup
+    public void setUp() {
+        numbers = new Random(42).ints(size).toArray();
+        intKernels = kernels == Kernels.VECTOR ? IntKernels.get() : IntKernels.scalar();
+    }
+
+    @Benchmark
+    public IntSummaryStatistics summarizeIntStream() {
+        return Arrays.stream(numbers).summaryStatistics();
+    }
+
+    @Benchmark
+    public IntSummaryStatistics summarizeKernels() {
+        IntSummaryStatistics statistics = new IntSummaryStatistics();
+        for (int from = 0; from < numbers.length; from += IntBatchConsumer.BATCH_SIZE) {
+            int to = Math.min(from + IntBatchConsumer.BATCH_SIZE, numbers.length);
+            statistics.combine(intKernels.summarize(numbers, from, to));
+        }
+        return statistics;
+    }
+
+    @Benchmark
+    public long[] markContinuationsKernels() {
+        long[] mask = new long[IntKernels.maskLength(IntBatchConsumer.BATCH_SIZE)];
+        for (int from = 0; from < numbers.length; from += IntBatchConsumer.BATCH_SIZE) {
+            int to = Math.min(from + IntBatchConsumer.BATCH_SIZE, numbers.length);
+            intKernels.markContinuations(numbers, from, to, true, mask);
+        }
+        return mask;
+    }
+
+    @Benchmark
+    public SequenceRunTracker trackRunsPerNumber() {
+        SequenceRunTracker tracker = new SequenceRunTracker(true);
+        for (int number : numbers) {
+            tracker.accept(number);
+        }
+        return tracker;
+    }
+
+    @Benchmark
+    public SequenceRunTracker trackRunsInBatches() {
+        SequenceRunTracker tracker = new SequenceRunTracker(true);
+        for (int from = 0; from < numbers.length; from += IntBatchConsumer.BATCH_SIZE) {
+            tracker.acceptAll(numbers, from, Math.min(from + IntBatchConsumer.BATCH_SIZE, numbers.length));
+        }
+        return tracker;
+    }
+}
@@ -1,19 +1,48 @@
 package com.example.numbersequenceprocessing.cache;
 
+import com.example.numbersequenceprocessing.data.enums.NumberType;
+import com.example.numbersequenceprocessing.data.enums.OperationType;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.interceptor.KeyGenerator;
 import org.springframework.stereotype.Component;
 
 import java.lang.reflect.Method;
+import java.util.Map;
 
+/**
+ * Generates {@link SequenceCacheKey} for the cached methods of the service. The kind of the result is defined
+ * by the method, or by the {@link OperationType} passed as the first parameter, the checksum is the following
+ * string parameter. The results of all operations on typed numbers are identified by the {@link NumberType}
+ * and the scale passed as the first parameters, followed by the checksum.
+ */
 @Slf4j
 @Component
 public class ChecksumKeyGenerator implements KeyGenerator {
+    private static final Map<String, String> RESULTS = Map.of(
+            "getMaxValue", OperationType.MAX_VALUE.name(),
+            "getMinValue", OperationType.MIN_VALUE.name(),
+            "getMedian", OperationType.MEDIAN.name(),
+            "getMean", OperationType.MEAN.name(),
+            "getLongestSequenceOfIncreasingNumbers", OperationType.INCREASING_SEQUENCE.name(),
+            "getLongestSequenceOfDecreasingNumbers", OperationType.DECREASING_SEQUENCE.name(),
+            "analyze", SequenceCacheKey.STATISTICS,
+            "getQuantileSketch", SequenceCacheKey.QUANTILE_SKETCH);
+
     @Override
     public Object generate(Object target, Method method, Object... params) {
-        if (params[0] != null && params[0] instanceof String) {
-            return method.getName() + "_" + params[0];
+        if (params.length > 1 && params[0] instanceof OperationType && params[1] instanceof String) {
+            return SequenceCacheKey.of((OperationType) params[0], (String) params[1]);
+        }
+
+        if (params.length > 2 && params[0] instanceof NumberType && params[2] instanceof String) {
+            NumberType type = (NumberType) params[0];
+            return SequenceCacheKey.statistics(type, type.checkScale((Integer) params[1]), (String) params[2]);
+        }
+
+        String result = RESULTS.get(method.getName());
+        if (result == null || params.length == 0 || !(params[0] instanceof String)) {
+            throw new IllegalStateException("Cannot generate a cache key for method " + method.getName());
         }
-        return null;
+        return new SequenceCacheKey(result, (String) params[0]);
     }
 }
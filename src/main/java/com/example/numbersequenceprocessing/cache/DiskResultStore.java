@@ -0,0 +1,247 @@
+package com.example.numbersequenceprocessing.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Local store of the computed results, which survives restarts. Every result is kept in its own file,
+ * named after the {@link SequenceCacheKey}. The store is bounded by the total size of the files:
+ * the least recently used results are deleted first, the recency is kept in the modification time of the files.
+ */
+@Slf4j
+@Component
+public class DiskResultStore {
+    private static final int FORMAT_VERSION = 2;
+    private static final String EXTENSION = ".result";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long maximumSize;
+
+    /**
+     * File names in the order of their use, the least recently used first, with their sizes
+     */
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalSize;
+
+    public DiskResultStore(@Value("${numbers.cache.disk.enabled}") boolean enabled,
+                           @Value("${numbers.cache.disk.directory}") String directory,
+                           @Value("${numbers.cache.disk.maximum-size}") DataSize maximumSize) throws IOException {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory).toAbsolutePath();
+        this.maximumSize = maximumSize.toBytes();
+
+        if (enabled) {
+            Files.createDirectories(this.directory);
+            loadIndex();
+        }
+    }
+
+    /**
+     * @param key cache key
+     * @return stored result or null, if there is no result for the key
+     */
+    public Object get(Object key) {
+        String fileName = getFileName(key);
+        if (fileName == null || !contains(fileName)) {
+            return null;
+        }
+
+        Path file = directory.resolve(fileName);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            readKey(in);
+            Object value = ResultCodec.read(in);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return value;
+        } catch (NoSuchFileException e) {
+            remove(fileName);
+            return null;
+        } catch (IOException e) {
+            log.warn("Failed to read the stored result {}: {}", fileName, e.getMessage());
+            delete(fileName);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the result, deleting the least recently used results if the size of the store is exceeded
+     *
+     * @param key   cache key
+     * @param value result
+     */
+    public void put(Object key, Object value) {
+        String fileName = getFileName(key);
+        if (fileName == null || value == null) {
+            return;
+        }
+
+        try {
+            Path temporaryFile = Files.createTempFile(directory, "result-", ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+                    writeKey(out, (SequenceCacheKey) key);
+                    ResultCodec.write(out, value);
+                }
+                long size = Files.size(temporaryFile);
+
+                synchronized (index) {
+                    Files.move(temporaryFile, directory.resolve(fileName),
+                            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    Long previousSize = index.put(fileName, size);
+                    totalSize += size - (previousSize != null ? previousSize : 0);
+                    evict();
+                }
+            } finally {
+                Files.deleteIfExists(temporaryFile);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to store the result {}: {}", fileName, e.getMessage());
+        }
+    }
+
+    public void evict(Object key) {
+        String fileName = getFileName(key);
+        if (fileName != null) {
+            delete(fileName);
+        }
+    }
+
+    public void clear() {
+        List<String> fileNames;
+        synchronized (index) {
+            fileNames = new ArrayList<>(index.keySet());
+        }
+        fileNames.forEach(this::delete);
+    }
+
+    /**
+     * Passes the most recently used results to the consumer, e.g. to fill an in-memory cache after a restart
+     *
+     * @param limit    maximum amount of results
+     * @param consumer receives the key and the result
+     */
+    public void warmUp(int limit, BiConsumer<SequenceCacheKey, Object> consumer) {
+        if (!enabled) {
+            return;
+        }
+        List<String> fileNames;
+        synchronized (index) {
+            fileNames = new ArrayList<>(index.keySet());
+        }
+        Collections.reverse(fileNames);
+
+        int loaded = 0;
+        for (String fileName : fileNames.subList(0, Math.min(limit, fileNames.size()))) {
+            Path file = directory.resolve(fileName);
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                SequenceCacheKey key = readKey(in);
+                consumer.accept(key, ResultCodec.read(in));
+                loaded++;
+            } catch (IOException e) {
+                log.warn("Failed to read the stored result {}: {}", fileName, e.getMessage());
+                delete(fileName);
+            }
+        }
+        log.info("Loaded {} stored results from {}", loaded, directory);
+    }
+
+    private void loadIndex() throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(file -> file.getFileName().toString().endsWith(EXTENSION))
+                    .sorted(Comparator.comparing(this::getLastModifiedTime))
+                    .collect(Collectors.toList());
+        }
+
+        synchronized (index) {
+            for (Path file : files) {
+                long size = Files.readAttributes(file, BasicFileAttributes.class).size();
+                index.put(file.getFileName().toString(), size);
+                totalSize += size;
+            }
+            evict();
+        }
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> iterator = index.entrySet().iterator();
+        while (totalSize > maximumSize && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            try {
+                Files.deleteIfExists(directory.resolve(eldest.getKey()));
+            } catch (IOException e) {
+                log.warn("Failed to delete the stored result {}: {}", eldest.getKey(), e.getMessage());
+            }
+            totalSize -= eldest.getValue();
+            iterator.remove();
+        }
+    }
+
+    private boolean contains(String fileName) {
+        synchronized (index) {
+            return index.get(fileName) != null;
+        }
+    }
+
+    private void remove(String fileName) {
+        synchronized (index) {
+            Long size = index.remove(fileName);
+            if (size != null) {
+                totalSize -= size;
+            }
+        }
+    }
+
+    private void delete(String fileName) {
+        synchronized (index) {
+            remove(fileName);
+            try {
+                Files.deleteIfExists(directory.resolve(fileName));
+            } catch (IOException e) {
+                log.warn("Failed to delete the stored result {}: {}", fileName, e.getMessage());
+            }
+        }
+    }
+
+    private String getFileName(Object key) {
+        if (!enabled || !(key instanceof SequenceCacheKey)) {
+            return null;
+        }
+        SequenceCacheKey cacheKey = (SequenceCacheKey) key;
+        return (cacheKey.getResult() + "-" + cacheKey.getChecksum()).replaceAll("[^A-Za-z0-9._-]", "_") + EXTENSION;
+    }
+
+    private FileTime getLastModifiedTime(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static void writeKey(DataOutputStream out, SequenceCacheKey key) throws IOException {
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(key.getResult());
+        out.writeUTF(key.getChecksum());
+    }
+
+    private static SequenceCacheKey readKey(DataInputStream in) throws IOException {
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new StreamCorruptedException("Unsupported format version " + version);
+        }
+        return new SequenceCacheKey(in.readUTF(), in.readUTF());
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.numbersequenceprocessing.cache;
+
+import com.example.numbersequenceprocessing.data.dto.response.SequenceStatistics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Index of the statistics of local files. After the first scan of a file its statistics are written
+ * to the index directory together with the size and the modification time of the file, so any operation
+ * on the unchanged file is answered without reading it again, also after a restart or an eviction from the cache.
+ * <p>
+ * Entries of deleted or changed files are removed on startup, and the least recently used entries are removed
+ * whenever the index holds more than the configured amount of entries.
+ */
+@Slf4j
+@Component
+public class FileStatisticsIndex {
+    private static final int FORMAT_VERSION = 2;
+    private static final String EXTENSION = ".stats";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int maximumEntries;
+
+    /**
+     * Amount of entries in the directory, as far as known since the last pruning
+     */
+    private final AtomicInteger entries = new AtomicInteger();
+
+    public FileStatisticsIndex(@Value("${numbers.index.enabled}") boolean enabled,
+                               @Value("${numbers.index.directory}") String directory,
+                               @Value("${numbers.index.maximum-entries}") int maximumEntries) throws IOException {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory).toAbsolutePath();
+        this.maximumEntries = maximumEntries;
+
+        if (enabled) {
+            Files.createDirectories(this.directory);
+            prune(true);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Checks if the index holds the statistics of the file, without reading them
+     *
+     * @param file path to local file
+     * @return true if the file has not changed since it was indexed
+     * @throws IOException if the file attributes cannot be read
+     */
+    public boolean contains(Path file) throws IOException {
+        if (!enabled) {
+            return false;
+        }
+        Path absoluteFile = file.toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(absoluteFile, BasicFileAttributes.class);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(getIndexFile(absoluteFile))))) {
+            return isCurrent(in, absoluteFile, attributes);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads the indexed statistics of the file. An entry written for another version of the file is deleted.
+     *
+     * @param file path to local file
+     * @return statistics of the file, if it has not changed since it was indexed
+     * @throws IOException if the file attributes cannot be read
+     */
+    public Optional<IndexEntry> find(Path file) throws IOException {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Path absoluteFile = file.toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(absoluteFile, BasicFileAttributes.class);
+        Path indexFile = getIndexFile(absoluteFile);
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (!isCurrent(in, absoluteFile, attributes)) {
+                log.debug("Index entry of {} is outdated", absoluteFile);
+                delete(indexFile);
+                return Optional.empty();
+            }
+            String checksum = in.readBoolean() ? in.readUTF() : null;
+            IndexEntry entry = new IndexEntry(checksum, (SequenceStatistics) ResultCodec.read(in));
+            Files.setLastModifiedTime(indexFile, FileTime.fromMillis(System.currentTimeMillis()));
+            return Optional.of(entry);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException | ClassCastException e) {
+            log.warn("Failed to read the index entry of {}: {}", absoluteFile, e.getMessage());
+            delete(indexFile);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes the statistics of the file to the index, unless the file was modified while being scanned
+     *
+     * @param file       path to local file
+     * @param attributes attributes of the file read before the scan
+     * @param checksum   checksum of the content of the file, if it is known
+     * @param statistics results of all operations on the file
+     */
+    public void write(Path file, BasicFileAttributes attributes, String checksum, SequenceStatistics statistics) {
+        if (!enabled) {
+            return;
+        }
+        Path absoluteFile = file.toAbsolutePath().normalize();
+
+        try {
+            BasicFileAttributes current = Files.readAttributes(absoluteFile, BasicFileAttributes.class);
+            if (current.size() != attributes.size()
+                    || !current.lastModifiedTime().equals(attributes.lastModifiedTime())) {
+                log.debug("{} was modified while being scanned, it is not indexed", absoluteFile);
+                return;
+            }
+
+            Path temporaryFile = Files.createTempFile(directory, "index-", ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+                    out.writeInt(FORMAT_VERSION);
+                    out.writeUTF(absoluteFile.toString());
+                    out.writeLong(attributes.size());
+                    out.writeLong(attributes.lastModifiedTime().toMillis());
+                    out.writeBoolean(checksum != null);
+                    if (checksum != null) {
+                        out.writeUTF(checksum);
+                    }
+                    ResultCodec.write(out, statistics);
+                }
+                Path indexFile = getIndexFile(absoluteFile);
+                boolean replaced = Files.exists(indexFile);
+                Files.move(temporaryFile, indexFile,
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                if (!replaced && entries.incrementAndGet() > maximumEntries) {
+                    prune(false);
+                }
+            } finally {
+                Files.deleteIfExists(temporaryFile);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to index {}: {}", absoluteFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Removes the least recently used entries above the maximum amount of entries
+     *
+     * @param removeOutdated also removes the entries of deleted or changed files, which requires reading
+     *                       the header of every entry
+     * @throws IOException if the index directory cannot be listed
+     */
+    synchronized void prune(boolean removeOutdated) throws IOException {
+        List<Path> indexFiles;
+        try (Stream<Path> stream = Files.list(directory)) {
+            indexFiles = stream.filter(file -> file.getFileName().toString().endsWith(EXTENSION))
+                    .sorted(Comparator.comparing(FileStatisticsIndex::getLastModifiedTime).reversed())
+                    .collect(Collectors.toList());
+        }
+
+        List<Path> kept = new ArrayList<>(indexFiles.size());
+        for (Path indexFile : indexFiles) {
+            if (kept.size() < maximumEntries && (!removeOutdated || isCurrent(indexFile))) {
+                kept.add(indexFile);
+            } else {
+                delete(indexFile);
+            }
+        }
+        entries.set(kept.size());
+    }
+
+    /**
+     * Reads the header of the entry, leaving the stream at the checksum
+     *
+     * @return true if the entry was written for the file with the same size and modification time
+     */
+    private static boolean isCurrent(DataInputStream in, Path absoluteFile, BasicFileAttributes attributes)
+            throws IOException {
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new StreamCorruptedException("Unsupported format version " + version);
+        }
+        String indexedPath = in.readUTF();
+        long size = in.readLong();
+        long lastModified = in.readLong();
+        return indexedPath.equals(absoluteFile.toString()) && size == attributes.size()
+                && lastModified == attributes.lastModifiedTime().toMillis();
+    }
+
+    /**
+     * @return true if the indexed file still exists and has not changed since it was indexed
+     */
+    private static boolean isCurrent(Path indexFile) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            int version = in.readInt();
+            Path file = Paths.get(in.readUTF());
+            if (version != FORMAT_VERSION || !Files.isRegularFile(file)) {
+                return false;
+            }
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return in.readLong() == attributes.size() && in.readLong() == attributes.lastModifiedTime().toMillis();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void delete(Path indexFile) {
+        try {
+            if (Files.deleteIfExists(indexFile)) {
+                entries.decrementAndGet();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to delete the index entry {}: {}", indexFile, e.getMessage());
+        }
+    }
+
+    private static FileTime getLastModifiedTime(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private Path getIndexFile(Path absoluteFile) {
+        return directory.resolve(UUID.nameUUIDFromBytes(absoluteFile.toString().getBytes(StandardCharsets.UTF_8))
+                + EXTENSION);
+    }
+
+    /**
+     * Indexed statistics of a file
+     */
+    @lombok.Value
+    public static class IndexEntry {
+        /**
+         * Checksum of the content of the file, null if the file was scanned without calculating it
+         */
+        String checksum;
+
+        SequenceStatistics statistics;
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.numbersequenceprocessing.cache;
+
+import com.example.numbersequenceprocessing.service.analysis.SequenceStatisticsCollector;
+import com.example.numbersequenceprocessing.utils.checksum.ChecksumAlgorithm;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * State of the scans of growing local files. After a scan the state of the {@link SequenceStatisticsCollector}
+ * is written to the state directory together with the amount of scanned bytes and a fingerprint of them,
+ * so when the file has only been appended to, the scan continues with the appended bytes.
+ * <p>
+ * The numbers kept for the median, 4 bytes per number of the scanned part, are kept in a separate file
+ * next to the state. The numbers of every continued scan are appended to it, so that writing the state costs
+ * the appended numbers only; restoring the state still reads all of them.
+ * <p>
+ * The fingerprint covers the size, the first and the last {@value #FINGERPRINT_WINDOW} bytes and
+ * {@value #FINGERPRINT_SAMPLES} evenly spaced samples of {@value #FINGERPRINT_SAMPLE_SIZE} bytes of the scanned part,
+ * which detects truncated, replaced and rewritten files without reading them as a whole. An edit in the middle
+ * of a large file, which keeps its size and misses the samples, is not detected, so the incremental mode
+ * is meant for files that are only appended to.
+ */
+@Slf4j
+@Component
+public class IncrementalStateStore {
+    private static final int FORMAT_VERSION = 2;
+    private static final String EXTENSION = ".state";
+    private static final String VALUES_EXTENSION = ".values";
+    private static final int FINGERPRINT_WINDOW = 64 * 1024;
+    private static final int FINGERPRINT_SAMPLES = 16;
+    private static final int FINGERPRINT_SAMPLE_SIZE = 4 * 1024;
+
+    private final boolean enabled;
+    private final Path directory;
+
+    public IncrementalStateStore(@Value("${numbers.incremental.enabled}") boolean enabled,
+                                 @Value("${numbers.incremental.directory}") String directory) throws IOException {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory).toAbsolutePath();
+
+        if (enabled) {
+            Files.createDirectories(this.directory);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Restores the state of the last scan of the file. A state of another version of the file is deleted.
+     *
+     * @param file             path to local file
+     * @param medianHeapBudget amount of bytes the numbers kept for the median may take on the heap
+     * @return state of the scan, if the scanned part of the file has not changed since then
+     * @throws IOException if the file cannot be read
+     */
+    public Optional<ScanState> find(Path file, long medianHeapBudget) throws IOException {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Path absoluteFile = file.toAbsolutePath().normalize();
+        long size = Files.size(absoluteFile);
+        Path stateFile = getStateFile(absoluteFile);
+        Path valuesFile = getValuesFile(stateFile);
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(stateFile)))) {
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new StreamCorruptedException("Unsupported format version " + version);
+            }
+            String scannedPath = in.readUTF();
+            long scannedBytes = in.readLong();
+            byte[] fingerprint = new byte[in.readUnsignedByte()];
+            in.readFully(fingerprint);
+
+            if (!scannedPath.equals(absoluteFile.toString()) || scannedBytes > size
+                    || !Arrays.equals(fingerprint, fingerprint(absoluteFile, scannedBytes))) {
+                log.debug("Scan state of {} is outdated", absoluteFile);
+                delete(stateFile);
+                return Optional.empty();
+            }
+            try (DataInputStream values = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(valuesFile)))) {
+                SequenceStatisticsCollector collector = SequenceStatisticsCollector.readFrom(in, values,
+                        medianHeapBudget);
+                return Optional.of(new ScanState(scannedBytes, collector.getValueCount(), collector));
+            }
+        } catch (NoSuchFileException e) {
+            if (Files.exists(stateFile)) {
+                log.warn("Numbers of the scan state of {} are missing", absoluteFile);
+                delete(stateFile);
+            }
+            return Optional.empty();
+        } catch (IOException e) {
+            log.warn("Failed to read the scan state of {}: {}", absoluteFile, e.getMessage());
+            delete(stateFile);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes the state of the scan of the file, unless the scanned part changed while being scanned.
+     * The numbers kept for the median, which were restored from the last state, are not written again.
+     *
+     * @param file         path to local file
+     * @param scannedBytes amount of bytes from the beginning of the file the collector has scanned
+     * @param fingerprint  fingerprint of the scanned part taken before the scan
+     * @param collector    collector of the numbers of the scanned part, before the statistics are taken from it
+     * @param storedValues amount of the numbers kept for the median, which were restored from the last state,
+     *                     see {@link ScanState#getStoredValues()}, 0 if the scan was not continued
+     */
+    public void write(Path file, long scannedBytes, byte[] fingerprint, SequenceStatisticsCollector collector,
+                      long storedValues) {
+        if (!enabled) {
+            return;
+        }
+        Path absoluteFile = file.toAbsolutePath().normalize();
+
+        try {
+            if (!Arrays.equals(fingerprint, fingerprint(absoluteFile, scannedBytes))) {
+                log.debug("{} was modified while being scanned, its scan state is not written", absoluteFile);
+                return;
+            }
+
+            Path stateFile = getStateFile(absoluteFile);
+            appendValues(getValuesFile(stateFile), collector, storedValues);
+
+            Path temporaryFile = Files.createTempFile(directory, "state-", ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+                    out.writeInt(FORMAT_VERSION);
+                    out.writeUTF(absoluteFile.toString());
+                    out.writeLong(scannedBytes);
+                    out.writeByte(fingerprint.length);
+                    out.write(fingerprint);
+                    collector.writeSummaryTo(out);
+                }
+                Files.move(temporaryFile, stateFile,
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporaryFile);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to write the scan state of {}: {}", absoluteFile, e.getMessage());
+        }
+    }
+
+    /**
+     * @param file   path to local file
+     * @param length amount of bytes from the beginning of the file
+     * @return fingerprint of the part of the file
+     * @throws IOException if the file cannot be read
+     */
+    public byte[] fingerprint(Path file, long length) throws IOException {
+        MessageDigest digest = ChecksumAlgorithm.MURMUR3_128.createDigest();
+        digest.update(ByteBuffer.allocate(Long.BYTES).putLong(length).flip());
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(FINGERPRINT_WINDOW);
+            update(digest, channel, buffer, 0, Math.min(length, FINGERPRINT_WINDOW));
+            if (length <= FINGERPRINT_WINDOW) {
+                return digest.digest();
+            }
+
+            long tailStart = Math.max(length - FINGERPRINT_WINDOW, FINGERPRINT_WINDOW);
+            long step = (tailStart - FINGERPRINT_WINDOW) / (FINGERPRINT_SAMPLES + 1);
+            if (step >= FINGERPRINT_SAMPLE_SIZE) {
+                for (int sample = 1; sample <= FINGERPRINT_SAMPLES; sample++) {
+                    long start = FINGERPRINT_WINDOW + sample * step;
+                    update(digest, channel, buffer, start, start + FINGERPRINT_SAMPLE_SIZE);
+                }
+            } else {
+                update(digest, channel, buffer, FINGERPRINT_WINDOW, tailStart);
+            }
+            update(digest, channel, buffer, tailStart, length);
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Appends the numbers kept for the median, which are not stored yet, and drops the numbers left
+     * by an interrupted write or by a state of another version of the file
+     */
+    private static void appendValues(Path valuesFile, SequenceStatisticsCollector collector, long storedValues)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(valuesFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long storedSize = storedValues * Integer.BYTES;
+            if (channel.size() < storedSize) {
+                throw new EOFException("Stored numbers are shorter than the scan state");
+            }
+            channel.truncate(storedSize).position(storedSize);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            collector.writeValuesTo(out, storedValues);
+            out.flush();
+            channel.force(false);
+        }
+    }
+
+    private static void update(MessageDigest digest, FileChannel channel, ByteBuffer buffer, long start, long end)
+            throws IOException {
+        buffer.clear().limit((int) (end - start));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start + buffer.position()) < 0) {
+                throw new EOFException("File is shorter than its scanned part");
+            }
+        }
+        digest.update(buffer.flip());
+    }
+
+    private Path getStateFile(Path absoluteFile) {
+        return directory.resolve(UUID.nameUUIDFromBytes(absoluteFile.toString().getBytes(StandardCharsets.UTF_8))
+                + EXTENSION);
+    }
+
+    private static Path getValuesFile(Path stateFile) {
+        String name = stateFile.getFileName().toString();
+        return stateFile.resolveSibling(name.substring(0, name.length() - EXTENSION.length()) + VALUES_EXTENSION);
+    }
+
+    /**
+     * Deletes the state and the numbers kept with it
+     */
+    private static void delete(Path stateFile) throws IOException {
+        Files.deleteIfExists(stateFile);
+        Files.deleteIfExists(getValuesFile(stateFile));
+    }
+
+    /**
+     * Restored state of a scan
+     */
+    @lombok.Value
+    public static class ScanState {
+        /**
+         * Amount of bytes from the beginning of the file, which were scanned
+         */
+        long scannedBytes;
+
+        /**
+         * Amount of the numbers kept for the median, which are stored with the state
+         */
+        long storedValues;
+
+        /**
+         * Collector of the numbers of the scanned part, which has to be closed by the caller
+         */
+        SequenceStatisticsCollector collector;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.numbersequenceprocessing.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Counts cache hits and misses per operation, in addition to the totals of the whole cache
+ */
+public class OperationMetricsCache implements Cache {
+    private final Cache delegate;
+    private final MeterRegistry registry;
+
+    public OperationMetricsCache(Cache delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+    }
+
+    /**
+     * Extracts a low-cardinality operation name from the cache key, which is safe to be used as a metric tag
+     * @param key cache key
+     * @return operation name
+     */
+    public static String getOperation(Object key) {
+        return key instanceof SequenceCacheKey ? ((SequenceCacheKey) key).getResult() : "unknown";
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return record(key, delegate.get(key));
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        T value = delegate.get(key, type);
+        record(key, value);
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            @SuppressWarnings("unchecked")
+            T value = (T) cached.get();
+            return value;
+        }
+        return delegate.get(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    private <T> T record(Object key, T value) {
+        Counter.builder("numbers.cache.requests")
+                .description("Requests to the results cache per operation")
+                .tag("cache", getName())
+                .tag("operation", getOperation(key))
+                .tag("result", value != null ? "hit" : "miss")
+                .register(registry)
+                .increment();
+        return value;
+    }
+}
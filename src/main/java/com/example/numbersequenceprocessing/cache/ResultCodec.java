@@ -0,0 +1,218 @@
+package com.example.numbersequenceprocessing.cache;
+
+import com.example.numbersequenceprocessing.data.dto.response.SequenceStatistics;
+import com.example.numbersequenceprocessing.data.dto.response.TypedSequenceStatistics;
+import com.example.numbersequenceprocessing.data.enums.NumberType;
+import com.example.numbersequenceprocessing.service.analysis.QuantileSketch;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary encoding of the cached results. Numbers and sequences are written as primitives,
+ * 64-bit and decimal numbers as their unscaled longs. Results of other types are not stored, and a stored result
+ * of an unknown type is treated as corrupt: nothing read from the store is deserialized as an arbitrary object.
+ */
+final class ResultCodec {
+    private static final byte INTEGER = 1;
+    private static final byte DOUBLE = 2;
+    private static final byte SEQUENCES = 3;
+    private static final byte STATISTICS = 4;
+    private static final byte SKETCH = 5;
+    private static final byte TYPED_STATISTICS = 6;
+
+    private ResultCodec() {
+    }
+
+    static void write(DataOutputStream out, Object value) throws IOException {
+        if (value instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (isSequences(value)) {
+            out.writeByte(SEQUENCES);
+            writeSequences(out, castSequences(value));
+        } else if (value instanceof SequenceStatistics) {
+            SequenceStatistics statistics = (SequenceStatistics) value;
+            out.writeByte(STATISTICS);
+            out.writeLong(statistics.getCount());
+            out.writeInt(statistics.getMaxValue());
+            out.writeInt(statistics.getMinValue());
+            out.writeDouble(statistics.getMedian());
+            out.writeDouble(statistics.getMean());
+            writeSequences(out, statistics.getIncreasingSequences());
+            writeSequences(out, statistics.getDecreasingSequences());
+            out.writeBoolean(statistics.getQuantileSketch() != null);
+            if (statistics.getQuantileSketch() != null) {
+                statistics.getQuantileSketch().writeTo(out);
+            }
+        } else if (value instanceof TypedSequenceStatistics) {
+            TypedSequenceStatistics statistics = (TypedSequenceStatistics) value;
+            int scale = statistics.getScale();
+            out.writeByte(TYPED_STATISTICS);
+            out.writeUTF(statistics.getType().name());
+            out.writeInt(scale);
+            out.writeLong(statistics.getCount());
+            out.writeLong(toUnscaled(statistics.getMaxValue(), scale));
+            out.writeLong(toUnscaled(statistics.getMinValue(), scale));
+            writeDecimal(out, statistics.getSum());
+            writeDecimal(out, statistics.getMedian());
+            writeDecimal(out, statistics.getMean());
+            writeTypedSequences(out, statistics.getIncreasingSequences(), scale);
+            writeTypedSequences(out, statistics.getDecreasingSequences(), scale);
+        } else if (value instanceof QuantileSketch) {
+            out.writeByte(SKETCH);
+            ((QuantileSketch) value).writeTo(out);
+        } else {
+            throw new NotSerializableException("Unsupported result type " + value.getClass().getName());
+        }
+    }
+
+    static Object read(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case INTEGER:
+                return in.readInt();
+            case DOUBLE:
+                return in.readDouble();
+            case SEQUENCES:
+                return readSequences(in);
+            case STATISTICS:
+                SequenceStatistics statistics = new SequenceStatistics();
+                statistics.setCount(in.readLong());
+                statistics.setMaxValue(in.readInt());
+                statistics.setMinValue(in.readInt());
+                statistics.setMedian(in.readDouble());
+                statistics.setMean(in.readDouble());
+                statistics.setIncreasingSequences(readSequences(in));
+                statistics.setDecreasingSequences(readSequences(in));
+                if (in.readBoolean()) {
+                    statistics.setQuantileSketch(QuantileSketch.readFrom(in));
+                }
+                return statistics;
+            case SKETCH:
+                return QuantileSketch.readFrom(in);
+            case TYPED_STATISTICS:
+                TypedSequenceStatistics typed = new TypedSequenceStatistics();
+                NumberType numberType = NumberType.valueOf(in.readUTF());
+                int scale = in.readInt();
+                typed.setType(numberType);
+                typed.setScale(scale);
+                typed.setCount(in.readLong());
+                typed.setMaxValue(toNumber(in.readLong(), numberType, scale));
+                typed.setMinValue(toNumber(in.readLong(), numberType, scale));
+                typed.setSum(readDecimal(in));
+                typed.setMedian(readDecimal(in));
+                typed.setMean(readDecimal(in));
+                typed.setIncreasingSequences(readTypedSequences(in, numberType, scale));
+                typed.setDecreasingSequences(readTypedSequences(in, numberType, scale));
+                return typed;
+            default:
+                throw new StreamCorruptedException("Unknown result type " + type);
+        }
+    }
+
+    private static boolean isSequences(Object value) {
+        if (!(value instanceof List)) {
+            return false;
+        }
+        for (Object sequence : (List<?>) value) {
+            if (!(sequence instanceof List)) {
+                return false;
+            }
+            for (Object number : (List<?>) sequence) {
+                if (!(number instanceof Integer)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<List<Integer>> castSequences(Object value) {
+        return (List<List<Integer>>) value;
+    }
+
+    private static void writeSequences(DataOutputStream out, List<List<Integer>> sequences) throws IOException {
+        out.writeInt(sequences.size());
+        for (List<Integer> sequence : sequences) {
+            out.writeInt(sequence.size());
+            for (Integer number : sequence) {
+                out.writeInt(number);
+            }
+        }
+    }
+
+    private static List<List<Integer>> readSequences(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        List<List<Integer>> sequences = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int size = in.readInt();
+            List<Integer> sequence = new ArrayList<>(size);
+            for (int j = 0; j < size; j++) {
+                sequence.add(in.readInt());
+            }
+            sequences.add(sequence);
+        }
+        return sequences;
+    }
+
+    private static void writeTypedSequences(DataOutputStream out, List<List<Number>> sequences, int scale)
+            throws IOException {
+        out.writeInt(sequences.size());
+        for (List<Number> sequence : sequences) {
+            out.writeInt(sequence.size());
+            for (Number number : sequence) {
+                out.writeLong(toUnscaled(number, scale));
+            }
+        }
+    }
+
+    private static List<List<Number>> readTypedSequences(DataInputStream in, NumberType type, int scale)
+            throws IOException {
+        int count = in.readInt();
+        List<List<Number>> sequences = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int size = in.readInt();
+            List<Number> sequence = new ArrayList<>(size);
+            for (int j = 0; j < size; j++) {
+                sequence.add(toNumber(in.readLong(), type, scale));
+            }
+            sequences.add(sequence);
+        }
+        return sequences;
+    }
+
+    /**
+     * @return the number as it was parsed, a DECIMAL number multiplied by 10 to the power of the scale
+     */
+    private static long toUnscaled(Number number, int scale) {
+        return number instanceof BigDecimal
+                ? ((BigDecimal) number).setScale(scale).unscaledValue().longValueExact()
+                : number.longValue();
+    }
+
+    private static Number toNumber(long unscaled, NumberType type, int scale) {
+        return type == NumberType.DECIMAL ? BigDecimal.valueOf(unscaled, scale) : (Number) unscaled;
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal decimal) throws IOException {
+        byte[] unscaled = decimal.unscaledValue().toByteArray();
+        out.writeInt(decimal.scale());
+        out.writeShort(unscaled.length);
+        out.write(unscaled);
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        int scale = in.readInt();
+        byte[] unscaled = new byte[in.readUnsignedShort()];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+}
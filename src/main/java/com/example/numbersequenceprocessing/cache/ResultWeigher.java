@@ -0,0 +1,59 @@
+package com.example.numbersequenceprocessing.cache;
+
+import com.example.numbersequenceprocessing.data.dto.response.SequenceStatistics;
+import com.example.numbersequenceprocessing.data.dto.response.TypedSequenceStatistics;
+import com.example.numbersequenceprocessing.service.analysis.QuantileSketch;
+import com.github.benmanes.caffeine.cache.Weigher;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+/**
+ * Estimates the amount of heap taken by a cached result, so that the cache can be bounded by memory
+ * rather than by the number of entries: a single list of sequences can outweigh thousands of numbers.
+ */
+public class ResultWeigher implements Weigher<Object, Object> {
+    private static final int ENTRY_OVERHEAD = 64;
+    private static final int KEY_SIZE = 96;
+    private static final int NUMBER_SIZE = 16;
+    private static final int DECIMAL_SIZE = 40;
+    private static final int REFERENCE_SIZE = 8;
+    private static final int COLLECTION_OVERHEAD = 40;
+
+    @Override
+    public int weigh(Object key, Object value) {
+        return (int) Math.min(ENTRY_OVERHEAD + KEY_SIZE + estimate(value), Integer.MAX_VALUE);
+    }
+
+    private long estimate(Object value) {
+        if (value instanceof SequenceStatistics) {
+            SequenceStatistics statistics = (SequenceStatistics) value;
+            return COLLECTION_OVERHEAD + 4 * NUMBER_SIZE
+                    + estimate(statistics.getIncreasingSequences())
+                    + estimate(statistics.getDecreasingSequences())
+                    + (statistics.getQuantileSketch() != null ? estimate(statistics.getQuantileSketch()) : 0);
+        }
+        if (value instanceof TypedSequenceStatistics) {
+            TypedSequenceStatistics statistics = (TypedSequenceStatistics) value;
+            return COLLECTION_OVERHEAD + 3 * DECIMAL_SIZE
+                    + estimate(statistics.getMaxValue())
+                    + estimate(statistics.getMinValue())
+                    + estimate(statistics.getIncreasingSequences())
+                    + estimate(statistics.getDecreasingSequences());
+        }
+        if (value instanceof BigDecimal) {
+            return DECIMAL_SIZE;
+        }
+        if (value instanceof QuantileSketch) {
+            return ((QuantileSketch) value).estimateSize();
+        }
+        if (value instanceof Collection) {
+            long size = COLLECTION_OVERHEAD;
+            for (Object element : (Collection<?>) value) {
+                size += REFERENCE_SIZE + estimate(element);
+            }
+            return size;
+        }
+        return NUMBER_SIZE;
+    }
+}
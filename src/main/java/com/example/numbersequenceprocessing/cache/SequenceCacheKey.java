@@ -0,0 +1,49 @@
+package com.example.numbersequenceprocessing.cache;
+
+import com.example.numbersequenceprocessing.data.enums.NumberType;
+import com.example.numbersequenceprocessing.data.enums.OperationType;
+import lombok.Value;
+
+import java.io.Serializable;
+
+/**
+ * Key of a result in the "Numbers" cache: the kind of the result and the checksum of the file it was computed for.
+ * The same key is used whichever endpoint requested the result, so each result is computed and stored once.
+ */
+@Value
+public class SequenceCacheKey implements Serializable {
+    /**
+     * Kind of the result holding the results of all operations
+     */
+    public static final String STATISTICS = "STATISTICS";
+
+    /**
+     * Kind of the result holding the quantile sketch, which answers the approximate operations
+     */
+    public static final String QUANTILE_SKETCH = "QUANTILE_SKETCH";
+
+    /**
+     * Name of the {@link OperationType}, {@link #STATISTICS} or {@link #QUANTILE_SKETCH}. The results of all
+     * operations on numbers of another type than {@link NumberType#INT32} are kept under {@link #STATISTICS}
+     * followed by the type, e.g. {@code STATISTICS:DECIMAL(2)}
+     */
+    String result;
+
+    String checksum;
+
+    public static SequenceCacheKey of(OperationType operation, String checksum) {
+        return new SequenceCacheKey(operation.name(), checksum);
+    }
+
+    public static SequenceCacheKey statistics(String checksum) {
+        return new SequenceCacheKey(STATISTICS, checksum);
+    }
+
+    public static SequenceCacheKey statistics(NumberType type, int scale, String checksum) {
+        return new SequenceCacheKey(STATISTICS + ":" + type.describe(scale), checksum);
+    }
+
+    public static SequenceCacheKey quantileSketch(String checksum) {
+        return new SequenceCacheKey(QUANTILE_SKETCH, checksum);
+    }
+}
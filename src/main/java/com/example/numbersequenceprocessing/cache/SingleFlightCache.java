@@ -0,0 +1,161 @@
+package com.example.numbersequenceprocessing.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+
+/**
+ * Coalesces concurrent computations of the same missing value: the first caller computes it, the callers
+ * requesting the same key meanwhile wait for its result instead of reading the file once more.
+ * A caller waits at most the configured time and then computes the value itself. If the computation
+ * of the first caller fails, including errors, the waiting callers fail the same way, unless it was cancelled.
+ * <p>
+ * The values are computed outside of the locks of the underlying cache, as a computation stores further
+ * results in the same cache.
+ */
+public class SingleFlightCache implements Cache {
+    private final Cache delegate;
+    private final MeterRegistry registry;
+    private final long timeoutMillis;
+
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    public SingleFlightCache(Cache delegate, MeterRegistry registry, Duration timeout) {
+        this.delegate = delegate;
+        this.registry = registry;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = delegate.get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            Timer.Sample sample = Timer.start(registry);
+            try {
+                T value = (T) existing.get(timeoutMillis, TimeUnit.MILLISECONDS);
+                record(sample, key, "value");
+                return value;
+            } catch (TimeoutException e) {
+                record(sample, key, "timeout");
+            } catch (CancellationException e) {
+                // a future completed by a cancellation is reported as cancelled, not as failed
+                record(sample, key, "cancelled");
+            } catch (ExecutionException e) {
+                if (!isCancellation(e.getCause())) {
+                    record(sample, key, "failure");
+                    throw new ValueRetrievalException(key, valueLoader, e.getCause());
+                }
+                record(sample, key, "cancelled");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+            return compute(key, valueLoader);
+        }
+
+        try {
+            // the previous computation may have finished between the miss and the registration of this one
+            ValueWrapper stored = delegate.get(key);
+            T value = stored != null ? (T) stored.get() : compute(key, valueLoader);
+            flight.complete(value);
+            return value;
+        } catch (Throwable e) {
+            flight.completeExceptionally(e instanceof ValueRetrievalException ? e.getCause() : e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    private <T> T compute(Object key, Callable<T> valueLoader) {
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        delegate.put(key, value);
+        return value;
+    }
+
+    /**
+     * @return true if the computation was cancelled, the exceptions of cached methods arrive wrapped
+     */
+    private static boolean isCancellation(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CancellationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void record(Timer.Sample sample, Object key, String outcome) {
+        sample.stop(Timer.builder("numbers.cache.coalesced")
+                .description("Time callers waited for a value computed by a concurrent request")
+                .tag("cache", getName())
+                .tag("operation", OperationMetricsCache.getOperation(key))
+                .tag("outcome", outcome)
+                .register(registry));
+    }
+}
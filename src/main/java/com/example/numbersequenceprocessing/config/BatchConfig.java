@@ -0,0 +1,25 @@
+package com.example.numbersequenceprocessing.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class BatchConfig {
+    /**
+     * Executor processing the files of the batches. The threads are bounded and shared by all batches,
+     * the files of a batch wait in the queue while the threads are busy.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor batchExecutor(@Value("${numbers.batch.threads}") int threads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> new Thread(runnable, "batch-" + threadNumber.incrementAndGet()));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.numbersequenceprocessing.config;
+
+import com.example.numbersequenceprocessing.cache.DiskResultStore;
+import com.example.numbersequenceprocessing.cache.OperationMetricsCache;
+import com.example.numbersequenceprocessing.cache.ResultWeigher;
+import com.example.numbersequenceprocessing.cache.SingleFlightCache;
+import com.example.numbersequenceprocessing.cache.TwoLevelCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+public class CacheConfig {
+    /**
+     * Results cache bounded by the estimated size of the results, entries not requested
+     * for the configured time are removed. Statistics of the whole cache are exposed as the standard
+     * cache metrics, hits, misses and evictions are additionally counted per operation.
+     * Results are also kept in the {@link DiskResultStore}, the most recent of them are loaded on startup.
+     * Concurrent requests missing the same result wait for a single computation of it.
+     */
+    @Bean
+    public CacheManager cacheManager(MeterRegistry registry, DiskResultStore diskStore,
+                                     @Value("${numbers.cache.disk.warm-up-entries}") int warmUpEntries,
+                                     @Value("${numbers.cache.single-flight-timeout}") Duration singleFlightTimeout,
+                                     @Value("${numbers.cache.maximum-size}") DataSize maximumSize,
+                                     @Value("${numbers.cache.expire-after-access}") Duration expireAfterAccess) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name,
+                                               com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                CaffeineCacheMetrics.monitor(registry, cache, name);
+                diskStore.warmUp(warmUpEntries, cache::put);
+                Cache twoLevelCache = new TwoLevelCache(super.adaptCaffeineCache(name, cache), diskStore);
+                return new OperationMetricsCache(
+                        new SingleFlightCache(twoLevelCache, registry, singleFlightTimeout), registry);
+            }
+        };
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumWeight(maximumSize.toBytes())
+                .weigher(new ResultWeigher())
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .removalListener((key, value, cause) -> {
+                    if (cause.wasEvicted()) {
+                        Counter.builder("numbers.cache.evictions")
+                                .description("Results removed from the cache per operation")
+                                .tag("operation", OperationMetricsCache.getOperation(key))
+                                .tag("cause", cause.name())
+                                .register(registry)
+                                .increment();
+                    }
+                }));
+        cacheManager.setCacheNames(List.of("Numbers"));
+        return cacheManager;
+    }
+}
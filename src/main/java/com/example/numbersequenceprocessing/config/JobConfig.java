@@ -0,0 +1,27 @@
+package com.example.numbersequenceprocessing.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class JobConfig {
+    /**
+     * Executor of the asynchronous jobs. Both the threads and the queue are bounded,
+     * a job submitted when the queue is full is rejected.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor jobExecutor(@Value("${numbers.jobs.threads}") int threads,
+                                          @Value("${numbers.jobs.queue-capacity}") int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "job-" + threadNumber.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.numbersequenceprocessing.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+public class ParallelScanConfig {
+    /**
+     * Pool for scanning chunks of large files, kept apart from the common pool,
+     * since its threads block on reading the memory-mapped file
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool parallelScanPool(@Value("${numbers.parallel-scan.parallelism}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+}
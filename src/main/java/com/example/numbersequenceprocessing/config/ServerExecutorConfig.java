@@ -0,0 +1,43 @@
+package com.example.numbersequenceprocessing.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Slf4j
+@Configuration
+public class ServerExecutorConfig {
+    /**
+     * Serves every request on its own virtual thread instead of the bounded Tomcat pool, so requests
+     * waiting on slow file reads do not limit the amount of concurrent requests.
+     * Virtual threads are looked up at runtime, as they are not available in every supported Java version;
+     * without them the requests are served by the Tomcat pool.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "numbers.server.virtual-threads", havingValue = "true")
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        ExecutorService executor = createVirtualThreadExecutor();
+        if (executor == null) {
+            return protocolHandler -> {
+            };
+        }
+        log.info("Requests are served on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            log.warn("Virtual threads are not available in Java {}, requests are served by the Tomcat pool",
+                    System.getProperty("java.version"));
+            return null;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.numbersequenceprocessing.controller.advice;
 
 import com.example.numbersequenceprocessing.data.dto.response.ApiErrorResponse;
+import com.example.numbersequenceprocessing.data.exception.JobNotFoundException;
 import com.example.numbersequenceprocessing.data.exception.SequenceException;
 import com.example.numbersequenceprocessing.utils.api.ResponseUtils;
 import org.springframework.http.HttpStatus;
@@ -11,6 +12,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.NoSuchElementException;
+import java.util.concurrent.RejectedExecutionException;
 
 @ControllerAdvice
 public class GlobalExceptionHandlerControllerAdvice {
@@ -59,4 +61,28 @@ public class GlobalExceptionHandlerControllerAdvice {
                 "Invalid characters in the file provided",
                 HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ApiErrorResponse> handleIllegalArgumentException(Exception ex) {
+        return responseUtils.createErrorResponse(
+                ex,
+                "Invalid parameters of the operation",
+                HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(JobNotFoundException.class)
+    public ResponseEntity<ApiErrorResponse> handleJobNotFoundException(Exception ex) {
+        return responseUtils.createErrorResponse(
+                ex,
+                "No such job was found",
+                HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ApiErrorResponse> handleRejectedExecutionException(Exception ex) {
+        return responseUtils.createErrorResponse(
+                ex,
+                "Too many jobs are queued, try again later",
+                HttpStatus.SERVICE_UNAVAILABLE);
+    }
 }
@@ -0,0 +1,36 @@
+package com.example.numbersequenceprocessing.controller.rest;
+
+import com.example.numbersequenceprocessing.data.dto.request.ColumnConversionRequest;
+import com.example.numbersequenceprocessing.data.dto.response.ApiResponse;
+import com.example.numbersequenceprocessing.data.dto.response.ColumnFileInfo;
+import com.example.numbersequenceprocessing.service.ColumnConversionService;
+import com.example.numbersequenceprocessing.utils.api.ResponseUtils;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/column-file")
+@Api(description = "Converts text files located on the disk to the binary column format")
+public class ColumnConversionController {
+    private final ColumnConversionService columnConversionService;
+    private final ResponseUtils responseUtils;
+
+    public ColumnConversionController(ColumnConversionService columnConversionService, ResponseUtils responseUtils) {
+        this.columnConversionService = columnConversionService;
+        this.responseUtils = responseUtils;
+    }
+
+    @ApiOperation("Converts the text file to a column file, which can then be passed by path to any operation")
+    @PostMapping("/convert")
+    public ResponseEntity<ApiResponse<ColumnFileInfo>> convert(@RequestBody ColumnConversionRequest request)
+            throws IOException {
+        return responseUtils.createResponse(
+                columnConversionService.convert(request.getFilePath(), request.getTargetPath()));
+    }
+}
@@ -1,21 +1,34 @@
 package com.example.numbersequenceprocessing.controller.rest;
 
 import com.example.numbersequenceprocessing.data.dto.response.ApiResponse;
+import com.example.numbersequenceprocessing.data.dto.response.HistogramBucket;
+import com.example.numbersequenceprocessing.data.dto.response.SequenceStatistics;
+import com.example.numbersequenceprocessing.data.dto.response.TypedSequenceStatistics;
 import com.example.numbersequenceprocessing.data.dto.request.FilePathRequest;
 import com.example.numbersequenceprocessing.data.dto.request.NumberSequenceRequest;
+import com.example.numbersequenceprocessing.data.enums.NumberType;
+import com.example.numbersequenceprocessing.data.enums.OperationType;
 import com.example.numbersequenceprocessing.data.exception.SequenceException;
 import com.example.numbersequenceprocessing.service.NumberSequenceService;
+import com.example.numbersequenceprocessing.service.analysis.QuantileSketch;
+import com.example.numbersequenceprocessing.service.analysis.SequenceRunTracker;
 import com.example.numbersequenceprocessing.utils.api.ResponseUtils;
 import com.example.numbersequenceprocessing.utils.checksum.ChecksumUtils;
 import com.example.numbersequenceprocessing.utils.file.FileUtils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import java.io.*;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Optional;
 
 
 @Slf4j
@@ -27,79 +40,269 @@ public class NumberSequenceController {
     private final ResponseUtils responseUtils;
     private final FileUtils fileUtils;
     private final ChecksumUtils checksumUtils;
+    private final ObjectMapper objectMapper;
 
     public NumberSequenceController(NumberSequenceService numberSequenceService,
                                     ResponseUtils responseUtils,
-                                    FileUtils fileUtils, ChecksumUtils checksumUtils) {
+                                    FileUtils fileUtils, ChecksumUtils checksumUtils,
+                                    ObjectMapper objectMapper) {
         this.numberSequenceService = numberSequenceService;
         this.responseUtils = responseUtils;
         this.fileUtils = fileUtils;
         this.checksumUtils = checksumUtils;
+        this.objectMapper = objectMapper;
     }
 
     @ApiOperation("Executes the operation with the specified path for the file, passed as a request")
     @PostMapping("/perform-operation")
     public ResponseEntity<ApiResponse<Object>> performOperation(@RequestBody NumberSequenceRequest request)
             throws SequenceException, IOException {
-        InputStream reader = fileUtils.readFile(request.getFilePath());
-        String checksum = checksumUtils.getChecksum(request.getFilePath());
-        Object data = numberSequenceService.performOperation(request.getOperation(), checksum, reader);
-        return responseUtils.createResponse(data);
+        OperationType operation = request.getOperation();
+        if (request.getType() != null && request.getType() != NumberType.INT32) {
+            return executeTyped(request.getFilePath(), operation, request.getType(), request.getScale());
+        }
+        if (operation.isApproximate()) {
+            return executeApproximate(request.getFilePath(), operation, request.getPercentile(), request.getBuckets());
+        }
+        return execute(request.getFilePath(), operation,
+                statistics -> numberSequenceService.getResult(operation, statistics),
+                (checksum, reader) -> numberSequenceService.performOperation(operation, checksum, reader));
     }
 
     @ApiOperation("Finds the maximum number in the file")
     @PostMapping("/get-max-value")
-    public ResponseEntity<ApiResponse<Integer>> getMaxValue(@RequestBody FilePathRequest request) throws IOException {
-        InputStream reader = fileUtils.readFile(request.getFilePath());
-        String checksum = checksumUtils.getChecksum(request.getFilePath());
-        Integer maxValue = numberSequenceService.getMaxValue(checksum, reader);
-        return responseUtils.createResponse(maxValue);
+    public ResponseEntity<ApiResponse<Integer>> getMaxValue(@RequestBody FilePathRequest request)
+            throws IOException, SequenceException {
+        return execute(request.getFilePath(), OperationType.MAX_VALUE, SequenceStatistics::getMaxValue,
+                numberSequenceService::getMaxValue);
     }
 
     @ApiOperation("Finds the minimum number in the file")
     @PostMapping("/get-min-value")
-    public ResponseEntity<ApiResponse<Integer>> getMinValue(@RequestBody FilePathRequest request) throws IOException {
-        InputStream reader = fileUtils.readFile(request.getFilePath());
-        String checksum = checksumUtils.getChecksum(request.getFilePath());
-        Integer minValue = numberSequenceService.getMinValue(checksum, reader);
-        return responseUtils.createResponse(minValue);
+    public ResponseEntity<ApiResponse<Integer>> getMinValue(@RequestBody FilePathRequest request)
+            throws IOException, SequenceException {
+        return execute(request.getFilePath(), OperationType.MIN_VALUE, SequenceStatistics::getMinValue,
+                numberSequenceService::getMinValue);
     }
 
     @ApiOperation("Finds the median of the numbers in the file")
     @PostMapping("/get-median")
-    public ResponseEntity<ApiResponse<Double>> getMedian(@RequestBody FilePathRequest request) throws IOException {
-        InputStream reader = fileUtils.readFile(request.getFilePath());
-        String checksum = checksumUtils.getChecksum(request.getFilePath());
-        Double median = numberSequenceService.getMedian(checksum, reader);
-        return responseUtils.createResponse(median);
+    public ResponseEntity<ApiResponse<Double>> getMedian(@RequestBody FilePathRequest request)
+            throws IOException, SequenceException {
+        return execute(request.getFilePath(), OperationType.MEDIAN, SequenceStatistics::getMedian,
+                numberSequenceService::getMedian);
     }
 
     @ApiOperation("Finds the arithmetic average of the numbers in the file")
     @PostMapping("/get-mean")
-    public ResponseEntity<ApiResponse<Double>> getMean(@RequestBody FilePathRequest request) throws IOException {
-        InputStream reader = fileUtils.readFile(request.getFilePath());
-        String checksum = checksumUtils.getChecksum(request.getFilePath());
-        Double mean = numberSequenceService.getMean(checksum, reader);
-        return responseUtils.createResponse(mean);
+    public ResponseEntity<ApiResponse<Double>> getMean(@RequestBody FilePathRequest request)
+            throws IOException, SequenceException {
+        return execute(request.getFilePath(), OperationType.MEAN, SequenceStatistics::getMean,
+                numberSequenceService::getMean);
     }
 
     @ApiOperation("Finds the longest sequence of consecutive numbers that increases")
     @PostMapping("/get-increasing-sequence")
     public ResponseEntity<ApiResponse<List<List<Integer>>>> getIncreasingSequence(@RequestBody FilePathRequest request)
             throws IOException, SequenceException {
-        InputStream reader = fileUtils.readFile(request.getFilePath());
-        String checksum = checksumUtils.getChecksum(request.getFilePath());
-        List<List<Integer>> sequence = numberSequenceService.getLongestSequenceOfIncreasingNumbers(checksum, reader);
-        return responseUtils.createResponse(sequence);
+        return execute(request.getFilePath(), OperationType.INCREASING_SEQUENCE,
+                statistics -> numberSequenceService.requireSequences(statistics.getIncreasingSequences()),
+                numberSequenceService::getLongestSequenceOfIncreasingNumbers);
     }
 
     @ApiOperation("Finds the longest sequence of consecutive numbers that decreases")
     @PostMapping("/get-decreasing-sequence")
     public ResponseEntity<ApiResponse<List<List<Integer>>>> getDecreasingSequence(@RequestBody FilePathRequest request)
             throws IOException, SequenceException {
-        InputStream reader = fileUtils.readFile(request.getFilePath());
-        String checksum = checksumUtils.getChecksum(request.getFilePath());
-        List<List<Integer>> sequence = numberSequenceService.getLongestSequenceOfDecreasingNumbers(checksum, reader);
-        return responseUtils.createResponse(sequence);
+        return execute(request.getFilePath(), OperationType.DECREASING_SEQUENCE,
+                statistics -> numberSequenceService.requireSequences(statistics.getDecreasingSequences()),
+                numberSequenceService::getLongestSequenceOfDecreasingNumbers);
+    }
+
+    @ApiOperation("Finds the longest sequences of consecutive numbers that increase and writes each of them "
+            + "as a separate JSON line, without building the whole response in memory")
+    @PostMapping("/stream-increasing-sequence")
+    public void streamIncreasingSequence(@RequestBody FilePathRequest request, HttpServletResponse response)
+            throws IOException, SequenceException {
+        stream(request.getFilePath(), OperationType.INCREASING_SEQUENCE, response);
+    }
+
+    @ApiOperation("Finds the longest sequences of consecutive numbers that decrease and writes each of them "
+            + "as a separate JSON line, without building the whole response in memory")
+    @PostMapping("/stream-decreasing-sequence")
+    public void streamDecreasingSequence(@RequestBody FilePathRequest request, HttpServletResponse response)
+            throws IOException, SequenceException {
+        stream(request.getFilePath(), OperationType.DECREASING_SEQUENCE, response);
+    }
+
+    @ApiOperation("Estimates the median of the numbers in the file within the configured relative accuracy")
+    @PostMapping("/get-approx-median")
+    public ResponseEntity<ApiResponse<Double>> getApproximateMedian(@RequestBody FilePathRequest request)
+            throws IOException {
+        return executeApproximate(request.getFilePath(), OperationType.APPROX_MEDIAN, null, null);
+    }
+
+    @ApiOperation("Estimates the percentile of the numbers in the file within the configured relative accuracy")
+    @PostMapping("/get-percentile")
+    public ResponseEntity<ApiResponse<Double>> getPercentile(@RequestBody FilePathRequest request,
+                                                             @RequestParam("percentile") double percentile)
+            throws IOException {
+        return executeApproximate(request.getFilePath(), OperationType.PERCENTILE, percentile, null);
+    }
+
+    @ApiOperation("Estimates the amount of numbers in the file in buckets of equal width between the minimum "
+            + "and the maximum")
+    @PostMapping("/get-histogram")
+    public ResponseEntity<ApiResponse<List<HistogramBucket>>> getHistogram(
+            @RequestBody FilePathRequest request,
+            @RequestParam(value = "buckets", defaultValue = "10") int buckets)
+            throws IOException {
+        return executeApproximate(request.getFilePath(), OperationType.HISTOGRAM, null, buckets);
+    }
+
+    @ApiOperation("Computes the results of all operations in a single pass over the file")
+    @PostMapping("/analyze")
+    public ResponseEntity<ApiResponse<SequenceStatistics>> analyze(@RequestBody FilePathRequest request)
+            throws IOException, SequenceException {
+        return execute(request.getFilePath(), null, statistics -> statistics, numberSequenceService::analyze);
+    }
+
+    @ApiOperation("Computes the results of all operations on 64-bit or decimal numbers in a single pass over the file")
+    @PostMapping("/analyze-typed")
+    public ResponseEntity<ApiResponse<TypedSequenceStatistics>> analyzeTyped(
+            @RequestBody FilePathRequest request,
+            @RequestParam("type") NumberType type,
+            @RequestParam(value = "scale", required = false) Integer scale)
+            throws IOException {
+        String checksum = checksumUtils.getFileKey(request.getFilePath());
+        try (InputStream reader = checksumUtils.digestingStream(fileUtils.readFile(request.getFilePath()))) {
+            return responseUtils.createResponse(numberSequenceService.analyze(type, scale, checksum, reader));
+        }
+    }
+
+    /**
+     * Indexed, large and column files are analyzed as a whole, computing the results of all operations at once,
+     * otherwise the file is read sequentially by the requested operation only. The operations known from the table
+     * of the blocks of a column file are answered without reading the numbers.
+     *
+     * @param operation the requested operation, null if the results of all operations are requested
+     */
+    @SuppressWarnings("unchecked")
+    private <T> ResponseEntity<ApiResponse<T>> execute(String filePath, OperationType operation,
+                                                       StatisticsOperation<T> parallelOperation,
+                                                       FileOperation<T> sequentialOperation)
+            throws IOException, SequenceException {
+        String checksum = checksumUtils.getFileKey(filePath);
+        Path file = fileUtils.getPath(filePath);
+
+        if (operation != null) {
+            Optional<Object> result = numberSequenceService.getColumnTableResult(operation, file);
+            if (result.isPresent()) {
+                return responseUtils.createResponse((T) result.get());
+            }
+        }
+
+        if (numberSequenceService.supportsFileAnalysis(operation, file)) {
+            SequenceStatistics statistics = numberSequenceService.analyze(checksum, file);
+            return responseUtils.createResponse(parallelOperation.apply(statistics));
+        }
+
+        try (InputStream reader = checksumUtils.digestingStream(fileUtils.readFile(filePath))) {
+            return responseUtils.createResponse(sequentialOperation.apply(checksum, reader));
+        }
+    }
+
+    /**
+     * Operations on other types than {@link NumberType#INT32} are answered from the results of all operations,
+     * which are computed by reading the file sequentially
+     */
+    private ResponseEntity<ApiResponse<Object>> executeTyped(String filePath, OperationType operation,
+                                                             NumberType type, Integer scale)
+            throws IOException, SequenceException {
+        String checksum = checksumUtils.getFileKey(filePath);
+        try (InputStream reader = checksumUtils.digestingStream(fileUtils.readFile(filePath))) {
+            return responseUtils.createResponse(
+                    numberSequenceService.performOperation(operation, type, scale, null, null, checksum, reader));
+        }
+    }
+
+    /**
+     * Approximate operations are answered from the quantile sketch of the file, which is computed without
+     * keeping the numbers for the exact median
+     */
+    @SuppressWarnings("unchecked")
+    private <T> ResponseEntity<ApiResponse<T>> executeApproximate(String filePath, OperationType operation,
+                                                                  Double percentile, Integer buckets)
+            throws IOException {
+        String checksum = checksumUtils.getFileKey(filePath);
+        QuantileSketch sketch = numberSequenceService.getQuantileSketch(checksum, fileUtils.getPath(filePath));
+        return responseUtils.createResponse(
+                (T) numberSequenceService.getApproximateResult(operation, percentile, buckets, sketch));
+    }
+
+    private void stream(String filePath, OperationType operation, HttpServletResponse response)
+            throws IOException, SequenceException {
+        String checksum = checksumUtils.getFileKey(filePath);
+        try (NdjsonRunWriter writer = new NdjsonRunWriter(response)) {
+            numberSequenceService.writeLongestSequences(operation, checksum, fileUtils.getPath(filePath), writer);
+        }
+    }
+
+    @FunctionalInterface
+    private interface StatisticsOperation<T> {
+        T apply(SequenceStatistics statistics) throws SequenceException;
+    }
+
+    @FunctionalInterface
+    private interface FileOperation<T> {
+        T apply(String checksum, InputStream reader) throws IOException, SequenceException;
+    }
+
+    /**
+     * Writes every sequence as a separate JSON line. The response is only started by the first sequence,
+     * so that an error found before it, e.g. a missing file or no sequence at all, is still answered
+     * by the exception handler. The sequences are sent in chunks whenever the buffer of the response fills up,
+     * a slow client blocks the writes and so holds back the following sequences.
+     */
+    private class NdjsonRunWriter implements SequenceRunTracker.RunWriter, Closeable {
+        private final HttpServletResponse response;
+        private JsonGenerator generator;
+
+        NdjsonRunWriter(HttpServletResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public void write(int[] values, int from, int to) throws IOException {
+            start().writeArray(values, from, to - from);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void write(List<Integer> values) throws IOException {
+            start().writeStartArray();
+            for (Integer value : values) {
+                generator.writeNumber(value);
+            }
+            generator.writeEndArray();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (generator != null) {
+                generator.close();
+            }
+        }
+
+        private JsonGenerator start() throws IOException {
+            if (generator == null) {
+                response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+                generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+            }
+            return generator;
+        }
     }
 }
@@ -1,12 +1,16 @@
 package com.example.numbersequenceprocessing.controller.rest;
 
 import com.example.numbersequenceprocessing.data.dto.response.ApiResponse;
+import com.example.numbersequenceprocessing.data.dto.response.HistogramBucket;
+import com.example.numbersequenceprocessing.data.dto.response.SequenceStatistics;
+import com.example.numbersequenceprocessing.data.enums.NumberType;
 import com.example.numbersequenceprocessing.data.enums.OperationType;
 import com.example.numbersequenceprocessing.data.exception.SequenceException;
 import com.example.numbersequenceprocessing.service.NumberSequenceService;
 import com.example.numbersequenceprocessing.utils.api.ResponseUtils;
 import com.example.numbersequenceprocessing.utils.checksum.ChecksumUtils;
 import com.example.numbersequenceprocessing.utils.file.FileUtils;
+import com.example.numbersequenceprocessing.utils.metrics.MetricsUtils;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import lombok.extern.slf4j.Slf4j;
@@ -32,25 +36,34 @@ public class NumberSequenceMultipartFileController {
     private final ResponseUtils responseUtils;
     private final FileUtils fileUtils;
     private final ChecksumUtils checksumUtils;
+    private final MetricsUtils metricsUtils;
 
     public NumberSequenceMultipartFileController(NumberSequenceService numberSequenceService,
                                                  ResponseUtils responseUtils,
-                                                 FileUtils fileUtils, ChecksumUtils checksumUtils) {
+                                                 FileUtils fileUtils, ChecksumUtils checksumUtils,
+                                                 MetricsUtils metricsUtils) {
         this.numberSequenceService = numberSequenceService;
         this.responseUtils = responseUtils;
         this.fileUtils = fileUtils;
         this.checksumUtils = checksumUtils;
+        this.metricsUtils = metricsUtils;
     }
 
     @ApiOperation(value = "Executes the operation with the specified path for the file, passed as a request")
     @PostMapping(path = "/perform-operation", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ApiResponse<Object>> performOperation(
             @RequestParam("textFile") MultipartFile file,
-            @RequestParam("operation") OperationType operation)
+            @RequestParam("operation") OperationType operation,
+            @RequestParam(value = "percentile", required = false) Double percentile,
+            @RequestParam(value = "buckets", required = false) Integer buckets,
+            @RequestParam(value = "type", required = false) NumberType type,
+            @RequestParam(value = "scale", required = false) Integer scale)
             throws IOException, SequenceException {
+        metricsUtils.recordUpload("multipart", file.getSize());
         InputStream reader = fileUtils.readFile(file);
         String checksum = checksumUtils.getChecksum(file);
-        Object data = numberSequenceService.performOperation(operation, checksum, reader);
+        Object data = numberSequenceService.performOperation(operation, type, scale, percentile, buckets,
+                checksum, reader);
         return responseUtils.createResponse(data);
     }
 
@@ -58,6 +71,7 @@ public class NumberSequenceMultipartFileController {
     @PostMapping(path = "/get-max-value", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ApiResponse<Integer>> getMaxValue(@RequestParam("textFile") MultipartFile file)
             throws IOException {
+        metricsUtils.recordUpload("multipart", file.getSize());
         InputStream reader = fileUtils.readFile(file);
         String checksum = checksumUtils.getChecksum(file);
         Integer maxValue = numberSequenceService.getMaxValue(checksum, reader);
@@ -68,6 +82,7 @@ public class NumberSequenceMultipartFileController {
     @PostMapping(path = "/get-min-value", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ApiResponse<Integer>> getMinValue(@RequestParam("textFile") MultipartFile file)
             throws IOException {
+        metricsUtils.recordUpload("multipart", file.getSize());
         InputStream reader = fileUtils.readFile(file);
         String checksum = checksumUtils.getChecksum(file);
         Integer minValue = numberSequenceService.getMinValue(checksum, reader);
@@ -78,6 +93,7 @@ public class NumberSequenceMultipartFileController {
     @PostMapping(path = "/get-median", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ApiResponse<Double>> getMedian(@RequestParam("textFile") MultipartFile file)
             throws IOException {
+        metricsUtils.recordUpload("multipart", file.getSize());
         InputStream reader = fileUtils.readFile(file);
         String checksum = checksumUtils.getChecksum(file);
         Double median = numberSequenceService.getMedian(checksum, reader);
@@ -88,6 +104,7 @@ public class NumberSequenceMultipartFileController {
     @PostMapping(path = "/get-mean", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ApiResponse<Double>> getMean(@RequestParam("textFile") MultipartFile file)
             throws IOException {
+        metricsUtils.recordUpload("multipart", file.getSize());
         InputStream reader = fileUtils.readFile(file);
         String checksum = checksumUtils.getChecksum(file);
         Double mean = numberSequenceService.getMean(checksum, reader);
@@ -99,6 +116,7 @@ public class NumberSequenceMultipartFileController {
     public ResponseEntity<ApiResponse<List<List<Integer>>>> getIncreasingSequence(
             @RequestParam("textFile") MultipartFile file)
             throws IOException, SequenceException {
+        metricsUtils.recordUpload("multipart", file.getSize());
         InputStream reader = fileUtils.readFile(file);
         String checksum = checksumUtils.getChecksum(file);
         List<List<Integer>> sequence = numberSequenceService.getLongestSequenceOfIncreasingNumbers(checksum, reader);
@@ -110,9 +128,57 @@ public class NumberSequenceMultipartFileController {
     public ResponseEntity<ApiResponse<List<List<Integer>>>> getDecreasingSequence(
             @RequestParam("textFile") MultipartFile file)
             throws IOException, SequenceException {
+        metricsUtils.recordUpload("multipart", file.getSize());
         InputStream reader = fileUtils.readFile(file);
         String checksum = checksumUtils.getChecksum(file);
         List<List<Integer>> sequence = numberSequenceService.getLongestSequenceOfDecreasingNumbers(checksum, reader);
         return responseUtils.createResponse(sequence);
     }
+
+    @ApiOperation("Estimates the median of the numbers in the file within the configured relative accuracy")
+    @PostMapping(path = "/get-approx-median", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<Double>> getApproximateMedian(@RequestParam("textFile") MultipartFile file)
+            throws IOException {
+        return executeApproximate(file, OperationType.APPROX_MEDIAN, null, null);
+    }
+
+    @ApiOperation("Estimates the percentile of the numbers in the file within the configured relative accuracy")
+    @PostMapping(path = "/get-percentile", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<Double>> getPercentile(@RequestParam("textFile") MultipartFile file,
+                                                             @RequestParam("percentile") double percentile)
+            throws IOException {
+        return executeApproximate(file, OperationType.PERCENTILE, percentile, null);
+    }
+
+    @ApiOperation("Estimates the amount of numbers in the file in buckets of equal width between the minimum "
+            + "and the maximum")
+    @PostMapping(path = "/get-histogram", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<List<HistogramBucket>>> getHistogram(
+            @RequestParam("textFile") MultipartFile file,
+            @RequestParam(value = "buckets", defaultValue = "10") int buckets)
+            throws IOException {
+        return executeApproximate(file, OperationType.HISTOGRAM, null, buckets);
+    }
+
+    @ApiOperation("Computes the results of all operations in a single pass over the file")
+    @PostMapping(path = "/analyze", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<SequenceStatistics>> analyze(@RequestParam("textFile") MultipartFile file)
+            throws IOException {
+        metricsUtils.recordUpload("multipart", file.getSize());
+        InputStream reader = fileUtils.readFile(file);
+        String checksum = checksumUtils.getChecksum(file);
+        SequenceStatistics statistics = numberSequenceService.analyze(checksum, reader);
+        return responseUtils.createResponse(statistics);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ResponseEntity<ApiResponse<T>> executeApproximate(MultipartFile file, OperationType operation,
+                                                                  Double percentile, Integer buckets)
+            throws IOException {
+        metricsUtils.recordUpload("multipart", file.getSize());
+        InputStream reader = fileUtils.readFile(file);
+        String checksum = checksumUtils.getChecksum(file);
+        return responseUtils.createResponse((T) numberSequenceService.getApproximateResult(operation, percentile,
+                buckets, numberSequenceService.getQuantileSketch(checksum, reader)));
+    }
 }
@@ -0,0 +1,173 @@
+package com.example.numbersequenceprocessing.controller.rest;
+
+import com.example.numbersequenceprocessing.data.dto.response.ApiResponse;
+import com.example.numbersequenceprocessing.data.dto.response.HistogramBucket;
+import com.example.numbersequenceprocessing.data.dto.response.SequenceStatistics;
+import com.example.numbersequenceprocessing.data.enums.NumberType;
+import com.example.numbersequenceprocessing.data.enums.OperationType;
+import com.example.numbersequenceprocessing.data.exception.SequenceException;
+import com.example.numbersequenceprocessing.service.NumberSequenceService;
+import com.example.numbersequenceprocessing.utils.api.ResponseUtils;
+import com.example.numbersequenceprocessing.utils.file.FileUtils;
+import com.example.numbersequenceprocessing.utils.metrics.MetricsUtils;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.input.CountingInputStream;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/stream/")
+@Api(description = "Performs the requested operation on the numbers sent as the body of the request, "
+        + "reading them as they arrive. A gzip, zstd or lz4 compressed body is decompressed on the fly")
+public class NumberSequenceStreamController {
+
+    private final NumberSequenceService numberSequenceService;
+    private final ResponseUtils responseUtils;
+    private final FileUtils fileUtils;
+    private final MetricsUtils metricsUtils;
+
+    public NumberSequenceStreamController(NumberSequenceService numberSequenceService, ResponseUtils responseUtils,
+                                          FileUtils fileUtils, MetricsUtils metricsUtils) {
+        this.numberSequenceService = numberSequenceService;
+        this.responseUtils = responseUtils;
+        this.fileUtils = fileUtils;
+        this.metricsUtils = metricsUtils;
+    }
+
+    @ApiOperation("Executes the operation specified as a parameter on the body of the request")
+    @PostMapping(path = "/perform-operation",
+            consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ApiResponse<Object>> performOperation(
+            @RequestParam("operation") OperationType operation,
+            @RequestParam(value = "percentile", required = false) Double percentile,
+            @RequestParam(value = "buckets", required = false) Integer buckets,
+            @RequestParam(value = "type", required = false) NumberType type,
+            @RequestParam(value = "scale", required = false) Integer scale,
+            InputStream body)
+            throws IOException, SequenceException {
+        CountingInputStream reader = new CountingInputStream(body);
+        try {
+            return responseUtils.createResponse(
+                    numberSequenceService.performOperation(operation, type, scale, percentile, buckets,
+                            fileUtils.decompress(reader)));
+        } finally {
+            metricsUtils.recordUpload("stream", reader.getByteCount());
+        }
+    }
+
+    @ApiOperation("Finds the maximum number in the body of the request")
+    @PostMapping(path = "/get-max-value",
+            consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ApiResponse<Integer>> getMaxValue(InputStream body) throws IOException, SequenceException {
+        return execute(OperationType.MAX_VALUE, body);
+    }
+
+    @ApiOperation("Finds the minimum number in the body of the request")
+    @PostMapping(path = "/get-min-value",
+            consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ApiResponse<Integer>> getMinValue(InputStream body) throws IOException, SequenceException {
+        return execute(OperationType.MIN_VALUE, body);
+    }
+
+    @ApiOperation("Finds the median of the numbers in the body of the request")
+    @PostMapping(path = "/get-median",
+            consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ApiResponse<Double>> getMedian(InputStream body) throws IOException, SequenceException {
+        return execute(OperationType.MEDIAN, body);
+    }
+
+    @ApiOperation("Finds the arithmetic average of the numbers in the body of the request")
+    @PostMapping(path = "/get-mean",
+            consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ApiResponse<Double>> getMean(InputStream body) throws IOException, SequenceException {
+        return execute(OperationType.MEAN, body);
+    }
+
+    @ApiOperation("Finds the longest sequence of consecutive numbers that increases")
+    @PostMapping(path = "/get-increasing-sequence",
+            consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ApiResponse<List<List<Integer>>>> getIncreasingSequence(InputStream body)
+            throws IOException, SequenceException {
+        return execute(OperationType.INCREASING_SEQUENCE, body);
+    }
+
+    @ApiOperation("Finds the longest sequence of consecutive numbers that decreases")
+    @PostMapping(path = "/get-decreasing-sequence",
+            consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ApiResponse<List<List<Integer>>>> getDecreasingSequence(InputStream body)
+            throws IOException, SequenceException {
+        return execute(OperationType.DECREASING_SEQUENCE, body);
+    }
+
+    @ApiOperation("Estimates the median of the numbers in the body of the request within the configured "
+            + "relative accuracy")
+    @PostMapping(path = "/get-approx-median",
+            consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ApiResponse<Double>> getApproximateMedian(InputStream body)
+            throws IOException, SequenceException {
+        return execute(OperationType.APPROX_MEDIAN, body);
+    }
+
+    @ApiOperation("Estimates the percentile of the numbers in the body of the request within the configured "
+            + "relative accuracy")
+    @PostMapping(path = "/get-percentile",
+            consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ApiResponse<Double>> getPercentile(@RequestParam("percentile") double percentile,
+                                                             InputStream body)
+            throws IOException, SequenceException {
+        return execute(OperationType.PERCENTILE, percentile, null, body);
+    }
+
+    @ApiOperation("Estimates the amount of numbers in the body of the request in buckets of equal width between "
+            + "the minimum and the maximum")
+    @PostMapping(path = "/get-histogram",
+            consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ApiResponse<List<HistogramBucket>>> getHistogram(
+            @RequestParam(value = "buckets", defaultValue = "10") int buckets,
+            InputStream body)
+            throws IOException, SequenceException {
+        return execute(OperationType.HISTOGRAM, null, buckets, body);
+    }
+
+    @ApiOperation("Computes the results of all operations in a single pass over the body of the request")
+    @PostMapping(path = "/analyze",
+            consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ApiResponse<SequenceStatistics>> analyze(InputStream body) throws IOException {
+        CountingInputStream reader = new CountingInputStream(body);
+        try {
+            return responseUtils.createResponse(numberSequenceService.analyze(fileUtils.decompress(reader)));
+        } finally {
+            metricsUtils.recordUpload("stream", reader.getByteCount());
+        }
+    }
+
+    private <T> ResponseEntity<ApiResponse<T>> execute(OperationType operation, InputStream body)
+            throws IOException, SequenceException {
+        return execute(operation, null, null, body);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ResponseEntity<ApiResponse<T>> execute(OperationType operation, Double percentile, Integer buckets,
+                                                       InputStream body)
+            throws IOException, SequenceException {
+        CountingInputStream reader = new CountingInputStream(body);
+        try {
+            return responseUtils.createResponse(
+                    (T) numberSequenceService.performOperation(operation, percentile, buckets,
+                            fileUtils.decompress(reader)));
+        } finally {
+            metricsUtils.recordUpload("stream", reader.getByteCount());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.numbersequenceprocessing.controller.rest;
+
+import com.example.numbersequenceprocessing.data.dto.request.NumberSequenceRequest;
+import com.example.numbersequenceprocessing.service.SequenceBatchService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/batch")
+@Api(description = "Performs many operations on files located on the disk in one request")
+public class SequenceBatchController {
+    private final SequenceBatchService sequenceBatchService;
+    private final ObjectWriter writer;
+
+    public SequenceBatchController(SequenceBatchService sequenceBatchService, ObjectMapper objectMapper) {
+        this.sequenceBatchService = sequenceBatchService;
+        this.writer = objectMapper.writer();
+    }
+
+    @ApiOperation("Executes the requests, each file is read once for all of its operations and the files are "
+            + "processed in parallel. The result of every request is written as a separate JSON line "
+            + "as soon as its file is processed, in the order of completion")
+    @PostMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void execute(@RequestBody List<NumberSequenceRequest> requests, HttpServletResponse response)
+            throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream output = response.getOutputStream();
+        sequenceBatchService.process(requests, result -> {
+            output.write(writer.writeValueAsBytes(result));
+            output.write('\n');
+            output.flush();
+        });
+    }
+}
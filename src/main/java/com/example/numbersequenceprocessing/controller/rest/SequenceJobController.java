@@ -0,0 +1,54 @@
+package com.example.numbersequenceprocessing.controller.rest;
+
+import com.example.numbersequenceprocessing.data.dto.request.NumberSequenceRequest;
+import com.example.numbersequenceprocessing.data.dto.response.ApiResponse;
+import com.example.numbersequenceprocessing.data.dto.response.JobStatus;
+import com.example.numbersequenceprocessing.data.enums.NumberType;
+import com.example.numbersequenceprocessing.data.exception.JobNotFoundException;
+import com.example.numbersequenceprocessing.service.SequenceJobService;
+import com.example.numbersequenceprocessing.utils.api.ResponseUtils;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/jobs")
+@Api(description = "Performs the requested operation on a file located on the disk in the background")
+public class SequenceJobController {
+    private final SequenceJobService sequenceJobService;
+    private final ResponseUtils responseUtils;
+
+    public SequenceJobController(SequenceJobService sequenceJobService, ResponseUtils responseUtils) {
+        this.sequenceJobService = sequenceJobService;
+        this.responseUtils = responseUtils;
+    }
+
+    @ApiOperation("Starts the operation on the file with the specified path and returns the job without waiting for it")
+    @PostMapping
+    public ResponseEntity<ApiResponse<JobStatus>> submit(@RequestBody NumberSequenceRequest request)
+            throws IOException {
+        if (request.getType() != null && request.getType() != NumberType.INT32) {
+            throw new IllegalArgumentException("Only INT32 numbers are processed in the background");
+        }
+        return responseUtils.createResponse(
+                sequenceJobService.submit(request.getFilePath(), request.getOperation(),
+                        request.getPercentile(), request.getBuckets()));
+    }
+
+    @ApiOperation("Returns the progress of the job and its result, once it is completed")
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<JobStatus>> getStatus(@PathVariable String id) throws JobNotFoundException {
+        return responseUtils.createResponse(sequenceJobService.getStatus(id));
+    }
+
+    @ApiOperation("Cancels the job")
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<JobStatus>> cancel(@PathVariable String id) throws JobNotFoundException {
+        return responseUtils.createResponse(sequenceJobService.cancel(id));
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.numbersequenceprocessing.data.dto.request;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+@Data
+@ApiModel(description = "Request data model, containing the path to the text file and the path to the column file to write")
+public class ColumnConversionRequest {
+
+    @ApiModelProperty(value = "Absolute path to the text file located on the server", example = "C:/test_data/file.txt")
+    private String filePath;
+
+    @ApiModelProperty(value = "Path to the column file to create or overwrite within the column directory "
+            + "of the server, relative to it or absolute", example = "file.nsq")
+    private String targetPath;
+}
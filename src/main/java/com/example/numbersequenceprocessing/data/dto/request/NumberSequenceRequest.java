@@ -1,5 +1,6 @@
 package com.example.numbersequenceprocessing.data.dto.request;
 
+import com.example.numbersequenceprocessing.data.enums.NumberType;
 import com.example.numbersequenceprocessing.data.enums.OperationType;
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
@@ -15,4 +16,16 @@ public class NumberSequenceRequest {
 
     @ApiModelProperty(value = "The type of operation to be performed", example = "MAX_VALUE")
     private OperationType operation;
+
+    @ApiModelProperty(value = "Percentile between 0 and 100, required by the PERCENTILE operation", example = "99")
+    private Double percentile;
+
+    @ApiModelProperty(value = "Amount of buckets of the HISTOGRAM operation, 10 by default", example = "10")
+    private Integer buckets;
+
+    @ApiModelProperty(value = "Type of the numbers in the file, INT32 by default", example = "INT64")
+    private NumberType type;
+
+    @ApiModelProperty(value = "Amount of fraction digits, required by the DECIMAL type", example = "2")
+    private Integer scale;
 }
@@ -0,0 +1,30 @@
+package com.example.numbersequenceprocessing.data.dto.response;
+
+import com.example.numbersequenceprocessing.data.enums.OperationType;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+import org.springframework.http.HttpStatus;
+
+@Data
+@ApiModel(description = "Result of a single request of a batch, written as a separate line once its file is processed")
+public class BatchItemResult {
+
+    @ApiModelProperty(value = "Position of the request in the batch, starting from 0")
+    private int index;
+
+    @ApiModelProperty(value = "Absolute path to the processed file")
+    private String filePath;
+
+    @ApiModelProperty(value = "The type of operation performed")
+    private OperationType operation;
+
+    @ApiModelProperty(value = "Status of the request, as it would be returned for a single request")
+    private HttpStatus status;
+
+    @ApiModelProperty(value = "Error message from the server")
+    private String message;
+
+    @ApiModelProperty(value = "Data of executed query, form of the data depends on the type of operation performed")
+    private Object data;
+}
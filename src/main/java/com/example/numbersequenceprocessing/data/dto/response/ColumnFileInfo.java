@@ -0,0 +1,22 @@
+package com.example.numbersequenceprocessing.data.dto.response;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+@Data
+@ApiModel(description = "Data model describing a file written in the binary column format")
+public class ColumnFileInfo {
+
+    @ApiModelProperty(value = "Absolute path to the column file")
+    private String filePath;
+
+    @ApiModelProperty(value = "Amount of numbers in the file")
+    private long count;
+
+    @ApiModelProperty(value = "Amount of blocks with their own minimum, maximum and sum")
+    private int blocks;
+
+    @ApiModelProperty(value = "Size of the column file in bytes")
+    private long sizeBytes;
+}
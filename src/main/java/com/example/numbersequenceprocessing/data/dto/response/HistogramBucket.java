@@ -0,0 +1,19 @@
+package com.example.numbersequenceprocessing.data.dto.response;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+@Data
+@ApiModel(description = "Bucket of an approximate histogram of the numbers")
+public class HistogramBucket {
+
+    @ApiModelProperty(value = "Lower bound of the bucket, inclusive")
+    private double lowerBound;
+
+    @ApiModelProperty(value = "Upper bound of the bucket, exclusive")
+    private double upperBound;
+
+    @ApiModelProperty(value = "Estimated amount of numbers in the bucket")
+    private long count;
+}
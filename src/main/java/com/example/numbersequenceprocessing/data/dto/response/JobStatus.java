@@ -0,0 +1,39 @@
+package com.example.numbersequenceprocessing.data.dto.response;
+
+import com.example.numbersequenceprocessing.data.enums.JobState;
+import com.example.numbersequenceprocessing.data.enums.OperationType;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+@Data
+@ApiModel(description = "Data model describing the progress and the result of an asynchronous job")
+public class JobStatus {
+
+    @ApiModelProperty(value = "Identifier of the job")
+    private String id;
+
+    @ApiModelProperty(value = "Absolute path to the processed file")
+    private String filePath;
+
+    @ApiModelProperty(value = "The type of operation performed by the job")
+    private OperationType operation;
+
+    @ApiModelProperty(value = "State of the job")
+    private JobState state;
+
+    @ApiModelProperty(value = "Amount of bytes of the file processed so far")
+    private long processedBytes;
+
+    @ApiModelProperty(value = "Size of the file in bytes, -1 if not known yet")
+    private long totalBytes;
+
+    @ApiModelProperty(value = "Estimated time in milliseconds until the file is processed, -1 if not known yet")
+    private long remainingMillis;
+
+    @ApiModelProperty(value = "Result of the operation, once the job is completed")
+    private Object result;
+
+    @ApiModelProperty(value = "Error message, if the job failed")
+    private String error;
+}
@@ -0,0 +1,42 @@
+package com.example.numbersequenceprocessing.data.dto.response;
+
+import com.example.numbersequenceprocessing.service.analysis.QuantileSketch;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@ApiModel(description = "Data model containing the results of all operations, computed in a single pass over the file")
+public class SequenceStatistics {
+
+    @ApiModelProperty(value = "Amount of numbers in the file")
+    private long count;
+
+    @ApiModelProperty(value = "Maximum number in the file")
+    private Integer maxValue;
+
+    @ApiModelProperty(value = "Minimum number in the file")
+    private Integer minValue;
+
+    @ApiModelProperty(value = "Median of the numbers")
+    private Double median;
+
+    @ApiModelProperty(value = "Arithmetic mean of the numbers")
+    private Double mean;
+
+    @ApiModelProperty(value = "Longest sequences of consecutive numbers, which are increasing")
+    private List<List<Integer>> increasingSequences;
+
+    @ApiModelProperty(value = "Longest sequences of consecutive numbers, which are decreasing")
+    private List<List<Integer>> decreasingSequences;
+
+    /**
+     * Sketch of the distribution of the numbers, cached with the statistics to answer any quantile without a rescan
+     */
+    @JsonIgnore
+    @ApiModelProperty(hidden = true)
+    private QuantileSketch quantileSketch;
+}
@@ -0,0 +1,46 @@
+package com.example.numbersequenceprocessing.data.dto.response;
+
+import com.example.numbersequenceprocessing.data.enums.NumberType;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@ApiModel(description = "Data model containing the results of all operations on 64-bit or decimal numbers, "
+        + "computed in a single pass over the file")
+public class TypedSequenceStatistics implements Serializable {
+
+    @ApiModelProperty(value = "Type of the numbers in the file")
+    private NumberType type;
+
+    @ApiModelProperty(value = "Amount of fraction digits of the DECIMAL numbers, 0 for the integer types")
+    private int scale;
+
+    @ApiModelProperty(value = "Amount of numbers in the file")
+    private long count;
+
+    @ApiModelProperty(value = "Maximum number in the file")
+    private Number maxValue;
+
+    @ApiModelProperty(value = "Minimum number in the file")
+    private Number minValue;
+
+    @ApiModelProperty(value = "Exact sum of the numbers")
+    private BigDecimal sum;
+
+    @ApiModelProperty(value = "Exact median of the numbers")
+    private BigDecimal median;
+
+    @ApiModelProperty(value = "Arithmetic mean of the numbers, rounded to 34 significant digits")
+    private BigDecimal mean;
+
+    @ApiModelProperty(value = "Longest sequences of consecutive numbers, which are increasing")
+    private List<List<Number>> increasingSequences;
+
+    @ApiModelProperty(value = "Longest sequences of consecutive numbers, which are decreasing")
+    private List<List<Number>> decreasingSequences;
+}
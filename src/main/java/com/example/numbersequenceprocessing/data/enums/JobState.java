@@ -0,0 +1,12 @@
+package com.example.numbersequenceprocessing.data.enums;
+
+import io.swagger.annotations.ApiModel;
+
+@ApiModel(description = "State of an asynchronous job")
+public enum JobState {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED
+}
@@ -0,0 +1,50 @@
+package com.example.numbersequenceprocessing.data.enums;
+
+import io.swagger.annotations.ApiModel;
+
+@ApiModel(description = "Types of the numbers in a file")
+public enum NumberType {
+    /**
+     * 32-bit integers, the default type, supported by all operations and scans
+     */
+    INT32,
+    /**
+     * 64-bit integers
+     */
+    INT64,
+    /**
+     * Fixed-point decimals with a scale of up to {@value #MAX_SCALE} fraction digits, kept as 64-bit integers
+     * multiplied by the power of ten of the scale
+     */
+    DECIMAL;
+
+    public static final int MAX_SCALE = 18;
+
+    /**
+     * @param scale amount of fraction digits requested for {@link #DECIMAL}
+     * @return amount of fraction digits of the numbers of this type
+     * @throws IllegalArgumentException if the scale is missing for {@link #DECIMAL}, out of range,
+     *                                  or specified for an integer type
+     */
+    public int checkScale(Integer scale) {
+        if (this != DECIMAL) {
+            if (scale != null && scale != 0) {
+                throw new IllegalArgumentException("A scale can be specified only for DECIMAL numbers");
+            }
+            return 0;
+        }
+        if (scale == null || scale < 0 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("A scale between 0 and " + MAX_SCALE
+                    + " has to be specified for DECIMAL numbers");
+        }
+        return scale;
+    }
+
+    /**
+     * @param scale amount of fraction digits, see {@link #checkScale(Integer)}
+     * @return name of the type, including the scale of {@link #DECIMAL}, e.g. {@code DECIMAL(2)}
+     */
+    public String describe(int scale) {
+        return this == DECIMAL ? name() + "(" + scale + ")" : name();
+    }
+}
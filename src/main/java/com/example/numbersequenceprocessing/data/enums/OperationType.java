@@ -9,5 +9,25 @@ public enum OperationType {
     MEDIAN,
     MEAN,
     INCREASING_SEQUENCE,
-    DECREASING_SEQUENCE
+    DECREASING_SEQUENCE,
+    APPROX_MEDIAN(true),
+    PERCENTILE(true),
+    HISTOGRAM(true);
+
+    private final boolean approximate;
+
+    OperationType() {
+        this(false);
+    }
+
+    OperationType(boolean approximate) {
+        this.approximate = approximate;
+    }
+
+    /**
+     * @return true if the operation is answered from the quantile sketch of the file
+     */
+    public boolean isApproximate() {
+        return approximate;
+    }
 }
@@ -0,0 +1,7 @@
+package com.example.numbersequenceprocessing.data.exception;
+
+public class JobNotFoundException extends Exception {
+    public JobNotFoundException(String id) {
+        super("No job with id " + id);
+    }
+}
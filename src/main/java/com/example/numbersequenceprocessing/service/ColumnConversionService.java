@@ -0,0 +1,98 @@
+package com.example.numbersequenceprocessing.service;
+
+import com.example.numbersequenceprocessing.data.dto.response.ColumnFileInfo;
+import com.example.numbersequenceprocessing.service.analysis.NumberColumnFile;
+import com.example.numbersequenceprocessing.service.analysis.NumberColumnWriter;
+import com.example.numbersequenceprocessing.service.analysis.NumberStreamParser;
+import com.example.numbersequenceprocessing.utils.file.FileUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Converts text files to the binary column format ({@link NumberColumnFile}), which is read without parsing
+ * and answers the maximum, the minimum and the mean from the headers of its blocks. Worth it for files
+ * that are processed many times. Column files are written only to the configured column directory.
+ */
+@Slf4j
+@Service
+public class ColumnConversionService {
+    private final FileUtils fileUtils;
+    private final int blockSize;
+    private final Path directory;
+
+    public ColumnConversionService(FileUtils fileUtils, @Value("${numbers.column.block-size}") int blockSize,
+                                   @Value("${numbers.column.directory}") String directory) throws IOException {
+        this.fileUtils = fileUtils;
+        this.blockSize = blockSize;
+        this.directory = Files.createDirectories(Paths.get(directory)).toRealPath();
+    }
+
+    /**
+     * Converts the text file to the column format. The column file is written next to the target under
+     * a temporary name and replaces the target once it is complete.
+     *
+     * @param filePath   path to the local text file
+     * @param targetPath path to the column file within the column directory, relative to it or absolute,
+     *                   which is created or overwritten if it is a column file
+     * @return description of the written column file
+     * @throws IOException              if the text file cannot be read or the column file cannot be written
+     * @throws IllegalArgumentException if the target is outside the column directory, is the text file itself
+     *                                  or is an existing file of another format
+     */
+    public ColumnFileInfo convert(String filePath, String targetPath) throws IOException {
+        Path target = resolveTarget(targetPath);
+        Path source = fileUtils.getPath(filePath);
+        if (Files.exists(source) && Files.exists(target) && Files.isSameFile(source, target)) {
+            throw new IllegalArgumentException("Column file cannot replace the text file it is converted from");
+        }
+        Path temporaryFile = Files.createTempFile(target.getParent(), "column-", ".tmp");
+        try {
+            long count;
+            try (InputStream reader = fileUtils.readFile(filePath);
+                 NumberColumnWriter writer = new NumberColumnWriter(temporaryFile, blockSize)) {
+                new NumberStreamParser(reader).parse(writer);
+                count = writer.finish();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            Files.move(temporaryFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Converted {} numbers of {} to {}", count, filePath, target);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+
+        NumberColumnFile columns = NumberColumnFile.open(target);
+        ColumnFileInfo info = new ColumnFileInfo();
+        info.setFilePath(target.toString());
+        info.setCount(columns.getCount());
+        info.setBlocks(columns.getBlockCount());
+        info.setSizeBytes(Files.size(target));
+        return info;
+    }
+
+    /**
+     * @return target resolved against the column directory
+     * @throws IllegalArgumentException if the target is outside the column directory or an existing file,
+     *                                  which is not a column file
+     */
+    private Path resolveTarget(String targetPath) throws IOException {
+        Path target = directory.resolve(targetPath).normalize();
+        Path parent = target.getParent();
+        if (parent == null || !Files.isDirectory(parent) || !parent.toRealPath().startsWith(directory)) {
+            throw new IllegalArgumentException("Column files can only be written to " + directory);
+        }
+        if (Files.exists(target) && (!Files.isRegularFile(target) || !NumberColumnFile.isColumnFile(target))) {
+            throw new IllegalArgumentException("Only a column file can be overwritten: " + targetPath);
+        }
+        return target;
+    }
+}
@@ -1,38 +1,110 @@
 package com.example.numbersequenceprocessing.service;
 
-import com.example.numbersequenceprocessing.cache.ChecksumKeyGenerator;
+import com.example.numbersequenceprocessing.cache.FileStatisticsIndex;
+import com.example.numbersequenceprocessing.cache.IncrementalStateStore;
+import com.example.numbersequenceprocessing.cache.SequenceCacheKey;
+import com.example.numbersequenceprocessing.data.dto.response.SequenceStatistics;
+import com.example.numbersequenceprocessing.data.dto.response.TypedSequenceStatistics;
+import com.example.numbersequenceprocessing.data.enums.NumberType;
 import com.example.numbersequenceprocessing.data.enums.OperationType;
 import com.example.numbersequenceprocessing.data.exception.SequenceException;
+import com.example.numbersequenceprocessing.service.analysis.IntSummaryCollector;
+import com.example.numbersequenceprocessing.service.analysis.LongSequenceStatisticsCollector;
+import com.example.numbersequenceprocessing.service.analysis.LongStreamParser;
+import com.example.numbersequenceprocessing.service.analysis.NumberColumnFile;
+import com.example.numbersequenceprocessing.service.analysis.NumberStreamParser;
+import com.example.numbersequenceprocessing.service.analysis.ParallelFileScanner;
+import com.example.numbersequenceprocessing.service.analysis.QuantileSketch;
+import com.example.numbersequenceprocessing.service.analysis.ScanProgress;
+import com.example.numbersequenceprocessing.service.analysis.SequenceRunTracker;
+import com.example.numbersequenceprocessing.service.analysis.SequenceStatisticsCollector;
+import com.example.numbersequenceprocessing.service.analysis.SpillableIntBuffer;
+import com.example.numbersequenceprocessing.utils.checksum.ChecksumUtils;
+import com.example.numbersequenceprocessing.utils.file.FileUtils;
+import com.example.numbersequenceprocessing.utils.metrics.MetricsUtils;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Scope;
 import org.springframework.context.annotation.ScopedProxyMode;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 
 import java.io.*;
-import java.util.ArrayList;
-import java.util.Comparator;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.util.IntSummaryStatistics;
 import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.Optional;
 
 @Slf4j
 @Service
 @Scope(proxyMode = ScopedProxyMode.TARGET_CLASS)
 public class NumberSequenceService {
+    /**
+     * Amount of buckets of a histogram, if it is not specified in the request
+     */
+    public static final int DEFAULT_HISTOGRAM_BUCKETS = 10;
 
     private final NumberSequenceService self;
 
-    private final ChecksumKeyGenerator checksumKeyGenerator;
+    private final CacheManager cacheManager;
+
+    private final ChecksumUtils checksumUtils;
+
+    private final FileUtils fileUtils;
+
+    private final ParallelFileScanner parallelFileScanner;
+
+    private final FileStatisticsIndex statisticsIndex;
+
+    private final IncrementalStateStore incrementalStateStore;
+
+    private final MetricsUtils metricsUtils;
+
+    private final long medianHeapBudget;
 
-    public NumberSequenceService(NumberSequenceService self, ChecksumKeyGenerator checksumKeyGenerator) {
+    private final double sketchAccuracy;
+
+    private final long maximumCachedStreamValues;
+
+    private final int maximumHistogramBuckets;
+
+    public NumberSequenceService(NumberSequenceService self, CacheManager cacheManager, ChecksumUtils checksumUtils,
+                                 FileUtils fileUtils, ParallelFileScanner parallelFileScanner, FileStatisticsIndex statisticsIndex,
+                                 IncrementalStateStore incrementalStateStore, MetricsUtils metricsUtils,
+                                 @Value("${numbers.median.heap-budget}") DataSize medianHeapBudget,
+                                 @Value("${numbers.sketch.relative-accuracy}") double sketchAccuracy,
+                                 @Value("${numbers.stream.maximum-cached-values}") long maximumCachedStreamValues,
+                                 @Value("${numbers.histogram.maximum-buckets}") int maximumHistogramBuckets) {
         this.self = self;
-        this.checksumKeyGenerator = checksumKeyGenerator;
+        this.cacheManager = cacheManager;
+        this.checksumUtils = checksumUtils;
+        this.fileUtils = fileUtils;
+        this.parallelFileScanner = parallelFileScanner;
+        this.statisticsIndex = statisticsIndex;
+        this.incrementalStateStore = incrementalStateStore;
+        this.metricsUtils = metricsUtils;
+        this.medianHeapBudget = medianHeapBudget.toBytes();
+        this.sketchAccuracy = sketchAccuracy;
+        this.maximumCachedStreamValues = maximumCachedStreamValues;
+        this.maximumHistogramBuckets = maximumHistogramBuckets;
     }
 
     /**
      * Performs the operation depending on the {@link OperationType} provided and returns the result.
+     * The result is cached by the method of the operation, so it is shared with the requests for the operation itself.
      *
      * @param operation type of operation to perform
      * @param reader    file data
@@ -41,9 +113,29 @@ public class NumberSequenceService {
      * @throws IOException       if something goes wrong while reading a file
      * @throws SequenceException if no sequence is found
      */
-    @Cacheable(value = "Numbers")
     public Object performOperation(OperationType operation, String checksum, InputStream reader)
             throws IOException, SequenceException {
+        return performOperation(operation, null, null, checksum, reader);
+    }
+
+    /**
+     * Performs the operation like {@link #performOperation(OperationType, String, InputStream)}, the approximate
+     * operations are answered from the quantile sketch of the file, which is cached instead of their results
+     *
+     * @param operation  type of operation to perform
+     * @param percentile percentile between 0 and 100 for {@link OperationType#PERCENTILE}
+     * @param buckets    amount of buckets for {@link OperationType#HISTOGRAM}, may be null
+     * @param checksum   used as a component of the cache key
+     * @param reader     file data
+     * @return result of the selected operation
+     * @throws IOException       if something goes wrong while reading a file
+     * @throws SequenceException if no sequence is found
+     */
+    public Object performOperation(OperationType operation, Double percentile, Integer buckets,
+                                   String checksum, InputStream reader) throws IOException, SequenceException {
+        if (operation.isApproximate()) {
+            return getApproximateResult(operation, percentile, buckets, self.getQuantileSketch(checksum, reader));
+        }
         switch (operation) {
             case MAX_VALUE:
                 return self.getMaxValue(checksum, reader);
@@ -62,17 +154,126 @@ public class NumberSequenceService {
         }
     }
 
+    /**
+     * Performs the operation on data, which can be read only once, e.g. the body of a request. The checksum
+     * of the data is calculated in the same pass, and the result is stored in the cache under it, so it is
+     * shared with the requests for the same content identified by its checksum upfront.
+     * The methods of the operations are called on the service itself, bypassing the cache lookup,
+     * as the cache key is not known before the data is read.
+     *
+     * @param operation type of operation to perform
+     * @param stream    data, which is read to its end
+     * @return result of the selected operation
+     * @throws IOException       if something goes wrong while reading the data
+     * @throws SequenceException if no sequence is found
+     */
+    public Object performOperation(OperationType operation, InputStream stream) throws IOException, SequenceException {
+        return performOperation(operation, null, null, stream);
+    }
+
+    /**
+     * Performs the operation on data, which can be read only once, see {@link #performOperation(OperationType,
+     * InputStream)}. The approximate operations store the quantile sketch of the data in the cache.
+     *
+     * @param operation  type of operation to perform
+     * @param percentile percentile between 0 and 100 for {@link OperationType#PERCENTILE}
+     * @param buckets    amount of buckets for {@link OperationType#HISTOGRAM}, may be null
+     * @param stream     data, which is read to its end
+     * @return result of the selected operation
+     * @throws IOException       if something goes wrong while reading the data
+     * @throws SequenceException if no sequence is found
+     */
+    public Object performOperation(OperationType operation, Double percentile, Integer buckets, InputStream stream)
+            throws IOException, SequenceException {
+        DigestInputStream reader = checksumUtils.digestingStream(stream);
+        if (operation.isApproximate()) {
+            return getApproximateResult(operation, percentile, buckets, getQuantileSketch(null, reader));
+        }
+        switch (operation) {
+            case MAX_VALUE:
+                return getMaxValue(null, reader);
+            case MIN_VALUE:
+                return getMinValue(null, reader);
+            case MEDIAN:
+                return getMedian(null, reader);
+            case MEAN:
+                return getMean(null, reader);
+            case INCREASING_SEQUENCE:
+                return getLongestSequenceOfIncreasingNumbers(null, reader);
+            case DECREASING_SEQUENCE:
+                return getLongestSequenceOfDecreasingNumbers(null, reader);
+            default:
+                throw new IllegalStateException("Provided unsupported operation");
+        }
+    }
+
+    /**
+     * Performs the operation like {@link #performOperation(OperationType, Double, Integer, String, InputStream)}
+     * on numbers of the requested type. Operations on other types than {@link NumberType#INT32} are answered
+     * from the results of all operations on the numbers of the type, see {@link #analyze(NumberType, Integer,
+     * String, InputStream)}.
+     *
+     * @param operation  type of operation to perform
+     * @param type       type of the numbers, {@link NumberType#INT32} if null
+     * @param scale      amount of fraction digits of {@link NumberType#DECIMAL} numbers
+     * @param percentile percentile between 0 and 100 for {@link OperationType#PERCENTILE}
+     * @param buckets    amount of buckets for {@link OperationType#HISTOGRAM}, may be null
+     * @param checksum   used as a component of the cache key
+     * @param reader     file data
+     * @return result of the selected operation
+     * @throws IOException              if something goes wrong while reading a file
+     * @throws SequenceException        if no sequence is found
+     * @throws IllegalArgumentException if the scale does not match the type, or the operation is approximate
+     *                                  and the type is not {@link NumberType#INT32}
+     */
+    public Object performOperation(OperationType operation, NumberType type, Integer scale, Double percentile,
+                                   Integer buckets, String checksum, InputStream reader)
+            throws IOException, SequenceException {
+        if (type == null || type == NumberType.INT32) {
+            return performOperation(operation, percentile, buckets, checksum, reader);
+        }
+        return getTypedResult(operation, self.analyze(type, scale, checksum, reader));
+    }
+
+    /**
+     * Performs the operation on data, which can be read only once, like {@link #performOperation(OperationType,
+     * Double, Integer, InputStream)}, on numbers of the requested type
+     *
+     * @param operation  type of operation to perform
+     * @param type       type of the numbers, {@link NumberType#INT32} if null
+     * @param scale      amount of fraction digits of {@link NumberType#DECIMAL} numbers
+     * @param percentile percentile between 0 and 100 for {@link OperationType#PERCENTILE}
+     * @param buckets    amount of buckets for {@link OperationType#HISTOGRAM}, may be null
+     * @param stream     data, which is read to its end
+     * @return result of the selected operation
+     * @throws IOException              if something goes wrong while reading the data
+     * @throws SequenceException        if no sequence is found
+     * @throws IllegalArgumentException if the scale does not match the type, or the operation is approximate
+     *                                  and the type is not {@link NumberType#INT32}
+     */
+    public Object performOperation(OperationType operation, NumberType type, Integer scale, Double percentile,
+                                   Integer buckets, InputStream stream) throws IOException, SequenceException {
+        if (type == null || type == NumberType.INT32) {
+            return performOperation(operation, percentile, buckets, stream);
+        }
+        return getTypedResult(operation, analyze(type, scale, stream));
+    }
+
     /**
      * Finds the maximum number in the file
      *
      * @param checksum  used as a component of the cache key
      * @param reader file data
      * @return maximum number
+     * @throws IOException if something goes wrong while reading a file
      */
-    @Cacheable(value = "Numbers", keyGenerator = "checksumKeyGenerator")
-    public Integer getMaxValue(String checksum, InputStream reader) {
-        IntStream numbers = readFile(reader);
-        return numbers.max().orElseThrow();
+    @Cacheable(value = "Numbers", keyGenerator = "checksumKeyGenerator", sync = true)
+    public Integer getMaxValue(String checksum, InputStream reader) throws IOException {
+        Timer.Sample sample = Timer.start();
+        Integer maxValue = readFile(reader).getMax();
+        recordOperation(sample, OperationType.MAX_VALUE.name(), MetricsUtils.MODE_SEQUENTIAL);
+        cacheByContentChecksum(OperationType.MAX_VALUE, reader, maxValue);
+        return maxValue;
     }
 
     /**
@@ -81,11 +282,15 @@ public class NumberSequenceService {
      * @param checksum  used as a component of the cache key
      * @param reader file data
      * @return minimum  number
+     * @throws IOException if something goes wrong while reading a file
      */
-    @Cacheable(value = "Numbers", keyGenerator = "checksumKeyGenerator")
-    public Integer getMinValue(String checksum, InputStream reader) {
-        IntStream numbers = readFile(reader);
-        return numbers.min().orElseThrow();
+    @Cacheable(value = "Numbers", keyGenerator = "checksumKeyGenerator", sync = true)
+    public Integer getMinValue(String checksum, InputStream reader) throws IOException {
+        Timer.Sample sample = Timer.start();
+        Integer minValue = readFile(reader).getMin();
+        recordOperation(sample, OperationType.MIN_VALUE.name(), MetricsUtils.MODE_SEQUENTIAL);
+        cacheByContentChecksum(OperationType.MIN_VALUE, reader, minValue);
+        return minValue;
     }
 
     /**
@@ -94,23 +299,21 @@ public class NumberSequenceService {
      * @param checksum  used as a component of the cache key
      * @param reader file data
      * @return median of the numbers
+     * @throws IOException if something goes wrong while reading a file
      */
-    @Cacheable(value = "Numbers", keyGenerator = "checksumKeyGenerator")
-    public Double getMedian(String checksum, InputStream reader) {
-        List<Double> lines = (new BufferedReader(new InputStreamReader(reader))).lines()
-                .map(Double::parseDouble)
-                .sorted()
-                .collect(Collectors.toList());
-
-        int size = lines.size();
-
-        if (lines.isEmpty()) {
-            throw new NoSuchElementException("File is empty");
+    @Cacheable(value = "Numbers", keyGenerator = "checksumKeyGenerator", sync = true)
+    public Double getMedian(String checksum, InputStream reader) throws IOException {
+        Timer.Sample sample = Timer.start();
+        Double median;
+        try (SpillableIntBuffer numbers = new SpillableIntBuffer(medianHeapBudget)) {
+            new NumberStreamParser(reader).parse(numbers);
+            median = numbers.median();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
-
-        return size % 2 == 1 ?
-                lines.get(size / 2) :
-                (lines.get(size / 2 - 1) + lines.get(size / 2)) / 2;
+        recordOperation(sample, OperationType.MEDIAN.name(), MetricsUtils.MODE_SEQUENTIAL);
+        cacheByContentChecksum(OperationType.MEDIAN, reader, median);
+        return median;
     }
 
     /**
@@ -119,11 +322,15 @@ public class NumberSequenceService {
      * @param checksum  used as a component of the cache key
      * @param reader file data
      * @return mean of the numbers
+     * @throws IOException if something goes wrong while reading a file
      */
-    @Cacheable(value = "Numbers", keyGenerator = "checksumKeyGenerator")
-    public Double getMean(String checksum, InputStream reader) {
-        IntStream numbers = readFile(reader);
-        return numbers.average().orElseThrow();
+    @Cacheable(value = "Numbers", keyGenerator = "checksumKeyGenerator", sync = true)
+    public Double getMean(String checksum, InputStream reader) throws IOException {
+        Timer.Sample sample = Timer.start();
+        Double mean = readFile(reader).getAverage();
+        recordOperation(sample, OperationType.MEAN.name(), MetricsUtils.MODE_SEQUENTIAL);
+        cacheByContentChecksum(OperationType.MEAN, reader, mean);
+        return mean;
     }
 
     /**
@@ -135,10 +342,14 @@ public class NumberSequenceService {
      * @throws IOException       if something goes wrong while reading a file
      * @throws SequenceException if no sequence is found
      */
-    @Cacheable(value = "Numbers", keyGenerator = "checksumKeyGenerator")
+    @Cacheable(value = "Numbers", keyGenerator = "checksumKeyGenerator", sync = true)
     public List<List<Integer>> getLongestSequenceOfIncreasingNumbers(String checksum, InputStream reader)
             throws IOException, SequenceException {
-        return getLongestSequence(reader, OperationType.INCREASING_SEQUENCE);
+        Timer.Sample sample = Timer.start();
+        List<List<Integer>> sequence = getLongestSequence(reader, OperationType.INCREASING_SEQUENCE);
+        recordOperation(sample, OperationType.INCREASING_SEQUENCE.name(), MetricsUtils.MODE_SEQUENTIAL);
+        cacheByContentChecksum(OperationType.INCREASING_SEQUENCE, reader, sequence);
+        return sequence;
     }
 
     /**
@@ -150,48 +361,690 @@ public class NumberSequenceService {
      * @throws IOException       if something goes wrong while reading a file
      * @throws SequenceException if no sequence is found
      */
-    @Cacheable(value = "Numbers", keyGenerator = "checksumKeyGenerator")
+    @Cacheable(value = "Numbers", keyGenerator = "checksumKeyGenerator", sync = true)
     public List<List<Integer>> getLongestSequenceOfDecreasingNumbers(String checksum, InputStream reader)
             throws IOException, SequenceException {
-        return getLongestSequence(reader, OperationType.DECREASING_SEQUENCE);
+        Timer.Sample sample = Timer.start();
+        List<List<Integer>> sequence = getLongestSequence(reader, OperationType.DECREASING_SEQUENCE);
+        recordOperation(sample, OperationType.DECREASING_SEQUENCE.name(), MetricsUtils.MODE_SEQUENTIAL);
+        cacheByContentChecksum(OperationType.DECREASING_SEQUENCE, reader, sequence);
+        return sequence;
     }
 
-    private List<List<Integer>> getLongestSequence(InputStream stream, OperationType operation)
-            throws IOException, SequenceException {
-        BufferedReader reader = new BufferedReader(new InputStreamReader(stream));
-        List<List<Integer>> sequence = new ArrayList<>();
-
-        List<Integer> subSequence = new ArrayList<>();
-        Integer previousNumber = operation == OperationType.DECREASING_SEQUENCE ? Integer.MIN_VALUE : Integer.MAX_VALUE;
-        Comparator<Integer> comparator = operation == OperationType.INCREASING_SEQUENCE ?
-                Comparator.reverseOrder() : Integer::compareTo;
-
-        while (reader.ready()) {
-            Integer currentNumber = Integer.parseInt(reader.readLine());
-            if (comparator.compare(previousNumber, currentNumber) > 0) {
-                if (subSequence.size() == 0) {
-                    subSequence.add(previousNumber);
+    /**
+     * Writes the longest sequences of the file one by one, without building the list of all of them.
+     * Sequences known from the cache, from the cached results of all operations or from the
+     * {@link FileStatisticsIndex} are written from there. Otherwise only the runs of the file are tracked:
+     * large and column files are scanned on all cores, smaller ones are read sequentially, and the sequences
+     * are written straight from the buffer of the {@link SequenceRunTracker}. They are cached afterwards,
+     * so that the following requests do not read the file again, unless they hold more numbers than
+     * {@code numbers.stream.maximum-cached-values}: the cache keeps the sequences as boxed lists,
+     * which would take many times the size of the buffer right after the response.
+     *
+     * @param operation {@link OperationType#INCREASING_SEQUENCE} or {@link OperationType#DECREASING_SEQUENCE}
+     * @param checksum  used as a component of the cache key
+     * @param file      path to local file
+     * @param writer    receives the sequences in the order they appear in the file
+     * @throws IOException       if something goes wrong while reading the file or writing the sequences
+     * @throws SequenceException if no sequence is found, before anything is written
+     */
+    public void writeLongestSequences(OperationType operation, String checksum, Path file,
+                                      SequenceRunTracker.RunWriter writer) throws IOException, SequenceException {
+        List<List<Integer>> known = findLongestSequences(operation, checksum, file);
+        if (known != null) {
+            for (List<Integer> sequence : requireSequences(known)) {
+                writer.write(sequence);
+            }
+            return;
+        }
+
+        Timer.Sample sample = Timer.start();
+        boolean increasing = operation == OperationType.INCREASING_SEQUENCE;
+        SequenceRunTracker tracker;
+        String mode;
+        if (NumberColumnFile.isColumnFile(file)) {
+            NumberColumnFile columns = NumberColumnFile.open(file);
+            if (parallelFileScanner.supports(file)) {
+                tracker = parallelFileScanner.scanRuns(columns, increasing);
+            } else {
+                tracker = new SequenceRunTracker(increasing);
+                columns.scan(tracker, null);
+            }
+            mode = MetricsUtils.MODE_COLUMN;
+        } else if (!fileUtils.isCompressed(file) && parallelFileScanner.supports(file)) {
+            tracker = parallelFileScanner.scanRuns(file, increasing);
+            mode = MetricsUtils.MODE_PARALLEL;
+        } else {
+            tracker = new SequenceRunTracker(increasing);
+            try (InputStream reader = fileUtils.readFile(file)) {
+                new NumberStreamParser(reader).parse(tracker);
+            }
+            mode = MetricsUtils.MODE_SEQUENTIAL;
+        }
+        recordOperation(sample, operation.name(), mode);
+
+        if (tracker.writeLongestRuns(writer) == 0) {
+            throw new SequenceException();
+        }
+        if (tracker.getLongestRunsSize() <= maximumCachedStreamValues) {
+            cacheResult(operation, checksum, tracker.getLongestRuns());
+        }
+    }
+
+    /**
+     * @return the longest sequences of the file known without reading it, or null if they have to be computed
+     */
+    @SuppressWarnings("unchecked")
+    private List<List<Integer>> findLongestSequences(OperationType operation, String checksum, Path file)
+            throws IOException {
+        Cache cache = cacheManager.getCache("Numbers");
+        if (cache != null) {
+            List<List<Integer>> cached = cache.get(SequenceCacheKey.of(operation, checksum), List.class);
+            if (cached != null) {
+                return cached;
+            }
+            SequenceStatistics statistics = cache.get(SequenceCacheKey.statistics(checksum), SequenceStatistics.class);
+            if (statistics != null) {
+                return getSequences(operation, statistics);
+            }
+        }
+        FileStatisticsIndex.IndexEntry indexed = statisticsIndex.find(file).orElse(null);
+        if (indexed != null) {
+            cacheOperationResults(checksum, indexed.getStatistics());
+            return getSequences(operation, indexed.getStatistics());
+        }
+        return null;
+    }
+
+    private static List<List<Integer>> getSequences(OperationType operation, SequenceStatistics statistics) {
+        return operation == OperationType.INCREASING_SEQUENCE
+                ? statistics.getIncreasingSequences() : statistics.getDecreasingSequences();
+    }
+
+    /**
+     * Counts the numbers of the file in a quantile sketch with the configured relative accuracy. Unlike the exact
+     * median, the sketch takes constant memory, and any quantile or histogram is answered from the cached sketch.
+     *
+     * @param checksum used as a component of the cache key
+     * @param reader   file data
+     * @return sketch of the numbers
+     * @throws IOException if something goes wrong while reading a file
+     */
+    @Cacheable(value = "Numbers", keyGenerator = "checksumKeyGenerator", sync = true)
+    public QuantileSketch getQuantileSketch(String checksum, InputStream reader) throws IOException {
+        Timer.Sample sample = Timer.start();
+        QuantileSketch sketch = new QuantileSketch(sketchAccuracy);
+        new NumberStreamParser(reader).parse(sketch);
+        recordOperation(sample, SequenceCacheKey.QUANTILE_SKETCH, MetricsUtils.MODE_SEQUENTIAL);
+
+        if (reader instanceof DigestInputStream) {
+            cacheResult(SequenceCacheKey.quantileSketch(checksumUtils.getChecksum((DigestInputStream) reader)),
+                    sketch);
+        }
+        return sketch;
+    }
+
+    /**
+     * Counts the numbers of a local file in a quantile sketch, see {@link #getQuantileSketch(String, InputStream)}.
+     * The sketch is taken from the {@link FileStatisticsIndex} if the file has not changed since it was indexed,
+     * otherwise large files are scanned on all cores.
+     *
+     * @param checksum used as a component of the cache key
+     * @param file     path to local file
+     * @return sketch of the numbers
+     * @throws IOException if something goes wrong while reading a file
+     */
+    @Cacheable(value = "Numbers", keyGenerator = "checksumKeyGenerator", sync = true)
+    public QuantileSketch getQuantileSketch(String checksum, Path file) throws IOException {
+        FileStatisticsIndex.IndexEntry indexed = statisticsIndex.find(file).orElse(null);
+        if (indexed != null && indexed.getStatistics().getQuantileSketch() != null) {
+            return indexed.getStatistics().getQuantileSketch();
+        }
+        if (NumberColumnFile.isColumnFile(file)) {
+            Timer.Sample sample = Timer.start();
+            NumberColumnFile columns = NumberColumnFile.open(file);
+            QuantileSketch sketch;
+            if (parallelFileScanner.supports(file)) {
+                sketch = parallelFileScanner.scanSketch(columns, null);
+            } else {
+                sketch = new QuantileSketch(sketchAccuracy);
+                columns.scan(sketch, null);
+            }
+            recordOperation(sample, SequenceCacheKey.QUANTILE_SKETCH, MetricsUtils.MODE_COLUMN);
+            return sketch;
+        }
+        if (fileUtils.isCompressed(file) || !parallelFileScanner.supports(file)) {
+            try (InputStream reader = checksumUtils.digestingStream(fileUtils.readFile(file))) {
+                return getQuantileSketch(checksum, reader);
+            }
+        }
+
+        Timer.Sample sample = Timer.start();
+        QuantileSketch sketch = parallelFileScanner.scanSketch(file, null);
+        recordOperation(sample, SequenceCacheKey.QUANTILE_SKETCH, MetricsUtils.MODE_PARALLEL);
+        return sketch;
+    }
+
+    /**
+     * Computes the results of all operations in a single pass over the file and stores each of them
+     * in the cache, so that subsequent requests for a single operation on the same file are not recalculated
+     *
+     * @param checksum  used as a component of the cache key
+     * @param reader file data
+     * @return results of all operations
+     * @throws IOException if something goes wrong while reading a file
+     */
+    @Cacheable(value = "Numbers", keyGenerator = "checksumKeyGenerator", sync = true)
+    public SequenceStatistics analyze(String checksum, InputStream reader) throws IOException {
+        Timer.Sample sample = Timer.start();
+        SequenceStatistics statistics;
+        try (SequenceStatisticsCollector collector = new SequenceStatisticsCollector(medianHeapBudget, sketchAccuracy)) {
+            new NumberStreamParser(reader).parse(collector);
+            statistics = collector.toStatistics();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        recordOperation(sample, SequenceCacheKey.STATISTICS, MetricsUtils.MODE_SEQUENTIAL);
+
+        cacheOperationResults(checksum, statistics);
+        if (reader instanceof DigestInputStream) {
+            String contentChecksum = checksumUtils.getChecksum((DigestInputStream) reader);
+            cacheOperationResults(contentChecksum, statistics);
+            cacheResult(SequenceCacheKey.statistics(contentChecksum), statistics);
+        }
+        return statistics;
+    }
+
+    /**
+     * Computes the results of all operations on data, which can be read only once, in the same pass as its
+     * checksum, see {@link #performOperation(OperationType, InputStream)}
+     *
+     * @param stream data, which is read to its end
+     * @return results of all operations
+     * @throws IOException if something goes wrong while reading the data
+     */
+    public SequenceStatistics analyze(InputStream stream) throws IOException {
+        return analyze(null, checksumUtils.digestingStream(stream));
+    }
+
+    /**
+     * Computes the results of all operations on 64-bit or fixed-point decimal numbers in a single pass
+     * over the file, with an exact sum, mean and median. The numbers are parsed into primitive longs,
+     * decimals as their unscaled values, see {@link LongStreamParser}, and the file is always read sequentially.
+     *
+     * @param type     type of the numbers
+     * @param scale    amount of fraction digits of {@link NumberType#DECIMAL} numbers, null for the integer types
+     * @param checksum used as a component of the cache key
+     * @param reader   file data
+     * @return results of all operations
+     * @throws IOException              if something goes wrong while reading a file
+     * @throws IllegalArgumentException if the scale does not match the type
+     */
+    @Cacheable(value = "Numbers", keyGenerator = "checksumKeyGenerator", sync = true)
+    public TypedSequenceStatistics analyze(NumberType type, Integer scale, String checksum, InputStream reader)
+            throws IOException {
+        int fractionDigits = type.checkScale(scale);
+        Timer.Sample sample = Timer.start();
+        TypedSequenceStatistics statistics;
+        try (LongSequenceStatisticsCollector collector = new LongSequenceStatisticsCollector(medianHeapBudget)) {
+            new LongStreamParser(reader, fractionDigits).parse(collector);
+            statistics = collector.toStatistics(type, fractionDigits);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        recordOperation(sample, SequenceCacheKey.STATISTICS, MetricsUtils.MODE_SEQUENTIAL);
+
+        if (reader instanceof DigestInputStream) {
+            cacheResult(SequenceCacheKey.statistics(type, fractionDigits,
+                    checksumUtils.getChecksum((DigestInputStream) reader)), statistics);
+        }
+        return statistics;
+    }
+
+    /**
+     * Computes the results of all operations on typed numbers in data, which can be read only once,
+     * see {@link #analyze(NumberType, Integer, String, InputStream)}
+     *
+     * @param type   type of the numbers
+     * @param scale  amount of fraction digits of {@link NumberType#DECIMAL} numbers, null for the integer types
+     * @param stream data, which is read to its end
+     * @return results of all operations
+     * @throws IOException if something goes wrong while reading the data
+     */
+    public TypedSequenceStatistics analyze(NumberType type, Integer scale, InputStream stream) throws IOException {
+        return analyze(type, scale, null, checksumUtils.digestingStream(stream));
+    }
+
+    /**
+     * Computes the results of all operations for a local file, see {@link #analyze(String, Path, ScanProgress)}
+     *
+     * @param checksum  used as a component of the cache key
+     * @param file path to local file
+     * @return results of all operations
+     * @throws IOException if something goes wrong while reading a file
+     */
+    public SequenceStatistics analyze(String checksum, Path file) throws IOException {
+        return self.analyze(checksum, file, new ScanProgress());
+    }
+
+    /**
+     * Computes the results of all operations for a local file. The statistics are taken from the
+     * {@link FileStatisticsIndex} if the file has not changed since it was indexed. Files in the column format
+     * ({@link NumberColumnFile}) are read from the memory-mapped file without parsing. Otherwise, in the incremental mode
+     * the last scan of the file is continued with the appended bytes, see {@link IncrementalStateStore},
+     * or large files are scanned on all cores and smaller ones are read sequentially, and the statistics are indexed.
+     * Compressed files are always decompressed and read sequentially.
+     * Like {@link #analyze(String, InputStream)}, stores the result of each operation in the cache.
+     *
+     * @param checksum  used as a component of the cache key
+     * @param file path to local file
+     * @param progress receives the size of the file and the amount of bytes read, allows to cancel the scan
+     * @return results of all operations
+     * @throws IOException if something goes wrong while reading a file
+     * @throws java.util.concurrent.CancellationException if the scan was cancelled
+     */
+    @Cacheable(value = "Numbers", keyGenerator = "checksumKeyGenerator", sync = true)
+    public SequenceStatistics analyze(String checksum, Path file, ScanProgress progress) throws IOException {
+        Timer.Sample sample = Timer.start();
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        progress.setTotalBytes(attributes.size());
+
+        FileStatisticsIndex.IndexEntry indexed = statisticsIndex.find(file).orElse(null);
+        if (indexed != null) {
+            progress.advance(attributes.size());
+            recordOperation(sample, SequenceCacheKey.STATISTICS, MetricsUtils.MODE_INDEX);
+            cacheOperationResults(checksum, indexed.getStatistics());
+            if (indexed.getChecksum() != null) {
+                cacheOperationResults(indexed.getChecksum(), indexed.getStatistics());
+            }
+            return indexed.getStatistics();
+        }
+
+        SequenceStatistics statistics;
+        String contentChecksum = null;
+        boolean compressed = fileUtils.isCompressed(file);
+        if (NumberColumnFile.isColumnFile(file)) {
+            try (SequenceStatisticsCollector collector = scanColumns(NumberColumnFile.open(file), progress)) {
+                statistics = collector.toStatistics();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            recordOperation(sample, SequenceCacheKey.STATISTICS, MetricsUtils.MODE_COLUMN);
+        } else if (!compressed && incrementalStateStore.isEnabled()) {
+            try (SequenceStatisticsCollector collector = scanIncrementally(file, attributes.size(), progress)) {
+                statistics = collector.toStatistics();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            recordOperation(sample, SequenceCacheKey.STATISTICS, MetricsUtils.MODE_INCREMENTAL);
+        } else if (!compressed && parallelFileScanner.supports(file)) {
+            try (SequenceStatisticsCollector collector = parallelFileScanner.scan(file, progress)) {
+                statistics = collector.toStatistics();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            recordOperation(sample, SequenceCacheKey.STATISTICS, MetricsUtils.MODE_PARALLEL);
+        } else {
+            InputStream input = compressed ?
+                    fileUtils.decompress(progress.track(Files.newInputStream(file))) : Files.newInputStream(file);
+            try (DigestInputStream reader = checksumUtils.digestingStream(input);
+                 SequenceStatisticsCollector collector = new SequenceStatisticsCollector(medianHeapBudget, sketchAccuracy)) {
+                new NumberStreamParser(reader).withProgress(compressed ? null : progress).parse(collector);
+                statistics = collector.toStatistics();
+                recordOperation(sample, SequenceCacheKey.STATISTICS, MetricsUtils.MODE_SEQUENTIAL);
+                contentChecksum = checksumUtils.getChecksum(reader);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            cacheOperationResults(contentChecksum, statistics);
+            cacheResult(SequenceCacheKey.statistics(contentChecksum), statistics);
+        }
+
+        statisticsIndex.write(file, attributes, contentChecksum, statistics);
+        cacheOperationResults(checksum, statistics);
+        return statistics;
+    }
+
+    /**
+     * Checks if the file should be processed with {@link #analyze(String, Path)}, computing the results
+     * of all operations at once: if all of them are requested, if the statistics of the file are already indexed,
+     * if it is in the column format, or if it is large enough to be scanned in parallel or is scanned incrementally.
+     * Otherwise the requested operation is computed alone in a single sequential pass, without keeping
+     * the numbers for the median; the index is filled by the requests for all operations.
+     * A compressed file can only be read sequentially, so it is analyzed as a whole only if all operations
+     * are requested or it is indexed.
+     *
+     * @param operation the requested operation, null if the results of all operations are requested
+     * @param file      path to local file
+     * @return true if the file should be analyzed as a whole
+     * @throws IOException if the file attributes cannot be read
+     */
+    public boolean supportsFileAnalysis(OperationType operation, Path file) throws IOException {
+        return operation == null || statisticsIndex.contains(file) || NumberColumnFile.isColumnFile(file)
+                || !fileUtils.isCompressed(file)
+                && (incrementalStateStore.isEnabled() || parallelFileScanner.supports(file));
+    }
+
+    /**
+     * Finds the result of the operation on a file in the column format from the table of its blocks,
+     * without reading the numbers. Only the maximum, the minimum and the mean are known from the table.
+     *
+     * @param operation type of operation
+     * @param file      path to local file
+     * @return result of the operation, or empty if the file is not in the column format
+     *         or the operation needs the numbers
+     * @throws IOException if the column file cannot be read
+     */
+    public Optional<Object> getColumnTableResult(OperationType operation, Path file) throws IOException {
+        if (operation != OperationType.MAX_VALUE && operation != OperationType.MIN_VALUE
+                && operation != OperationType.MEAN || !NumberColumnFile.isColumnFile(file)) {
+            return Optional.empty();
+        }
+        Timer.Sample sample = Timer.start();
+        IntSummaryStatistics summary = NumberColumnFile.open(file).summarize();
+        recordOperation(sample, operation.name(), MetricsUtils.MODE_COLUMN);
+        switch (operation) {
+            case MAX_VALUE:
+                return Optional.of(summary.getMax());
+            case MIN_VALUE:
+                return Optional.of(summary.getMin());
+            default:
+                return Optional.of(summary.getAverage());
+        }
+    }
+
+    /**
+     * Extracts the result of the operation from the results of all operations
+     *
+     * @param operation  type of operation
+     * @param statistics results of all operations
+     * @return result of the selected operation
+     * @throws SequenceException if the operation looks for a sequence and no sequence is found
+     */
+    public Object getResult(OperationType operation, SequenceStatistics statistics) throws SequenceException {
+        return getResult(operation, null, null, statistics);
+    }
+
+    /**
+     * Extracts the result of the operation from the results of all operations, the approximate operations
+     * are answered from the quantile sketch of the statistics
+     *
+     * @param operation  type of operation
+     * @param percentile percentile between 0 and 100 for {@link OperationType#PERCENTILE}
+     * @param buckets    amount of buckets for {@link OperationType#HISTOGRAM}, may be null
+     * @param statistics results of all operations
+     * @return result of the selected operation
+     * @throws SequenceException if the operation looks for a sequence and no sequence is found
+     */
+    public Object getResult(OperationType operation, Double percentile, Integer buckets,
+                            SequenceStatistics statistics) throws SequenceException {
+        if (operation.isApproximate()) {
+            return getApproximateResult(operation, percentile, buckets, statistics.getQuantileSketch());
+        }
+        switch (operation) {
+            case MAX_VALUE:
+                return statistics.getMaxValue();
+            case MIN_VALUE:
+                return statistics.getMinValue();
+            case MEDIAN:
+                return statistics.getMedian();
+            case MEAN:
+                return statistics.getMean();
+            case INCREASING_SEQUENCE:
+                return requireSequences(statistics.getIncreasingSequences());
+            case DECREASING_SEQUENCE:
+                return requireSequences(statistics.getDecreasingSequences());
+            default:
+                throw new IllegalStateException("Provided unsupported operation");
+        }
+    }
+
+    /**
+     * Extracts the result of the operation from the results of all operations on typed numbers
+     *
+     * @param operation  type of operation
+     * @param statistics results of all operations on typed numbers
+     * @return result of the selected operation
+     * @throws SequenceException        if the operation looks for a sequence and no sequence is found
+     * @throws IllegalArgumentException if the operation is approximate, which is supported
+     *                                  for {@link NumberType#INT32} only
+     */
+    public Object getTypedResult(OperationType operation, TypedSequenceStatistics statistics)
+            throws SequenceException {
+        if (operation.isApproximate()) {
+            throw new IllegalArgumentException("Approximate operations are supported for INT32 numbers only");
+        }
+        switch (operation) {
+            case MAX_VALUE:
+                return statistics.getMaxValue();
+            case MIN_VALUE:
+                return statistics.getMinValue();
+            case MEDIAN:
+                return statistics.getMedian();
+            case MEAN:
+                return statistics.getMean();
+            case INCREASING_SEQUENCE:
+                return requireSequences(statistics.getIncreasingSequences());
+            case DECREASING_SEQUENCE:
+                return requireSequences(statistics.getDecreasingSequences());
+            default:
+                throw new IllegalStateException("Provided unsupported operation");
+        }
+    }
+
+    /**
+     * Estimates the result of an approximate operation from the quantile sketch
+     *
+     * @param operation  {@link OperationType#APPROX_MEDIAN}, {@link OperationType#PERCENTILE}
+     *                   or {@link OperationType#HISTOGRAM}
+     * @param percentile percentile between 0 and 100 for {@link OperationType#PERCENTILE}
+     * @param buckets    amount of buckets for {@link OperationType#HISTOGRAM} up to
+     *                   {@code numbers.histogram.maximum-buckets}, {@value #DEFAULT_HISTOGRAM_BUCKETS} if null
+     * @param sketch     sketch of the numbers of the file
+     * @return estimated result
+     * @throws IllegalArgumentException if the parameters of the operation are missing or invalid
+     */
+    public Object getApproximateResult(OperationType operation, Double percentile, Integer buckets,
+                                       QuantileSketch sketch) {
+        switch (operation) {
+            case APPROX_MEDIAN:
+                return sketch.quantile(0.5);
+            case PERCENTILE:
+                if (percentile == null || !(percentile >= 0 && percentile <= 100)) {
+                    throw new IllegalArgumentException("A percentile between 0 and 100 has to be specified");
                 }
-                subSequence.add(currentNumber);
-            } else if (subSequence.size() != 0) {
-                sequence.add(subSequence);
-                subSequence = new ArrayList<>();
+                return sketch.quantile(percentile / 100);
+            case HISTOGRAM:
+                if (buckets != null && buckets > maximumHistogramBuckets) {
+                    throw new IllegalArgumentException("A histogram may have at most " + maximumHistogramBuckets
+                            + " buckets: " + buckets);
+                }
+                return sketch.histogram(buckets != null ? buckets : DEFAULT_HISTOGRAM_BUCKETS);
+            default:
+                throw new IllegalStateException("Provided unsupported operation");
+        }
+    }
+
+    /**
+     * @param sequences longest sequences found in the file
+     * @return the sequences
+     * @throws SequenceException if no sequence is found
+     */
+    public <T> List<List<T>> requireSequences(List<List<T>> sequences) throws SequenceException {
+        if (sequences.isEmpty()) {
+            throw new SequenceException();
+        }
+        return sequences;
+    }
+
+    /**
+     * Continues the last scan of the file with the bytes appended since then, or scans the whole file if the scanned
+     * part has changed, and writes the state of the scan. The state ends with the last line break:
+     * a number at the end of the file without a line break may still be continued by the writer,
+     * so it is scanned again every time.
+     *
+     * @return collector of all numbers of the file, which has to be closed by the caller
+     */
+    private SequenceStatisticsCollector scanIncrementally(Path file, long size, ScanProgress progress)
+            throws IOException {
+        long lineEnd = lastLineEnd(file, size);
+        IncrementalStateStore.ScanState state = incrementalStateStore.find(file, medianHeapBudget).orElse(null);
+        long scannedBytes = state != null ? state.getScannedBytes() : 0;
+        SequenceStatisticsCollector collector = state != null ?
+                state.getCollector() :
+                new SequenceStatisticsCollector(medianHeapBudget, sketchAccuracy);
+
+        try {
+            if (state != null) {
+                log.debug("Continuing the scan of {} from byte {}", file, scannedBytes);
+                progress.advance(scannedBytes);
             }
+            if (state == null || scannedBytes < lineEnd) {
+                byte[] fingerprint = incrementalStateStore.fingerprint(file, lineEnd);
+                scanPart(collector, file, scannedBytes, lineEnd, progress);
+                incrementalStateStore.write(file, lineEnd, fingerprint, collector,
+                        state != null ? state.getStoredValues() : 0);
+            }
+            scanPart(collector, file, lineEnd, size, progress);
+        } catch (IOException | RuntimeException e) {
+            collector.close();
+            throw e;
+        }
+        return collector;
+    }
 
-            previousNumber = currentNumber;
+    /**
+     * Reads the numbers of the column file, on all cores if the file is large
+     *
+     * @return collector of all numbers of the file, which has to be closed by the caller
+     */
+    private SequenceStatisticsCollector scanColumns(NumberColumnFile columns, ScanProgress progress)
+            throws IOException {
+        if (parallelFileScanner.supports(columns.getFile())) {
+            return parallelFileScanner.scan(columns, progress);
+        }
+        SequenceStatisticsCollector collector = new SequenceStatisticsCollector(medianHeapBudget, sketchAccuracy);
+        try {
+            columns.scan(collector, progress);
+        } catch (IOException | RuntimeException e) {
+            collector.close();
+            throw e;
         }
+        return collector;
+    }
 
-        if (subSequence.size() != 0) {
-            sequence.add(subSequence);
+    /**
+     * Scans the part of the file and appends its numbers to the collector
+     */
+    private void scanPart(SequenceStatisticsCollector collector, Path file, long start, long end,
+                          ScanProgress progress) throws IOException {
+        if (start >= end) {
+            return;
         }
+        if (parallelFileScanner.supports(end - start)) {
+            try (SequenceStatisticsCollector part = parallelFileScanner.scan(file, start, end, progress)) {
+                collector.merge(part);
+            }
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            channel.position(start);
+            new NumberStreamParser(new BoundedInputStream(Channels.newInputStream(channel), end - start))
+                    .withProgress(progress)
+                    .parse(collector);
+        }
+    }
+
+    /**
+     * @return position following the last line break before the specified size of the file, 0 if there is none
+     */
+    private static long lastLineEnd(Path file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(4096);
+            long end = size;
+            while (end > 0) {
+                int length = (int) Math.min(buffer.capacity(), end);
+                buffer.clear().limit(length);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, end - length + buffer.position()) < 0) {
+                        throw new EOFException("File was truncated while being scanned");
+                    }
+                }
+                for (int i = length - 1; i >= 0; i--) {
+                    if (buffer.get(i) == '\n') {
+                        return end - length + i + 1;
+                    }
+                }
+                end -= length;
+            }
+            return 0;
+        }
+    }
+
+    private void recordOperation(Timer.Sample sample, String operation, String mode) {
+        sample.stop(metricsUtils.getOperationTimer(operation, mode));
+    }
 
-        long longestSequenceSize = sequence.stream().mapToInt(List::size).max().orElseThrow(SequenceException::new);
-        sequence = sequence.stream().filter(s -> s.size() == longestSequenceSize).collect(Collectors.toList());
+    private void cacheOperationResults(String checksum, SequenceStatistics statistics) {
+        cacheResult(OperationType.MAX_VALUE, checksum, statistics.getMaxValue());
+        cacheResult(OperationType.MIN_VALUE, checksum, statistics.getMinValue());
+        cacheResult(OperationType.MEDIAN, checksum, statistics.getMedian());
+        cacheResult(OperationType.MEAN, checksum, statistics.getMean());
+        if (!statistics.getIncreasingSequences().isEmpty()) {
+            cacheResult(OperationType.INCREASING_SEQUENCE, checksum, statistics.getIncreasingSequences());
+        }
+        if (!statistics.getDecreasingSequences().isEmpty()) {
+            cacheResult(OperationType.DECREASING_SEQUENCE, checksum, statistics.getDecreasingSequences());
+        }
+        if (statistics.getQuantileSketch() != null) {
+            cacheResult(SequenceCacheKey.quantileSketch(checksum), statistics.getQuantileSketch());
+        }
+    }
 
+    /**
+     * If the file was read through a digesting stream, its content checksum becomes known as a side effect
+     * of the computation, and the result is also stored under it. This way a request identified by a cheap
+     * file key also serves later requests for the same content, e.g. an upload of the same file.
+     */
+    private void cacheByContentChecksum(OperationType operation, InputStream reader, Object result)
+            throws IOException {
+        if (reader instanceof DigestInputStream) {
+            cacheResult(operation, checksumUtils.getChecksum((DigestInputStream) reader), result);
+        }
+    }
+
+    private void cacheResult(OperationType operation, String checksum, Object result) {
+        cacheResult(SequenceCacheKey.of(operation, checksum), result);
+    }
+
+    private void cacheResult(SequenceCacheKey key, Object result) {
+        Cache cache = cacheManager.getCache("Numbers");
+        if (cache != null && key.getChecksum() != null) {
+            cache.put(key, result);
+        }
+    }
+
+    private List<List<Integer>> getLongestSequence(InputStream stream, OperationType operation)
+            throws IOException, SequenceException {
+        SequenceRunTracker tracker = new SequenceRunTracker(operation == OperationType.INCREASING_SEQUENCE);
+        new NumberStreamParser(stream).parse(tracker::accept);
+
+        List<List<Integer>> sequence = tracker.getLongestRuns();
+        if (sequence.isEmpty()) {
+            throw new SequenceException();
+        }
         return sequence;
     }
 
-    private IntStream readFile(InputStream stream) {
-        return (new BufferedReader(new InputStreamReader(stream))).lines().mapToInt(Integer::parseInt);
+    private IntSummaryStatistics readFile(InputStream stream) throws IOException {
+        IntSummaryCollector collector = new IntSummaryCollector();
+        new NumberStreamParser(stream).parse(collector);
+        IntSummaryStatistics statistics = collector.getStatistics();
+
+        if (statistics.getCount() == 0) {
+            throw new NoSuchElementException("File is empty");
+        }
+        return statistics;
     }
 }
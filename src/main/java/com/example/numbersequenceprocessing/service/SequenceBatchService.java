@@ -0,0 +1,155 @@
+package com.example.numbersequenceprocessing.service;
+
+import com.example.numbersequenceprocessing.data.dto.request.NumberSequenceRequest;
+import com.example.numbersequenceprocessing.data.dto.response.BatchItemResult;
+import com.example.numbersequenceprocessing.data.dto.response.SequenceStatistics;
+import com.example.numbersequenceprocessing.data.enums.NumberType;
+import com.example.numbersequenceprocessing.data.exception.SequenceException;
+import com.example.numbersequenceprocessing.service.analysis.ScanProgress;
+import com.example.numbersequenceprocessing.utils.checksum.ChecksumUtils;
+import com.example.numbersequenceprocessing.utils.file.FileUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Processes many requests at once. The requests are grouped by file, every file is analyzed once
+ * for all of its operations, and the files are processed in parallel on the batch executor.
+ * The results of a file are passed to the consumer as soon as the file is processed,
+ * a failure is reported in the results of the affected requests only.
+ */
+@Slf4j
+@Service
+public class SequenceBatchService {
+    private final NumberSequenceService numberSequenceService;
+    private final ChecksumUtils checksumUtils;
+    private final FileUtils fileUtils;
+    private final ThreadPoolExecutor batchExecutor;
+
+    public SequenceBatchService(NumberSequenceService numberSequenceService, ChecksumUtils checksumUtils,
+                                FileUtils fileUtils, @Qualifier("batchExecutor") ThreadPoolExecutor batchExecutor) {
+        this.numberSequenceService = numberSequenceService;
+        this.checksumUtils = checksumUtils;
+        this.fileUtils = fileUtils;
+        this.batchExecutor = batchExecutor;
+    }
+
+    /**
+     * Processes the requests, passing the results to the consumer on the calling thread in the order
+     * the files are processed. If the consumer fails, e.g. because the client has disconnected,
+     * the remaining files are cancelled.
+     *
+     * @param requests operations on local files
+     * @param consumer receives the results of the requests of each file
+     * @throws IOException if the consumer fails
+     */
+    public void process(List<NumberSequenceRequest> requests, ResultConsumer consumer) throws IOException {
+        Map<String, List<Integer>> requestsByFile = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            requestsByFile.computeIfAbsent(requests.get(i).getFilePath(), path -> new ArrayList<>()).add(i);
+        }
+
+        CompletionService<List<BatchItemResult>> completionService = new ExecutorCompletionService<>(batchExecutor);
+        List<Future<List<BatchItemResult>>> futures = new ArrayList<>();
+        List<ScanProgress> scans = new ArrayList<>();
+        try {
+            for (Map.Entry<String, List<Integer>> file : requestsByFile.entrySet()) {
+                ScanProgress progress = new ScanProgress();
+                scans.add(progress);
+                futures.add(completionService.submit(
+                        () -> processFile(file.getKey(), file.getValue(), requests, progress)));
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                for (BatchItemResult result : completionService.take().get()) {
+                    consumer.accept(result);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("The batch was interrupted", e);
+        } catch (ExecutionException e) {
+            // processFile reports all failures in the results
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            scans.forEach(ScanProgress::cancel);
+            futures.forEach(future -> future.cancel(false));
+        }
+    }
+
+    private List<BatchItemResult> processFile(String filePath, List<Integer> indexes,
+                                              List<NumberSequenceRequest> requests, ScanProgress progress) {
+        SequenceStatistics statistics = null;
+        Exception failure = null;
+        try {
+            statistics = numberSequenceService.analyze(checksumUtils.getFileKey(filePath),
+                    fileUtils.getPath(filePath), progress);
+        } catch (Exception e) {
+            log.debug("Failed to process {} in a batch", filePath, e);
+            failure = e;
+        }
+
+        List<BatchItemResult> results = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            NumberSequenceRequest request = requests.get(index);
+            BatchItemResult result = new BatchItemResult();
+            result.setIndex(index);
+            result.setFilePath(filePath);
+            result.setOperation(request.getOperation());
+            try {
+                if (failure != null) {
+                    throw failure;
+                }
+                if (request.getOperation() == null) {
+                    throw new IllegalArgumentException("No operation was specified");
+                }
+                if (request.getType() != null && request.getType() != NumberType.INT32) {
+                    throw new IllegalArgumentException("Only INT32 numbers are processed in a batch");
+                }
+                result.setData(numberSequenceService.getResult(request.getOperation(),
+                        request.getPercentile(), request.getBuckets(), statistics));
+                result.setStatus(HttpStatus.OK);
+                result.setMessage("successful request");
+            } catch (Exception e) {
+                result.setStatus(HttpStatus.BAD_REQUEST);
+                result.setMessage(describe(e));
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    /**
+     * @return the message the same error is reported with for a single request
+     */
+    private static String describe(Exception e) {
+        if (e instanceof FileNotFoundException || e instanceof NoSuchFileException) {
+            return "No such file was found in the passed path";
+        }
+        if (e instanceof SequenceException) {
+            return "No sequences were found in the file";
+        }
+        if (e instanceof NoSuchElementException) {
+            return "Provided file is empty";
+        }
+        if (e instanceof NumberFormatException) {
+            return "Invalid characters in the file provided";
+        }
+        if (e instanceof IOException) {
+            return "Something went wrong during file processing";
+        }
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    @FunctionalInterface
+    public interface ResultConsumer {
+        void accept(BatchItemResult result) throws IOException;
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.numbersequenceprocessing.service;
+
+import com.example.numbersequenceprocessing.cache.SequenceCacheKey;
+import com.example.numbersequenceprocessing.data.dto.response.JobStatus;
+import com.example.numbersequenceprocessing.data.dto.response.SequenceStatistics;
+import com.example.numbersequenceprocessing.data.enums.JobState;
+import com.example.numbersequenceprocessing.data.enums.OperationType;
+import com.example.numbersequenceprocessing.data.exception.JobNotFoundException;
+import com.example.numbersequenceprocessing.data.exception.SequenceException;
+import com.example.numbersequenceprocessing.service.analysis.ScanProgress;
+import com.example.numbersequenceprocessing.utils.checksum.ChecksumUtils;
+import com.example.numbersequenceprocessing.utils.file.FileUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Runs operations on local files in the background. A job analyzes the whole file like the synchronous
+ * requests do, so its result is shared with them through the cache. While a job for an operation on a file
+ * is queued or running, submitting the same operation on the unchanged file returns the existing job.
+ * Finished jobs are kept for the configured time.
+ */
+@Slf4j
+@Service
+public class SequenceJobService {
+    private final NumberSequenceService numberSequenceService;
+    private final ChecksumUtils checksumUtils;
+    private final FileUtils fileUtils;
+    private final ThreadPoolExecutor jobExecutor;
+    private final long retentionMillis;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<SequenceCacheKey, Job> activeJobs = new ConcurrentHashMap<>();
+
+    public SequenceJobService(NumberSequenceService numberSequenceService, ChecksumUtils checksumUtils,
+                              FileUtils fileUtils, @Qualifier("jobExecutor") ThreadPoolExecutor jobExecutor,
+                              @Value("${numbers.jobs.retention}") Duration retention) {
+        this.numberSequenceService = numberSequenceService;
+        this.checksumUtils = checksumUtils;
+        this.fileUtils = fileUtils;
+        this.jobExecutor = jobExecutor;
+        this.retentionMillis = retention.toMillis();
+    }
+
+    /**
+     * Submits the operation on the file, unless the same operation on the same file is already queued or running
+     *
+     * @param filePath   path to local file
+     * @param operation  type of operation to perform
+     * @param percentile percentile between 0 and 100 for {@link OperationType#PERCENTILE}
+     * @param buckets    amount of buckets for {@link OperationType#HISTOGRAM}, may be null
+     * @return status of the new or of the existing job
+     * @throws IOException                if the file attributes cannot be read
+     * @throws RejectedExecutionException if too many jobs are queued
+     */
+    public JobStatus submit(String filePath, OperationType operation, Double percentile, Integer buckets)
+            throws IOException {
+        removeExpiredJobs();
+        String checksum = checksumUtils.getFileKey(filePath);
+        Path file = fileUtils.getPath(filePath);
+        SequenceCacheKey key = new SequenceCacheKey(describe(operation, percentile, buckets), checksum);
+
+        Job created = new Job(key, filePath, operation, percentile, buckets);
+        Job job = activeJobs.putIfAbsent(key, created);
+        if (job != null) {
+            return job.toStatus();
+        }
+
+        jobs.put(created.id, created);
+        try {
+            created.future = jobExecutor.submit(() -> run(created, checksum, file));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(created.id);
+            activeJobs.remove(key, created);
+            throw e;
+        }
+        log.debug("Submitted job {} for {} on {}", created.id, operation, filePath);
+        return created.toStatus();
+    }
+
+    /**
+     * @param id identifier of the job
+     * @return progress and, once completed, result of the job
+     * @throws JobNotFoundException if there is no such job or it expired
+     */
+    public JobStatus getStatus(String id) throws JobNotFoundException {
+        removeExpiredJobs();
+        return getJob(id).toStatus();
+    }
+
+    /**
+     * Cancels the job, a running scan is interrupted when it reads the next portion of the file.
+     * The same operation on the file can be submitted again right away.
+     *
+     * @param id identifier of the job
+     * @return status of the job
+     * @throws JobNotFoundException if there is no such job or it expired
+     */
+    public JobStatus cancel(String id) throws JobNotFoundException {
+        Job job = getJob(id);
+        job.cancel();
+        activeJobs.remove(job.key, job);
+        return job.toStatus();
+    }
+
+    private void run(Job job, String checksum, Path file) {
+        try {
+            if (job.start()) {
+                SequenceStatistics statistics = numberSequenceService.analyze(checksum, file, job.progress);
+                job.finish(JobState.COMPLETED, numberSequenceService.getResult(job.operation, job.percentile,
+                        job.buckets, statistics), null);
+            }
+        } catch (CancellationException e) {
+            job.finish(JobState.CANCELLED, null, null);
+        } catch (Exception e) {
+            if (job.progress.isCancelled()) {
+                job.finish(JobState.CANCELLED, null, null);
+            } else {
+                log.debug("Job {} failed", job.id, e);
+                job.finish(JobState.FAILED, null, describe(e));
+            }
+        } finally {
+            activeJobs.remove(job.key, job);
+        }
+    }
+
+    private Job getJob(String id) throws JobNotFoundException {
+        Job job = jobs.get(id);
+        if (job == null) {
+            throw new JobNotFoundException(id);
+        }
+        return job;
+    }
+
+    private void removeExpiredJobs() {
+        long now = System.currentTimeMillis();
+        jobs.values().removeIf(job -> job.isFinished() && now - job.finishedAt > retentionMillis);
+    }
+
+    /**
+     * Operations with different parameters are different jobs
+     */
+    private static String describe(OperationType operation, Double percentile, Integer buckets) {
+        switch (operation) {
+            case PERCENTILE:
+                return operation.name() + "(" + percentile + ")";
+            case HISTOGRAM:
+                return operation.name() + "(" + buckets + ")";
+            default:
+                return operation.name();
+        }
+    }
+
+    private static String describe(Exception e) {
+        if (e instanceof SequenceException) {
+            return "No sequences were found in the file";
+        }
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    private static class Job {
+        private final String id = UUID.randomUUID().toString();
+        private final SequenceCacheKey key;
+        private final String filePath;
+        private final OperationType operation;
+        private final Double percentile;
+        private final Integer buckets;
+        private final ScanProgress progress = new ScanProgress();
+
+        private Future<?> future;
+        private JobState state = JobState.QUEUED;
+        private Object result;
+        private String error;
+        private long finishedAt;
+
+        Job(SequenceCacheKey key, String filePath, OperationType operation, Double percentile, Integer buckets) {
+            this.key = key;
+            this.filePath = filePath;
+            this.operation = operation;
+            this.percentile = percentile;
+            this.buckets = buckets;
+        }
+
+        synchronized boolean start() {
+            if (state != JobState.QUEUED) {
+                return false;
+            }
+            state = JobState.RUNNING;
+            return true;
+        }
+
+        synchronized void finish(JobState state, Object result, String error) {
+            if (isFinished()) {
+                return;
+            }
+            this.state = state;
+            this.result = result;
+            this.error = error;
+            this.finishedAt = System.currentTimeMillis();
+        }
+
+        synchronized void cancel() {
+            progress.cancel();
+            if (state == JobState.QUEUED) {
+                finish(JobState.CANCELLED, null, null);
+                if (future != null) {
+                    future.cancel(false);
+                }
+            }
+        }
+
+        synchronized boolean isFinished() {
+            return state == JobState.COMPLETED || state == JobState.FAILED || state == JobState.CANCELLED;
+        }
+
+        synchronized JobStatus toStatus() {
+            JobStatus status = new JobStatus();
+            status.setId(id);
+            status.setFilePath(filePath);
+            status.setOperation(operation);
+            status.setState(state);
+            status.setProcessedBytes(progress.getProcessedBytes());
+            status.setTotalBytes(progress.getTotalBytes());
+            status.setRemainingMillis(state == JobState.RUNNING ? progress.getRemainingMillis() : -1);
+            status.setResult(result);
+            status.setError(error);
+            return status;
+        }
+    }
+}
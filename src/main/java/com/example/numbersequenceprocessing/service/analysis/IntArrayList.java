@@ -0,0 +1,130 @@
+package com.example.numbersequenceprocessing.service.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Growable array of primitive ints, used instead of {@code List<Integer>} to avoid boxing every parsed number
+ */
+public class IntArrayList {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] values;
+    private int size;
+
+    public IntArrayList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntArrayList(int initialCapacity) {
+        this.values = new int[Math.max(initialCapacity, 1)];
+    }
+
+    /**
+     * @param values initial values, the array is used as is, without copying
+     * @return list containing the values
+     */
+    public static IntArrayList of(int[] values) {
+        IntArrayList list = new IntArrayList(values.length);
+        list.values = values;
+        list.size = values.length;
+        return list;
+    }
+
+    public void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, grow(values.length));
+        }
+        values[size++] = value;
+    }
+
+    public void addAll(IntArrayList other) {
+        addAll(other.values, 0, other.size);
+    }
+
+    /**
+     * Appends the values of the array from index {@code from}, inclusive, to index {@code to}, exclusive
+     */
+    public void addAll(int[] source, int from, int to) {
+        int length = to - from;
+        if (size + length > values.length) {
+            values = Arrays.copyOf(values, Math.max(grow(values.length), size + length));
+        }
+        System.arraycopy(source, from, values, size, length);
+        size += length;
+    }
+
+    /**
+     * Removes the values from index {@code from}, inclusive, to index {@code to}, exclusive,
+     * shifting the following values to the left
+     */
+    public void removeRange(int from, int to) {
+        if (from < 0 || from > to || to > size) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for length " + size);
+        }
+        System.arraycopy(values, to, values, from, size - to);
+        size -= to - from;
+    }
+
+    public int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        return values[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return backing array, valid until the next modification, only the first {@link #size()} values are meaningful
+     */
+    int[] array() {
+        return values;
+    }
+
+    /**
+     * @return copy of the stored values, trimmed to the current size
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * @return copy of the values from index {@code from}, inclusive, to index {@code to}, exclusive
+     */
+    public int[] toArray(int from, int to) {
+        if (from < 0 || from > to || to > size) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for length " + size);
+        }
+        return Arrays.copyOfRange(values, from, to);
+    }
+
+    /**
+     * @return stored values as boxed list, the only place where boxing happens
+     */
+    public List<Integer> toList() {
+        List<Integer> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(values[i]);
+        }
+        return list;
+    }
+
+    private static int grow(int capacity) {
+        if (capacity >= Integer.MAX_VALUE - 8) {
+            throw new OutOfMemoryError("Too many numbers to keep in a single array");
+        }
+        return (int) Math.min((long) capacity * 2, Integer.MAX_VALUE - 8);
+    }
+}
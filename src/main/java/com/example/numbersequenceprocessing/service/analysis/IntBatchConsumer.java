@@ -0,0 +1,23 @@
+package com.example.numbersequenceprocessing.service.analysis;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Consumer of numbers, which can also take them a batch at a time, e.g. to reduce the batch with {@link IntKernels}.
+ * The parsers and readers of column files pass the numbers to such consumers in batches.
+ */
+public interface IntBatchConsumer extends IntConsumer {
+    /**
+     * Amount of numbers the parsers and readers collect before passing them as a batch
+     */
+    int BATCH_SIZE = 4096;
+
+    /**
+     * Accepts the numbers as if {@link #accept(int)} was called for each of them in order
+     *
+     * @param numbers array holding the batch
+     * @param from    index of the first number of the batch
+     * @param to      index following the last number of the batch
+     */
+    void acceptAll(int[] numbers, int from, int to);
+}
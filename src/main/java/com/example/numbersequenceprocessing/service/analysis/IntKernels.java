@@ -0,0 +1,120 @@
+package com.example.numbersequenceprocessing.service.analysis;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.IntSummaryStatistics;
+
+/**
+ * Loops over batches of numbers: the minimum, maximum, sum and count, and the positions where a run of increasing
+ * or decreasing numbers continues. {@link #get()} computes them in the SIMD lanes of the CPU through the Vector API
+ * if the {@code jdk.incubator.vector} module is added to the JVM ({@code --add-modules jdk.incubator.vector}),
+ * otherwise with scalar loops. Both give the same results.
+ */
+@Slf4j
+public abstract class IntKernels {
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final IntKernels SCALAR = new ScalarIntKernels();
+    private static final IntKernels INSTANCE = load();
+
+    /**
+     * @return vectorized kernels if the Vector API is available, otherwise the scalar ones
+     */
+    public static IntKernels get() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return kernels with scalar loops, available on any JVM
+     */
+    public static IntKernels scalar() {
+        return SCALAR;
+    }
+
+    /**
+     * @return short description of the implementation, e.g. for logs and benchmarks
+     */
+    public abstract String getName();
+
+    /**
+     * @param numbers array holding the numbers
+     * @param from    index of the first number
+     * @param to      index following the last number
+     * @return count, minimum, maximum and sum of the numbers
+     */
+    public abstract IntSummaryStatistics summarize(int[] numbers, int from, int to);
+
+    /**
+     * Marks the numbers, which continue a strictly increasing or strictly decreasing run of the numbers before them.
+     * Bit {@code k} of the mask (bit {@code k % 64} of word {@code k / 64}) is set if the number at {@code from + k}
+     * continues the run from the number at {@code from + k - 1}, bit 0 is always clear.
+     *
+     * @param numbers    array holding the numbers
+     * @param from       index of the first number
+     * @param to         index following the last number
+     * @param increasing true to mark increasing runs, false to mark decreasing ones
+     * @param mask       receives the bits, at least {@code (to - from + 63) / 64} words, which are overwritten
+     */
+    public abstract void markContinuations(int[] numbers, int from, int to, boolean increasing, long[] mask);
+
+    /**
+     * @param count amount of numbers
+     * @return amount of mask words for the numbers
+     */
+    public static int maskLength(int count) {
+        return (count + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    private static IntKernels load() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            log.info("Module {} is not added, numbers are reduced with scalar loops", VECTOR_MODULE);
+            return SCALAR;
+        }
+        try {
+            IntKernels kernels = (IntKernels) Class.forName(IntKernels.class.getPackageName() + ".VectorIntKernels")
+                    .getDeclaredConstructor()
+                    .newInstance();
+            log.info("Numbers are reduced with {}", kernels.getName());
+            return kernels;
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            log.warn("Vector API is not usable, numbers are reduced with scalar loops", e);
+            return SCALAR;
+        }
+    }
+
+    private static class ScalarIntKernels extends IntKernels {
+        @Override
+        public String getName() {
+            return "scalar loops";
+        }
+
+        @Override
+        public IntSummaryStatistics summarize(int[] numbers, int from, int to) {
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            long sum = 0;
+            for (int i = from; i < to; i++) {
+                int number = numbers[i];
+                min = Math.min(min, number);
+                max = Math.max(max, number);
+                sum += number;
+            }
+            return new IntSummaryStatistics(to - from, min, max, sum);
+        }
+
+        @Override
+        public void markContinuations(int[] numbers, int from, int to, boolean increasing, long[] mask) {
+            int count = to - from;
+            for (int word = 0; word < maskLength(count); word++) {
+                long bits = 0;
+                int end = Math.min(Long.SIZE, count - word * Long.SIZE);
+                for (int bit = word == 0 ? 1 : 0; bit < end; bit++) {
+                    int i = from + word * Long.SIZE + bit;
+                    if (increasing ? numbers[i] > numbers[i - 1] : numbers[i] < numbers[i - 1]) {
+                        bits |= 1L << bit;
+                    }
+                }
+                mask[word] = bits;
+            }
+        }
+    }
+}
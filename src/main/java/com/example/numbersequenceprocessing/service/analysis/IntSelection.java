@@ -0,0 +1,86 @@
+package com.example.numbersequenceprocessing.service.analysis;
+
+import java.util.Arrays;
+
+/**
+ * Selection of the k-th smallest number in linear time, without sorting the whole array
+ */
+public final class IntSelection {
+    private static final int SORT_THRESHOLD = 16;
+
+    private IntSelection() {
+    }
+
+    /**
+     * Finds the k-th smallest number with introselect: quickselect with a three-way partition,
+     * which falls back to sorting the remaining range if the partitions keep being unbalanced.
+     * The array is reordered, so that all the numbers before index {@code k} are not greater than the result.
+     *
+     * @param values numbers, reordered in place
+     * @param size   amount of numbers at the beginning of the array to select from
+     * @param k      zero-based rank of the number to find
+     * @return k-th smallest number
+     */
+    public static int select(int[] values, int size, int k) {
+        if (k < 0 || k >= size) {
+            throw new IndexOutOfBoundsException("Rank " + k + " out of bounds for length " + size);
+        }
+
+        int from = 0;
+        int to = size;
+        int depthLimit = 2 * (32 - Integer.numberOfLeadingZeros(size));
+
+        while (to - from > SORT_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                break;
+            }
+
+            int pivot = medianOfThree(values[from], values[(from + to) >>> 1], values[to - 1]);
+            int less = from;
+            int greater = to - 1;
+            int i = from;
+            while (i <= greater) {
+                int value = values[i];
+                if (value < pivot) {
+                    swap(values, less++, i++);
+                } else if (value > pivot) {
+                    swap(values, i, greater--);
+                } else {
+                    i++;
+                }
+            }
+
+            if (k < less) {
+                to = less;
+            } else if (k > greater) {
+                from = greater + 1;
+            } else {
+                return pivot;
+            }
+        }
+
+        Arrays.sort(values, from, to);
+        return values[k];
+    }
+
+    /**
+     * @return the largest of the first {@code size} numbers
+     */
+    public static int max(int[] values, int size) {
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
+
+    private static int medianOfThree(int a, int b, int c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    private static void swap(int[] values, int i, int j) {
+        int value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+}
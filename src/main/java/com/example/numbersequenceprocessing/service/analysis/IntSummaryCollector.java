@@ -0,0 +1,24 @@
+package com.example.numbersequenceprocessing.service.analysis;
+
+import java.util.IntSummaryStatistics;
+
+/**
+ * Count, minimum, maximum and sum of the numbers, the batches are reduced with {@link IntKernels}
+ */
+public class IntSummaryCollector implements IntBatchConsumer {
+    private final IntSummaryStatistics statistics = new IntSummaryStatistics();
+
+    @Override
+    public void accept(int number) {
+        statistics.accept(number);
+    }
+
+    @Override
+    public void acceptAll(int[] numbers, int from, int to) {
+        statistics.combine(IntKernels.get().summarize(numbers, from, to));
+    }
+
+    public IntSummaryStatistics getStatistics() {
+        return statistics;
+    }
+}
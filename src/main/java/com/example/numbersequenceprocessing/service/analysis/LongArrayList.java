@@ -0,0 +1,80 @@
+package com.example.numbersequenceprocessing.service.analysis;
+
+import java.util.Arrays;
+
+/**
+ * Growable array of primitive longs, the counterpart of {@link IntArrayList} for 64-bit and decimal numbers
+ */
+public class LongArrayList {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] values;
+    private int size;
+
+    public LongArrayList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongArrayList(int initialCapacity) {
+        this.values = new long[Math.max(initialCapacity, 1)];
+    }
+
+    public void add(long value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, grow(values.length));
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Removes the values from index {@code from}, inclusive, to index {@code to}, exclusive,
+     * shifting the following values to the left
+     */
+    public void removeRange(int from, int to) {
+        if (from < 0 || from > to || to > size) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for length " + size);
+        }
+        System.arraycopy(values, to, values, from, size - to);
+        size -= to - from;
+    }
+
+    public long get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        return values[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return backing array, valid until the next modification, only the first {@link #size()} values are meaningful
+     */
+    long[] array() {
+        return values;
+    }
+
+    /**
+     * @return copy of the stored values, trimmed to the current size
+     */
+    public long[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    private static int grow(int capacity) {
+        if (capacity >= Integer.MAX_VALUE - 8) {
+            throw new OutOfMemoryError("Too many numbers to keep in a single array");
+        }
+        return (int) Math.min((long) capacity * 2, Integer.MAX_VALUE - 8);
+    }
+}
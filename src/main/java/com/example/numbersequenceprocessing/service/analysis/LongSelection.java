@@ -0,0 +1,85 @@
+package com.example.numbersequenceprocessing.service.analysis;
+
+import java.util.Arrays;
+
+/**
+ * Selection of the k-th smallest number in linear time, the counterpart of {@link IntSelection} for longs
+ */
+public final class LongSelection {
+    private static final int SORT_THRESHOLD = 16;
+
+    private LongSelection() {
+    }
+
+    /**
+     * Finds the k-th smallest number with introselect, see {@link IntSelection#select(int[], int, int)}.
+     * The array is reordered, so that all the numbers before index {@code k} are not greater than the result.
+     *
+     * @param values numbers, reordered in place
+     * @param size   amount of numbers at the beginning of the array to select from
+     * @param k      zero-based rank of the number to find
+     * @return k-th smallest number
+     */
+    public static long select(long[] values, int size, int k) {
+        if (k < 0 || k >= size) {
+            throw new IndexOutOfBoundsException("Rank " + k + " out of bounds for length " + size);
+        }
+
+        int from = 0;
+        int to = size;
+        int depthLimit = 2 * (32 - Integer.numberOfLeadingZeros(size));
+
+        while (to - from > SORT_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                break;
+            }
+
+            long pivot = medianOfThree(values[from], values[(from + to) >>> 1], values[to - 1]);
+            int less = from;
+            int greater = to - 1;
+            int i = from;
+            while (i <= greater) {
+                long value = values[i];
+                if (value < pivot) {
+                    swap(values, less++, i++);
+                } else if (value > pivot) {
+                    swap(values, i, greater--);
+                } else {
+                    i++;
+                }
+            }
+
+            if (k < less) {
+                to = less;
+            } else if (k > greater) {
+                from = greater + 1;
+            } else {
+                return pivot;
+            }
+        }
+
+        Arrays.sort(values, from, to);
+        return values[k];
+    }
+
+    /**
+     * @return the largest of the first {@code size} numbers
+     */
+    public static long max(long[] values, int size) {
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
+
+    private static long medianOfThree(long a, long b, long c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    private static void swap(long[] values, int i, int j) {
+        long value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.numbersequenceprocessing.service.analysis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Tracks the longest runs of strictly increasing or strictly decreasing consecutive 64-bit numbers,
+ * keeping their values in a single primitive buffer like {@link SequenceRunTracker}. Every run starts
+ * at the first number following the end of the previous one, without sentinel values, so runs starting
+ * at {@link Long#MIN_VALUE} or {@link Long#MAX_VALUE} are found as well.
+ */
+public class LongSequenceRunTracker implements LongConsumer {
+    private final boolean increasing;
+
+    /**
+     * Values of the longest runs, followed by the values of the current run
+     */
+    private final LongArrayList runs = new LongArrayList();
+    private int longestRunSize;
+    private int longestRunCount;
+    private int currentRunSize;
+
+    private long count;
+    private long previousNumber;
+
+    public LongSequenceRunTracker(boolean increasing) {
+        this.increasing = increasing;
+    }
+
+    @Override
+    public void accept(long number) {
+        if (count > 0 && (increasing ? number > previousNumber : number < previousNumber)) {
+            if (currentRunSize == 0) {
+                runs.add(previousNumber);
+                currentRunSize = 1;
+            }
+            runs.add(number);
+            currentRunSize++;
+        } else {
+            finishRun();
+        }
+
+        previousNumber = number;
+        count++;
+    }
+
+    /**
+     * @return all runs of the greatest length, in the order they appear, empty if there is no run
+     * of at least two numbers
+     */
+    public List<long[]> getLongestRuns() {
+        finishRun();
+        List<long[]> result = new ArrayList<>(longestRunCount);
+        long[] values = runs.array();
+        for (int run = 0; run < longestRunCount; run++) {
+            long[] numbers = new long[longestRunSize];
+            System.arraycopy(values, run * longestRunSize, numbers, 0, longestRunSize);
+            result.add(numbers);
+        }
+        return result;
+    }
+
+    private void finishRun() {
+        if (currentRunSize == 0) {
+            return;
+        }
+
+        int currentRunStart = runs.size() - currentRunSize;
+        if (currentRunSize > longestRunSize) {
+            runs.removeRange(0, currentRunStart);
+            longestRunSize = currentRunSize;
+            longestRunCount = 1;
+        } else if (currentRunSize == longestRunSize) {
+            longestRunCount++;
+        } else {
+            runs.removeRange(currentRunStart, runs.size());
+        }
+        currentRunSize = 0;
+    }
+}
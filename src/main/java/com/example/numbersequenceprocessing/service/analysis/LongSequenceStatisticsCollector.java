@@ -0,0 +1,120 @@
+package com.example.numbersequenceprocessing.service.analysis;
+
+import com.example.numbersequenceprocessing.data.dto.response.TypedSequenceStatistics;
+import com.example.numbersequenceprocessing.data.enums.NumberType;
+
+import java.io.Closeable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.LongConsumer;
+
+/**
+ * Accumulates every supported statistic of 64-bit numbers from a single traversal, the counterpart of
+ * {@link SequenceStatisticsCollector}. Fixed-point decimals are collected as their unscaled values,
+ * the scale is applied only to the results.
+ * <p>
+ * The sum is kept in 128 bits, as two longs with an unsigned carry between them, so it cannot overflow
+ * for any amount of numbers a file can hold. No number is boxed until the results are created.
+ */
+public class LongSequenceStatisticsCollector implements LongConsumer, Closeable {
+    private long count;
+    private long sumHigh;
+    private long sumLow;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    private final SpillableLongBuffer values;
+    private final LongSequenceRunTracker increasingRuns = new LongSequenceRunTracker(true);
+    private final LongSequenceRunTracker decreasingRuns = new LongSequenceRunTracker(false);
+
+    /**
+     * Creates a collector, which keeps all the numbers for the median on the heap
+     */
+    public LongSequenceStatisticsCollector() {
+        this(Long.MAX_VALUE);
+    }
+
+    /**
+     * @param medianHeapBudget amount of bytes the numbers kept for the median may take on the heap
+     *                         before being spilled to disk
+     */
+    public LongSequenceStatisticsCollector(long medianHeapBudget) {
+        this.values = new SpillableLongBuffer(medianHeapBudget);
+    }
+
+    @Override
+    public void accept(long number) {
+        count++;
+        long low = sumLow + number;
+        sumHigh += (number >> 63) + (Long.compareUnsigned(low, sumLow) < 0 ? 1 : 0);
+        sumLow = low;
+        min = Math.min(min, number);
+        max = Math.max(max, number);
+
+        values.accept(number);
+        increasingRuns.accept(number);
+        decreasingRuns.accept(number);
+    }
+
+    /**
+     * @return exact sum of the unscaled numbers
+     */
+    public BigInteger getSum() {
+        return BigInteger.valueOf(sumHigh).shiftLeft(Long.SIZE)
+                .add(new BigInteger(Long.toUnsignedString(sumLow)));
+    }
+
+    /**
+     * @param type  type of the numbers, defines the type of the values in the results
+     * @param scale amount of fraction digits of the numbers
+     * @return collected statistics
+     * @throws NoSuchElementException if no numbers were collected
+     */
+    public TypedSequenceStatistics toStatistics(NumberType type, int scale) {
+        if (count == 0) {
+            throw new NoSuchElementException("File is empty");
+        }
+
+        BigDecimal sum = new BigDecimal(getSum(), scale);
+        TypedSequenceStatistics statistics = new TypedSequenceStatistics();
+        statistics.setType(type);
+        statistics.setScale(scale);
+        statistics.setCount(count);
+        statistics.setMaxValue(toNumber(max, type, scale));
+        statistics.setMinValue(toNumber(min, type, scale));
+        statistics.setSum(sum);
+        statistics.setMean(sum.divide(BigDecimal.valueOf(count), MathContext.DECIMAL128));
+        statistics.setMedian(values.median().movePointLeft(scale));
+        statistics.setIncreasingSequences(toSequences(increasingRuns.getLongestRuns(), type, scale));
+        statistics.setDecreasingSequences(toSequences(decreasingRuns.getLongestRuns(), type, scale));
+        return statistics;
+    }
+
+    /**
+     * Deletes the numbers spilled to disk for the median
+     */
+    @Override
+    public void close() {
+        values.close();
+    }
+
+    private static List<List<Number>> toSequences(List<long[]> runs, NumberType type, int scale) {
+        List<List<Number>> sequences = new ArrayList<>(runs.size());
+        for (long[] run : runs) {
+            List<Number> sequence = new ArrayList<>(run.length);
+            for (long number : run) {
+                sequence.add(toNumber(number, type, scale));
+            }
+            sequences.add(sequence);
+        }
+        return sequences;
+    }
+
+    private static Number toNumber(long number, NumberType type, int scale) {
+        return type == NumberType.DECIMAL ? BigDecimal.valueOf(number, scale) : (Number) number;
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.numbersequenceprocessing.service.analysis;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.LongConsumer;
+
+/**
+ * Parses a stream of ASCII numbers, one per line, directly from raw bytes into primitive longs,
+ * the counterpart of {@link NumberStreamParser} for 64-bit and fixed-point decimal numbers.
+ * <p>
+ * With a positive scale a number may have a fraction part after a {@code .}, with at most as many digits
+ * as the scale. The number is passed to the consumer unscaled, as the integer made of all its digits
+ * padded with zeros to the scale, e.g. {@code -1.5} with the scale of 2 becomes {@code -150}.
+ * A number out of the range of a long after scaling results in {@link NumberFormatException},
+ * no number is ever silently rounded or wrapped around.
+ */
+public class LongStreamParser {
+    private final InputStream stream;
+    private final int scale;
+    private final byte[] buffer;
+
+    private long line = 1;
+    private long value;
+    private long limit = -Long.MAX_VALUE;
+    private boolean negative;
+    private boolean hasSign;
+    private boolean hasDigits;
+    private boolean hasPoint;
+    private int fractionDigits;
+
+    public LongStreamParser(InputStream stream) {
+        this(stream, 0);
+    }
+
+    /**
+     * @param stream file data
+     * @param scale  maximum amount of fraction digits, zero for integers
+     */
+    public LongStreamParser(InputStream stream, int scale) {
+        if (scale < 0) {
+            throw new IllegalArgumentException("Scale cannot be negative: " + scale);
+        }
+        this.stream = stream;
+        this.scale = scale;
+        this.buffer = new byte[NumberStreamParser.BUFFER_SIZE];
+    }
+
+    /**
+     * Reads the data to the end and passes every number to the consumer
+     *
+     * @param consumer receives the unscaled numbers in the order they appear in the file
+     * @return amount of parsed numbers
+     * @throws IOException           if something goes wrong while reading a file
+     * @throws NumberFormatException if the file contains invalid characters, a number with too many
+     *                               fraction digits or a number out of long range
+     */
+    public long parse(LongConsumer consumer) throws IOException {
+        long start = System.nanoTime();
+        long count = 0;
+        long bytes = 0;
+        int read;
+
+        while ((read = stream.read(buffer)) != -1) {
+            bytes += read;
+            for (int i = 0; i < read; i++) {
+                byte b = buffer[i];
+
+                if (b >= '0' && b <= '9') {
+                    if (hasPoint && ++fractionDigits > scale) {
+                        throw new NumberFormatException("More than " + scale + " fraction digits at line " + line);
+                    }
+                    appendDigit(b - '0');
+                    hasDigits = true;
+                } else if (b == '\n' || b == '\r') {
+                    if (hasDigits) {
+                        consumer.accept(finishNumber());
+                        count++;
+                    } else if (hasSign) {
+                        throw signWithoutDigits();
+                    }
+                    if (b == '\n') {
+                        line++;
+                    }
+                } else if ((b == '-' || b == '+') && !hasSign && !hasDigits) {
+                    hasSign = true;
+                    negative = b == '-';
+                    limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+                } else if (b == '.' && scale > 0 && hasDigits && !hasPoint) {
+                    hasPoint = true;
+                } else {
+                    throw new NumberFormatException("Unexpected character with code " + (b & 0xff)
+                            + " at line " + line);
+                }
+            }
+        }
+
+        if (hasDigits) {
+            consumer.accept(finishNumber());
+            count++;
+        } else if (hasSign) {
+            throw signWithoutDigits();
+        }
+
+        NumberStreamParser.recordStreamParse(bytes, count, System.nanoTime() - start);
+        return count;
+    }
+
+    /**
+     * Accumulates the number negated, like {@link Long#parseLong(String)}, so that {@link Long#MIN_VALUE}
+     * is in range, checking the limit of the sign before every step
+     */
+    private void appendDigit(int digit) {
+        if (value < limit / 10) {
+            throw outOfRange();
+        }
+        value *= 10;
+        if (value < limit + digit) {
+            throw outOfRange();
+        }
+        value -= digit;
+    }
+
+    private long finishNumber() {
+        while (fractionDigits < scale) {
+            appendDigit(0);
+            fractionDigits++;
+        }
+        long number = negative ? value : -value;
+
+        value = 0;
+        limit = -Long.MAX_VALUE;
+        negative = false;
+        hasSign = false;
+        hasDigits = false;
+        hasPoint = false;
+        fractionDigits = 0;
+        return number;
+    }
+
+    private NumberFormatException outOfRange() {
+        return new NumberFormatException("Number out of long range at line " + line);
+    }
+
+    private NumberFormatException signWithoutDigits() {
+        return new NumberFormatException("Sign without digits at line " + line);
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.numbersequenceprocessing.service.analysis;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.IntSummaryStatistics;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+/**
+ * Numbers of a file in the binary column format, written by {@link NumberColumnWriter}. All values are little-endian:
+ * <pre>
+ * header  magic "NSQC", format version (int), amount of numbers per block (int), amount of numbers (long)
+ * data    the numbers (int each), in the order of the original file
+ * table   minimum (int), maximum (int) and sum (long) of the numbers of every block
+ * </pre>
+ * The numbers are read straight from the memory-mapped file, without parsing or copying them. The maximum,
+ * the minimum and the mean are calculated from the table alone, without reading the numbers at all.
+ */
+public class NumberColumnFile {
+    public static final int FORMAT_VERSION = 1;
+
+    static final byte[] MAGIC = {'N', 'S', 'Q', 'C'};
+    static final int HEADER_SIZE = 20;
+    static final int TABLE_ENTRY_SIZE = 16;
+
+    /**
+     * Largest part of the numbers mapped at once, the size of a mapped buffer is limited to an int.
+     * A multiple of the size of a number, so that no number is split between the parts.
+     */
+    private static final long MAX_MAPPED_SIZE = 1024 * 1024 * 1024;
+
+    private final Path file;
+    private final int blockSize;
+    private final long count;
+    private final int[] blockMin;
+    private final int[] blockMax;
+    private final long[] blockSum;
+
+    private NumberColumnFile(Path file, int blockSize, long count, int[] blockMin, int[] blockMax, long[] blockSum) {
+        this.file = file;
+        this.blockSize = blockSize;
+        this.count = count;
+        this.blockMin = blockMin;
+        this.blockMax = blockMax;
+        this.blockSum = blockSum;
+    }
+
+    /**
+     * @param file path to local file
+     * @return true if the file starts with the header of the column format
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean isColumnFile(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(MAGIC.length);
+            while (magic.hasRemaining()) {
+                if (channel.read(magic) < 0) {
+                    return false;
+                }
+            }
+            return Arrays.equals(magic.array(), MAGIC);
+        }
+    }
+
+    /**
+     * Reads the header and the table of the blocks, the numbers are only read by {@link #scan(IntConsumer,
+     * ScanProgress)}
+     *
+     * @param file path to local file in the column format
+     * @return the column file
+     * @throws IOException if the file cannot be read or is not a valid column file
+     */
+    public static NumberColumnFile open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = readFully(channel, 0, HEADER_SIZE);
+            byte[] magic = new byte[MAGIC.length];
+            header.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new StreamCorruptedException("Not a column file");
+            }
+            int version = header.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new StreamCorruptedException("Unsupported format version " + version);
+            }
+            int blockSize = header.getInt();
+            long count = header.getLong();
+            if (blockSize <= 0 || count < 0 || count > (channel.size() - HEADER_SIZE) / Integer.BYTES) {
+                throw new StreamCorruptedException("Invalid header of the column file");
+            }
+
+            long blocks = (count + blockSize - 1) / blockSize;
+            long tableOffset = HEADER_SIZE + count * Integer.BYTES;
+            if (blocks * TABLE_ENTRY_SIZE > Integer.MAX_VALUE
+                    || channel.size() != tableOffset + blocks * TABLE_ENTRY_SIZE) {
+                throw new StreamCorruptedException("Size of the column file does not match its header");
+            }
+            ByteBuffer table = readFully(channel, tableOffset, (int) blocks * TABLE_ENTRY_SIZE);
+            int[] blockMin = new int[(int) blocks];
+            int[] blockMax = new int[(int) blocks];
+            long[] blockSum = new long[(int) blocks];
+            for (int i = 0; i < blocks; i++) {
+                blockMin[i] = table.getInt();
+                blockMax[i] = table.getInt();
+                blockSum[i] = table.getLong();
+            }
+            return new NumberColumnFile(file, blockSize, count, blockMin, blockMax, blockSum);
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public int getBlockCount() {
+        return blockSum.length;
+    }
+
+    /**
+     * @return count, minimum, maximum and sum of the numbers, calculated from the table of the blocks
+     * @throws NoSuchElementException if the file contains no numbers
+     */
+    public IntSummaryStatistics summarize() {
+        if (count == 0) {
+            throw new NoSuchElementException("File is empty");
+        }
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        long sum = 0;
+        for (int i = 0; i < blockSum.length; i++) {
+            min = Math.min(min, blockMin[i]);
+            max = Math.max(max, blockMax[i]);
+            sum += blockSum[i];
+        }
+        return new IntSummaryStatistics(count, min, max, sum);
+    }
+
+    /**
+     * @return position of the first number in the file
+     */
+    public long getDataStart() {
+        return HEADER_SIZE;
+    }
+
+    /**
+     * @return position following the last number in the file
+     */
+    public long getDataEnd() {
+        return HEADER_SIZE + count * Integer.BYTES;
+    }
+
+    /**
+     * Passes all numbers to the consumer in the order of the file, mapping the file part by part
+     *
+     * @param consumer receives the numbers
+     * @param progress receives the amount of bytes read, may be null
+     * @throws IOException if something goes wrong while reading the file
+     * @throws java.util.concurrent.CancellationException if the scan was cancelled
+     */
+    public void scan(IntConsumer consumer, ScanProgress progress) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (long position = getDataStart(); position < getDataEnd(); position += MAX_MAPPED_SIZE) {
+                long size = Math.min(MAX_MAPPED_SIZE, getDataEnd() - position);
+                read(channel.map(FileChannel.MapMode.READ_ONLY, position, size), consumer, progress);
+            }
+        }
+    }
+
+    /**
+     * Passes the numbers of a part of the data to the consumer, reading them through an int view of the buffer.
+     * An {@link IntBatchConsumer} receives them in batches copied from the buffer.
+     *
+     * @param part     numbers from the position to the limit of the buffer, e.g. a memory-mapped part of the file
+     * @param consumer receives the numbers
+     * @param progress receives the amount of bytes read, may be null
+     * @throws java.util.concurrent.CancellationException if the scan was cancelled
+     */
+    public static void read(ByteBuffer part, IntConsumer consumer, ScanProgress progress) {
+        IntBuffer numbers = part.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        IntBatchConsumer batchConsumer = consumer instanceof IntBatchConsumer ? (IntBatchConsumer) consumer : null;
+        int[] batch = batchConsumer != null ? new int[IntBatchConsumer.BATCH_SIZE] : null;
+        int step = IntBatchConsumer.BATCH_SIZE;
+        for (int from = 0; from < numbers.limit(); from += step) {
+            int to = Math.min(from + step, numbers.limit());
+            if (batchConsumer != null) {
+                numbers.get(from, batch, 0, to - from);
+                batchConsumer.acceptAll(batch, 0, to - from);
+            } else {
+                for (int i = from; i < to; i++) {
+                    consumer.accept(numbers.get(i));
+                }
+            }
+            if (progress != null) {
+                progress.advance((long) (to - from) * Integer.BYTES);
+            }
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new StreamCorruptedException("Column file is truncated");
+            }
+        }
+        return buffer.flip();
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.numbersequenceprocessing.service.analysis;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Writes the numbers passed to it in the binary column format, see {@link NumberColumnFile}. The numbers are
+ * written block by block, the header and the table of the blocks are written by {@link #finish()}.
+ */
+public class NumberColumnWriter implements IntConsumer, Closeable {
+    private final FileChannel channel;
+    private final int blockSize;
+    private final ByteBuffer block;
+
+    private ByteBuffer table = ByteBuffer.allocate(1024 * NumberColumnFile.TABLE_ENTRY_SIZE)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    private long count;
+    private long position = NumberColumnFile.HEADER_SIZE;
+    private int blockMin = Integer.MAX_VALUE;
+    private int blockMax = Integer.MIN_VALUE;
+    private long blockSum;
+
+    /**
+     * @param file      destination, which is created or overwritten
+     * @param blockSize amount of numbers per block
+     * @throws IOException if the file cannot be opened for writing
+     */
+    public NumberColumnWriter(Path file, int blockSize) throws IOException {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size has to be positive: " + blockSize);
+        }
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.blockSize = blockSize;
+        this.block = ByteBuffer.allocateDirect(blockSize * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public void accept(int number) {
+        block.putInt(number);
+        blockMin = Math.min(blockMin, number);
+        blockMax = Math.max(blockMax, number);
+        blockSum += number;
+        count++;
+        if (!block.hasRemaining()) {
+            try {
+                writeBlock();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Writes the last block, the table of the blocks and the header
+     *
+     * @return amount of written numbers
+     * @throws IOException if the file cannot be written
+     */
+    public long finish() throws IOException {
+        if (block.position() > 0) {
+            writeBlock();
+        }
+        writeFully(table.flip(), position);
+
+        ByteBuffer header = ByteBuffer.allocate(NumberColumnFile.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(NumberColumnFile.MAGIC)
+                .putInt(NumberColumnFile.FORMAT_VERSION)
+                .putInt(blockSize)
+                .putLong(count);
+        writeFully(header.flip(), 0);
+        channel.force(false);
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void writeBlock() throws IOException {
+        position += writeFully(block.flip(), position);
+        block.clear();
+
+        if (table.remaining() < NumberColumnFile.TABLE_ENTRY_SIZE) {
+            table = ByteBuffer.wrap(Arrays.copyOf(table.array(), table.capacity() * 2))
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .position(table.position());
+        }
+        table.putInt(blockMin).putInt(blockMax).putLong(blockSum);
+        blockMin = Integer.MAX_VALUE;
+        blockMax = Integer.MIN_VALUE;
+        blockSum = 0;
+    }
+
+    private int writeFully(ByteBuffer buffer, long position) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+        return written;
+    }
+}
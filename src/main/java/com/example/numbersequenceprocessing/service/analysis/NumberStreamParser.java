@@ -0,0 +1,245 @@
+package com.example.numbersequenceprocessing.service.analysis;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Parses a stream of ASCII numbers, one per line, directly from raw bytes into primitive ints.
+ * No characters, strings or boxed numbers are created per line, the only allocation is the read buffer.
+ * <p>
+ * Lines may be separated with {@code \n} or {@code \r\n}, blank lines are skipped,
+ * a number may start with a {@code +} or {@code -} sign. Anything else results in {@link NumberFormatException}.
+ * <p>
+ * The amount of bytes and numbers and the time of every completed parse are recorded in the global meter registry,
+ * once per parse, tagged with the kind of the source.
+ */
+public class NumberStreamParser {
+    public static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final long MAX_MAGNITUDE = -(long) Integer.MIN_VALUE;
+
+    private static final ParseMeters STREAM_METERS = new ParseMeters("stream");
+    private static final ParseMeters MAPPED_METERS = new ParseMeters("mapped");
+
+    private final InputStream stream;
+    private final ByteBuffer source;
+    private final byte[] buffer;
+    private ScanProgress progress;
+
+    private long line = 1;
+    private long magnitude;
+    private boolean negative;
+    private boolean hasSign;
+    private boolean hasDigits;
+
+    public NumberStreamParser(InputStream stream) {
+        this(stream, new byte[BUFFER_SIZE]);
+    }
+
+    /**
+     * @param stream file data
+     * @param buffer read buffer, can be reused between parsers that are not used concurrently
+     */
+    public NumberStreamParser(InputStream stream, byte[] buffer) {
+        this.stream = stream;
+        this.source = null;
+        this.buffer = buffer;
+    }
+
+    /**
+     * @param source file data, e.g. a memory-mapped part of a file, is read from its position to its limit
+     */
+    public NumberStreamParser(ByteBuffer source) {
+        this.stream = null;
+        this.source = source;
+        this.buffer = new byte[BUFFER_SIZE];
+    }
+
+    /**
+     * @param progress receives the amount of every read portion of the data
+     * @return this parser
+     */
+    public NumberStreamParser withProgress(ScanProgress progress) {
+        this.progress = progress;
+        return this;
+    }
+
+    /**
+     * Reads the data to the end and passes every number to the consumer. An {@link IntBatchConsumer} receives
+     * the numbers in batches of {@link IntBatchConsumer#BATCH_SIZE}.
+     *
+     * @param consumer receives the numbers in the order they appear in the file
+     * @return amount of parsed numbers
+     * @throws IOException           if something goes wrong while reading a file
+     * @throws NumberFormatException if the file contains invalid characters or a number out of int range
+     * @throws java.util.concurrent.CancellationException if the {@link ScanProgress} was cancelled
+     */
+    public long parse(IntConsumer consumer) throws IOException {
+        IntConsumer target = consumer instanceof IntBatchConsumer ? new Batches((IntBatchConsumer) consumer) : consumer;
+        long start = System.nanoTime();
+        long count = 0;
+        long bytes = 0;
+        int read;
+
+        while ((read = read()) != -1) {
+            bytes += read;
+            if (progress != null) {
+                progress.advance(read);
+            }
+            for (int i = 0; i < read; i++) {
+                byte b = buffer[i];
+
+                if (b >= '0' && b <= '9') {
+                    magnitude = magnitude * 10 + (b - '0');
+                    if (magnitude > MAX_MAGNITUDE) {
+                        throw outOfRange();
+                    }
+                    hasDigits = true;
+                } else if (b == '\n' || b == '\r') {
+                    if (hasDigits) {
+                        target.accept(finishNumber());
+                        count++;
+                    } else if (hasSign) {
+                        throw signWithoutDigits();
+                    }
+                    if (b == '\n') {
+                        line++;
+                    }
+                } else if ((b == '-' || b == '+') && !hasSign && !hasDigits) {
+                    hasSign = true;
+                    negative = b == '-';
+                } else {
+                    throw invalidCharacter(b);
+                }
+            }
+        }
+
+        if (hasDigits) {
+            target.accept(finishNumber());
+            count++;
+        } else if (hasSign) {
+            throw signWithoutDigits();
+        }
+        if (target instanceof Batches) {
+            ((Batches) target).flush();
+        }
+
+        (stream != null ? STREAM_METERS : MAPPED_METERS).record(bytes, count, System.nanoTime() - start);
+        return count;
+    }
+
+    /**
+     * Records a completed parse of a stream by another parser of the same format, e.g. {@link LongStreamParser}
+     */
+    static void recordStreamParse(long bytes, long count, long nanos) {
+        STREAM_METERS.record(bytes, count, nanos);
+    }
+
+    private int read() throws IOException {
+        if (stream != null) {
+            return stream.read(buffer);
+        }
+        if (!source.hasRemaining()) {
+            return -1;
+        }
+        int length = Math.min(source.remaining(), buffer.length);
+        source.get(buffer, 0, length);
+        return length;
+    }
+
+    private int finishNumber() {
+        if (!negative && magnitude > Integer.MAX_VALUE) {
+            throw outOfRange();
+        }
+        int number = (int) (negative ? -magnitude : magnitude);
+
+        magnitude = 0;
+        negative = false;
+        hasSign = false;
+        hasDigits = false;
+        return number;
+    }
+
+    private NumberFormatException outOfRange() {
+        return new NumberFormatException("Number out of int range at line " + line);
+    }
+
+    private NumberFormatException signWithoutDigits() {
+        return new NumberFormatException("Sign without digits at line " + line);
+    }
+
+    private NumberFormatException invalidCharacter(byte b) {
+        return new NumberFormatException("Unexpected character with code " + (b & 0xff) + " at line " + line);
+    }
+
+    /**
+     * Collects the parsed numbers and passes them to the consumer a batch at a time
+     */
+    private static class Batches implements IntConsumer {
+        private final IntBatchConsumer consumer;
+        private final int[] batch = new int[IntBatchConsumer.BATCH_SIZE];
+        private int size;
+
+        Batches(IntBatchConsumer consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void accept(int number) {
+            batch[size++] = number;
+            if (size == batch.length) {
+                flush();
+            }
+        }
+
+        void flush() {
+            consumer.acceptAll(batch, 0, size);
+            size = 0;
+        }
+    }
+
+    private static class ParseMeters {
+        private final Counter bytes;
+        private final Counter numbers;
+        private final Timer time;
+        private final DistributionSummary throughput;
+
+        ParseMeters(String source) {
+            bytes = Counter.builder("numbers.parse.bytes")
+                    .description("Bytes of the files parsed")
+                    .baseUnit("bytes")
+                    .tag("source", source)
+                    .register(Metrics.globalRegistry);
+            numbers = Counter.builder("numbers.parse.lines")
+                    .description("Numbers parsed from the files")
+                    .tag("source", source)
+                    .register(Metrics.globalRegistry);
+            time = Timer.builder("numbers.parse")
+                    .description("Time of parsing a file or a part of it, including the processing of the numbers")
+                    .tag("source", source)
+                    .register(Metrics.globalRegistry);
+            throughput = DistributionSummary.builder("numbers.parse.throughput")
+                    .description("Bytes parsed per second by a single parser")
+                    .baseUnit("bytes")
+                    .tag("source", source)
+                    .register(Metrics.globalRegistry);
+        }
+
+        void record(long parsedBytes, long parsedNumbers, long nanos) {
+            bytes.increment(parsedBytes);
+            numbers.increment(parsedNumbers);
+            time.record(nanos, TimeUnit.NANOSECONDS);
+            if (parsedBytes > 0 && nanos > 0) {
+                throughput.record(parsedBytes * 1e9 / nanos);
+            }
+        }
+    }
+}
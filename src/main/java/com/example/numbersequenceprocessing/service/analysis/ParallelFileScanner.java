@@ -0,0 +1,361 @@
+package com.example.numbersequenceprocessing.service.analysis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongFunction;
+
+/**
+ * Scans large local files on all cores: the file is memory-mapped, split into chunks on line boundaries,
+ * every chunk is parsed by its own {@link SequenceStatisticsCollector}, {@link QuantileSketch}
+ * or {@link SequenceRunTracker}
+ * and the partial results are merged in the order of the chunks. Files in the column format
+ * ({@link NumberColumnFile}) are split on block boundaries and their numbers are read without parsing.
+ */
+@Slf4j
+@Component
+public class ParallelFileScanner {
+    private static final long MIN_CHUNK_SIZE = 1024 * 1024;
+    private static final long MAX_CHUNK_SIZE = 1024 * 1024 * 1024;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final ForkJoinPool pool;
+    private final long threshold;
+    private final long medianHeapBudget;
+    private final double sketchAccuracy;
+
+    public ParallelFileScanner(@Qualifier("parallelScanPool") ForkJoinPool pool,
+                               @Value("${numbers.parallel-scan.threshold}") DataSize threshold,
+                               @Value("${numbers.median.heap-budget}") DataSize medianHeapBudget,
+                               @Value("${numbers.sketch.relative-accuracy}") double sketchAccuracy) {
+        this.pool = pool;
+        this.threshold = threshold.toBytes();
+        this.medianHeapBudget = medianHeapBudget.toBytes();
+        this.sketchAccuracy = sketchAccuracy;
+    }
+
+    /**
+     * Checks if the file is large enough for a parallel scan to pay off
+     *
+     * @param file path to local file
+     * @return true if the file should be scanned with {@link #scan(Path)}
+     * @throws IOException if the file attributes cannot be read
+     */
+    public boolean supports(Path file) throws IOException {
+        return Files.isRegularFile(file) && supports(Files.size(file));
+    }
+
+    /**
+     * @param bytes size of the scanned part of a file
+     * @return true if the part should be scanned with {@link #scan(Path, long, long, ScanProgress)}
+     */
+    public boolean supports(long bytes) {
+        return threshold >= 0 && bytes >= threshold;
+    }
+
+    /**
+     * Collects the statistics of all numbers in the file
+     *
+     * @param file path to local file
+     * @return collector containing the numbers of the whole file, which has to be closed by the caller
+     * @throws IOException if something goes wrong while reading a file
+     */
+    public SequenceStatisticsCollector scan(Path file) throws IOException {
+        return scan(file, null);
+    }
+
+    /**
+     * Collects the statistics of all numbers in the file, reporting the progress of the scan
+     *
+     * @param file     path to local file
+     * @param progress receives the amount of bytes read, may be null
+     * @return collector containing the numbers of the whole file, which has to be closed by the caller
+     * @throws IOException if something goes wrong while reading a file
+     * @throws java.util.concurrent.CancellationException if the scan was cancelled
+     */
+    public SequenceStatisticsCollector scan(Path file, ScanProgress progress) throws IOException {
+        return scan(file, 0, Long.MAX_VALUE, progress);
+    }
+
+    /**
+     * Collects the statistics of the numbers in a part of the file, reporting the progress of the scan
+     *
+     * @param file     path to local file
+     * @param start    position of the first byte of the part, has to be at the beginning of a line
+     * @param end      position following the last byte of the part, limited by the file size
+     * @param progress receives the amount of bytes read, may be null
+     * @return collector containing the numbers of the part, which has to be closed by the caller
+     * @throws IOException if something goes wrong while reading a file
+     * @throws java.util.concurrent.CancellationException if the scan was cancelled
+     */
+    public SequenceStatisticsCollector scan(Path file, long start, long end, ScanProgress progress)
+            throws IOException {
+        return scan(file, start, end, TEXT_PARSER, progress, collectors());
+    }
+
+    /**
+     * Collects the statistics of all numbers in the column file, reporting the progress of the scan
+     *
+     * @param columns  file in the column format
+     * @param progress receives the amount of bytes read, may be null
+     * @return collector containing the numbers of the whole file, which has to be closed by the caller
+     * @throws IOException if something goes wrong while reading a file
+     * @throws java.util.concurrent.CancellationException if the scan was cancelled
+     */
+    public SequenceStatisticsCollector scan(NumberColumnFile columns, ScanProgress progress) throws IOException {
+        return scan(columns.getFile(), columns.getDataStart(), columns.getDataEnd(), NumberColumnFile::read,
+                progress, collectors());
+    }
+
+    /**
+     * Counts the numbers of the file in a {@link QuantileSketch}, without keeping the numbers themselves
+     *
+     * @param file     path to local file
+     * @param progress receives the amount of bytes read, may be null
+     * @return sketch of the numbers of the whole file
+     * @throws IOException if something goes wrong while reading a file
+     * @throws java.util.concurrent.CancellationException if the scan was cancelled
+     */
+    public QuantileSketch scanSketch(Path file, ScanProgress progress) throws IOException {
+        return scan(file, 0, Long.MAX_VALUE, TEXT_PARSER, progress, sketches());
+    }
+
+    /**
+     * Counts the numbers of the column file in a {@link QuantileSketch}, see {@link #scanSketch(Path, ScanProgress)}
+     *
+     * @param columns  file in the column format
+     * @param progress receives the amount of bytes read, may be null
+     * @return sketch of the numbers of the whole file
+     * @throws IOException if something goes wrong while reading a file
+     * @throws java.util.concurrent.CancellationException if the scan was cancelled
+     */
+    public QuantileSketch scanSketch(NumberColumnFile columns, ScanProgress progress) throws IOException {
+        return scan(columns.getFile(), columns.getDataStart(), columns.getDataEnd(), NumberColumnFile::read,
+                progress, sketches());
+    }
+
+    /**
+     * Tracks the longest runs of the file, without keeping the other numbers
+     *
+     * @param file       path to local file
+     * @param increasing true to track increasing runs, false for decreasing runs
+     * @return tracker of the whole file
+     * @throws IOException if something goes wrong while reading a file
+     */
+    public SequenceRunTracker scanRuns(Path file, boolean increasing) throws IOException {
+        return scan(file, 0, Long.MAX_VALUE, TEXT_PARSER, null, runTrackers(increasing));
+    }
+
+    /**
+     * Tracks the longest runs of the column file, see {@link #scanRuns(Path, boolean)}
+     *
+     * @param columns    file in the column format
+     * @param increasing true to track increasing runs, false for decreasing runs
+     * @return tracker of the whole file
+     * @throws IOException if something goes wrong while reading a file
+     */
+    public SequenceRunTracker scanRuns(NumberColumnFile columns, boolean increasing) throws IOException {
+        return scan(columns.getFile(), columns.getDataStart(), columns.getDataEnd(), NumberColumnFile::read,
+                null, runTrackers(increasing));
+    }
+
+    private ChunkConsumers<SequenceStatisticsCollector> collectors() {
+        return new ChunkConsumers<>(
+                chunkMedianHeapBudget -> new SequenceStatisticsCollector(chunkMedianHeapBudget, sketchAccuracy),
+                SequenceStatisticsCollector::mergeChunk, SequenceStatisticsCollector::close);
+    }
+
+    private ChunkConsumers<QuantileSketch> sketches() {
+        return new ChunkConsumers<>(chunkMedianHeapBudget -> new QuantileSketch(sketchAccuracy), QuantileSketch::merge,
+                sketch -> {
+                });
+    }
+
+    private ChunkConsumers<SequenceRunTracker> runTrackers(boolean increasing) {
+        return new ChunkConsumers<>(chunkMedianHeapBudget -> new SequenceRunTracker(increasing),
+                SequenceRunTracker::merge, tracker -> {
+                });
+    }
+
+    private <T extends IntConsumer> T scan(Path file, long start, long end, ChunkParser parser, ScanProgress progress,
+                                           ChunkConsumers<T> consumers)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] bounds = split(channel, start, Math.min(end, channel.size()), parser == TEXT_PARSER);
+            int chunks = bounds.length - 1;
+            if (chunks == 0) {
+                return consumers.factory.apply(medianHeapBudget);
+            }
+            log.debug("Scanning {} in {} chunks", file, chunks);
+            consumers.chunkMedianHeapBudget = medianHeapBudget / chunks;
+            return pool.invoke(new ScanTask<>(channel, bounds, 0, chunks, parser, consumers, progress));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * @param onLines true to split text on lines, false to split ints of a column file between them
+     * @return positions of the chunk borders, each chunk except the last one ends with a line break
+     *         or with a whole int
+     */
+    private long[] split(FileChannel channel, long start, long end, boolean onLines) throws IOException {
+        long size = Math.max(end - start, 0);
+        int chunks = pool.getParallelism() * CHUNKS_PER_THREAD;
+        long chunkSize = Math.min(Math.max(size / chunks + 1, MIN_CHUNK_SIZE), MAX_CHUNK_SIZE);
+        if (!onLines) {
+            chunkSize -= chunkSize % Integer.BYTES;
+        }
+
+        long[] bounds = new long[(int) (size / chunkSize) + 2];
+        bounds[0] = start;
+        int count = 1;
+        long position = start;
+        while (position < end) {
+            long next;
+            if (position + chunkSize >= end) {
+                next = end;
+            } else {
+                next = onLines ? Math.min(lineEnd(channel, position + chunkSize), end) : position + chunkSize;
+            }
+            if (next - position > Integer.MAX_VALUE) {
+                throw new IOException("Line is too long at position " + position);
+            }
+            bounds[count++] = next;
+            position = next;
+        }
+        return Arrays.copyOf(bounds, count);
+    }
+
+    /**
+     * @return position following the first line break at or after the specified position, or the file size
+     */
+    private long lineEnd(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * Passes the numbers of a memory-mapped chunk to the consumer
+     */
+    @FunctionalInterface
+    private interface ChunkParser {
+        void parse(ByteBuffer chunk, IntConsumer consumer, ScanProgress progress) throws IOException;
+    }
+
+    private static final ChunkParser TEXT_PARSER =
+            (chunk, consumer, progress) -> new NumberStreamParser(chunk).withProgress(progress).parse(consumer);
+
+    /**
+     * Creates, merges and releases the consumers of the numbers of the chunks
+     */
+    private static class ChunkConsumers<T extends IntConsumer> {
+        private final LongFunction<T> factory;
+        private final BiConsumer<T, T> merger;
+        private final Consumer<T> closer;
+        private long chunkMedianHeapBudget;
+
+        ChunkConsumers(LongFunction<T> factory, BiConsumer<T, T> merger, Consumer<T> closer) {
+            this.factory = factory;
+            this.merger = merger;
+            this.closer = closer;
+        }
+    }
+
+    private static class ScanTask<T extends IntConsumer> extends RecursiveTask<T> {
+        private final FileChannel channel;
+        private final long[] bounds;
+        private final int from;
+        private final int to;
+        private final ChunkParser parser;
+        private final ChunkConsumers<T> consumers;
+        private final ScanProgress progress;
+
+        ScanTask(FileChannel channel, long[] bounds, int from, int to, ChunkParser parser,
+                 ChunkConsumers<T> consumers, ScanProgress progress) {
+            this.channel = channel;
+            this.bounds = bounds;
+            this.from = from;
+            this.to = to;
+            this.parser = parser;
+            this.consumers = consumers;
+            this.progress = progress;
+        }
+
+        @Override
+        protected T compute() {
+            if (to - from == 1) {
+                return scanChunk(bounds[from], bounds[to]);
+            }
+
+            int middle = (from + to) >>> 1;
+            ScanTask<T> left = new ScanTask<>(channel, bounds, from, middle, parser, consumers, progress);
+            left.fork();
+            T right;
+            try {
+                right = new ScanTask<>(channel, bounds, middle, to, parser, consumers, progress).compute();
+            } catch (RuntimeException e) {
+                try {
+                    consumers.closer.accept(left.join());
+                } catch (RuntimeException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            }
+
+            T result;
+            try {
+                result = left.join();
+            } catch (RuntimeException e) {
+                consumers.closer.accept(right);
+                throw e;
+            }
+            consumers.merger.accept(result, right);
+            consumers.closer.accept(right);
+            return result;
+        }
+
+        private T scanChunk(long start, long end) {
+            T consumer = consumers.factory.apply(consumers.chunkMedianHeapBudget);
+            try {
+                ByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                parser.parse(chunk, consumer, progress);
+            } catch (IOException e) {
+                consumers.closer.accept(consumer);
+                throw new UncheckedIOException(e);
+            } catch (RuntimeException e) {
+                consumers.closer.accept(consumer);
+                throw e;
+            }
+            return consumer;
+        }
+    }
+}
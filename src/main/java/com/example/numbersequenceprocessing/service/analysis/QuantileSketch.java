@@ -0,0 +1,280 @@
+package com.example.numbersequenceprocessing.service.analysis;
+
+import com.example.numbersequenceprocessing.data.dto.response.HistogramBucket;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+/**
+ * Quantile sketch with a relative error bound (DDSketch). A number is counted in the bin of its logarithm
+ * to the base {@code gamma = (1 + accuracy) / (1 - accuracy)}, so any quantile is estimated within the relative
+ * accuracy of the exact value, whatever the distribution of the numbers. The bins of the whole int range are
+ * allocated upfront: about 1100 counters per sign for the accuracy of 1%, however many numbers are counted.
+ * <p>
+ * Sketches with the same accuracy are merged by adding their counters, so the sketches of the parts of a file
+ * are merged into exactly the sketch of the whole file.
+ */
+public class QuantileSketch implements IntConsumer {
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+
+    /**
+     * Magnitude of {@link Integer#MIN_VALUE}, the largest magnitude of an int
+     */
+    private static final double MAX_MAGNITUDE = -(double) Integer.MIN_VALUE;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double multiplier;
+
+    private final long[] positiveBins;
+    private final long[] negativeBins;
+    private long zeroCount;
+    private long count;
+    private int min = Integer.MAX_VALUE;
+    private int max = Integer.MIN_VALUE;
+
+    /**
+     * @param relativeAccuracy maximum relative error of the estimated quantiles, between 0 and 1 exclusive
+     */
+    public QuantileSketch(double relativeAccuracy) {
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException("Relative accuracy has to be between 0 and 1: " + relativeAccuracy);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.multiplier = 1 / Math.log(gamma);
+
+        int bins = index(MAX_MAGNITUDE) + 1;
+        this.positiveBins = new long[bins];
+        this.negativeBins = new long[bins];
+    }
+
+    @Override
+    public void accept(int number) {
+        if (number > 0) {
+            positiveBins[index(number)]++;
+        } else if (number < 0) {
+            negativeBins[index(-(double) number)]++;
+        } else {
+            zeroCount++;
+        }
+        count++;
+        min = Math.min(min, number);
+        max = Math.max(max, number);
+    }
+
+    /**
+     * Adds the numbers counted by the other sketch
+     *
+     * @param other sketch with the same relative accuracy
+     */
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Sketches of different accuracy cannot be merged");
+        }
+        for (int i = 0; i < positiveBins.length; i++) {
+            positiveBins[i] += other.positiveBins[i];
+            negativeBins[i] += other.negativeBins[i];
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public double getRelativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @param quantile between 0 and 1, e.g. 0.5 for the median
+     * @return estimate of the number with the rank {@code quantile * (count - 1)}
+     * @throws NoSuchElementException if no numbers were counted
+     */
+    public double quantile(double quantile) {
+        if (!(quantile >= 0 && quantile <= 1)) {
+            throw new IllegalArgumentException("Quantile has to be between 0 and 1: " + quantile);
+        }
+        if (count == 0) {
+            throw new NoSuchElementException("File is empty");
+        }
+
+        long rank = (long) (quantile * (count - 1));
+        long seen = 0;
+        for (int i = negativeBins.length - 1; i >= 0; i--) {
+            seen += negativeBins[i];
+            if (seen > rank) {
+                return clamp(-value(i));
+            }
+        }
+        seen += zeroCount;
+        if (seen > rank) {
+            return 0;
+        }
+        for (int i = 0; i < positiveBins.length; i++) {
+            seen += positiveBins[i];
+            if (seen > rank) {
+                return clamp(value(i));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Distributes the counted numbers over buckets of equal width between the minimum and the maximum.
+     * The numbers of a bin of the sketch are assigned to the bucket of the estimated value of the bin.
+     *
+     * @param buckets amount of buckets
+     * @return buckets in ascending order
+     * @throws NoSuchElementException if no numbers were counted
+     */
+    public List<HistogramBucket> histogram(int buckets) {
+        if (buckets < 1) {
+            throw new IllegalArgumentException("Histogram has to have at least one bucket: " + buckets);
+        }
+        if (count == 0) {
+            throw new NoSuchElementException("File is empty");
+        }
+
+        double width = ((double) max - min + 1) / buckets;
+        long[] counts = new long[buckets];
+        for (int i = 0; i < positiveBins.length; i++) {
+            addToBucket(counts, width, clamp(value(i)), positiveBins[i]);
+            addToBucket(counts, width, clamp(-value(i)), negativeBins[i]);
+        }
+        addToBucket(counts, width, 0, zeroCount);
+
+        List<HistogramBucket> histogram = new ArrayList<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            HistogramBucket bucket = new HistogramBucket();
+            bucket.setLowerBound(min + i * width);
+            bucket.setUpperBound(min + (i + 1) * width);
+            bucket.setCount(counts[i]);
+            histogram.add(bucket);
+        }
+        return histogram;
+    }
+
+    /**
+     * Writes the sketch, so that it can be restored with {@link #readFrom(DataInput)}
+     *
+     * @param out destination of the sketch
+     * @throws IOException if the sketch cannot be written
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeDouble(relativeAccuracy);
+        out.writeLong(count);
+        out.writeLong(zeroCount);
+        out.writeInt(min);
+        out.writeInt(max);
+        writeBins(out, positiveBins);
+        writeBins(out, negativeBins);
+    }
+
+    /**
+     * @param in source of the sketch
+     * @return sketch written with {@link #writeTo(DataOutput)}
+     * @throws IOException if the sketch cannot be read
+     */
+    public static QuantileSketch readFrom(DataInput in) throws IOException {
+        QuantileSketch sketch = new QuantileSketch(in.readDouble());
+        sketch.count = in.readLong();
+        sketch.zeroCount = in.readLong();
+        sketch.min = in.readInt();
+        sketch.max = in.readInt();
+        readBins(in, sketch.positiveBins);
+        readBins(in, sketch.negativeBins);
+        return sketch;
+    }
+
+    /**
+     * @return approximate amount of heap taken by the sketch
+     */
+    public long estimateSize() {
+        return 2L * positiveBins.length * Long.BYTES + 64;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof QuantileSketch)) {
+            return false;
+        }
+        QuantileSketch other = (QuantileSketch) o;
+        return relativeAccuracy == other.relativeAccuracy && count == other.count && zeroCount == other.zeroCount
+                && min == other.min && max == other.max
+                && Arrays.equals(positiveBins, other.positiveBins) && Arrays.equals(negativeBins, other.negativeBins);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(count) + Arrays.hashCode(positiveBins) + Arrays.hashCode(negativeBins);
+    }
+
+    @Override
+    public String toString() {
+        return "QuantileSketch(relativeAccuracy=" + relativeAccuracy + ", count=" + count + ")";
+    }
+
+    private int index(double magnitude) {
+        return (int) Math.ceil(Math.log(magnitude) * multiplier);
+    }
+
+    /**
+     * @return value of the bin, which is within the relative accuracy of every magnitude counted in the bin
+     */
+    private double value(int index) {
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+
+    private double clamp(double value) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private void addToBucket(long[] counts, double width, double value, long binCount) {
+        if (binCount > 0) {
+            int bucket = (int) Math.min((value - min) / width, counts.length - 1);
+            counts[bucket] += binCount;
+        }
+    }
+
+    private static void writeBins(DataOutput out, long[] bins) throws IOException {
+        int nonEmpty = 0;
+        for (long bin : bins) {
+            if (bin != 0) {
+                nonEmpty++;
+            }
+        }
+        out.writeInt(nonEmpty);
+        for (int i = 0; i < bins.length; i++) {
+            if (bins[i] != 0) {
+                out.writeInt(i);
+                out.writeLong(bins[i]);
+            }
+        }
+    }
+
+    private static void readBins(DataInput in, long[] bins) throws IOException {
+        int nonEmpty = in.readInt();
+        for (int i = 0; i < nonEmpty; i++) {
+            int index = in.readInt();
+            if (index < 0 || index >= bins.length) {
+                throw new StreamCorruptedException("Bin " + index + " is out of range");
+            }
+            bins[index] = in.readLong();
+        }
+    }
+}
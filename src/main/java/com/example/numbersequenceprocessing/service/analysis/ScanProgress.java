@@ -0,0 +1,83 @@
+package com.example.numbersequenceprocessing.service.analysis;
+
+import org.apache.commons.io.input.ProxyInputStream;
+
+import java.io.InputStream;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of reading a file, shared by the threads scanning its parts. The parsers report every read buffer,
+ * which is also where a cancelled scan is interrupted.
+ */
+public class ScanProgress {
+    private final AtomicLong processedBytes = new AtomicLong();
+    private volatile long totalBytes = -1;
+    private volatile boolean cancelled;
+    private final long startTime = System.nanoTime();
+
+    /**
+     * @param bytes amount of bytes read since the previous call
+     * @throws CancellationException if the scan was cancelled
+     */
+    public void advance(long bytes) {
+        if (cancelled) {
+            throw new CancellationException("Scan was cancelled");
+        }
+        processedBytes.addAndGet(bytes);
+    }
+
+    /**
+     * Reports the bytes read from the stream, for the files whose size differs from the size of the parsed data,
+     * e.g. the compressed ones
+     *
+     * @param stream file data
+     * @return stream, every read of which advances the progress
+     */
+    public InputStream track(InputStream stream) {
+        return new ProxyInputStream(stream) {
+            @Override
+            protected void afterRead(int bytes) {
+                if (bytes > 0) {
+                    advance(bytes);
+                }
+            }
+        };
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public long getProcessedBytes() {
+        return processedBytes.get();
+    }
+
+    /**
+     * @return size of the file, -1 if it is not known yet
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public void setTotalBytes(long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+
+    /**
+     * @return estimated time in milliseconds until the whole file is read, -1 if it cannot be estimated yet
+     */
+    public long getRemainingMillis() {
+        long processed = processedBytes.get();
+        long total = totalBytes;
+        if (processed == 0 || total < 0) {
+            return -1;
+        }
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+        return Math.max(total - processed, 0) * elapsedMillis / processed;
+    }
+}
@@ -0,0 +1,378 @@
+package com.example.numbersequenceprocessing.service.analysis;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tracks the longest runs of strictly increasing or strictly decreasing consecutive numbers.
+ * <p>
+ * All the values are kept in a single primitive buffer: the runs tied for the longest length one after
+ * another, followed by the current run. A run is described only by its length, so an ending run shorter
+ * than the longest ones is dropped by truncating the buffer, and no objects are allocated per run.
+ * The memory is bounded by the total length of the longest runs and the current run.
+ * <p>
+ * The run at the beginning of the numbers is remembered as well, so that trackers of adjacent parts
+ * of a file can be {@link #merge merged}: a run crossing the border of the parts is made of
+ * the trailing run of the first part and the leading run of the second one.
+ */
+public class SequenceRunTracker implements IntBatchConsumer {
+    private final boolean increasing;
+
+    /**
+     * Values of the longest runs, followed by the values of the current run
+     */
+    private IntArrayList runs = new IntArrayList();
+    private int longestRunSize;
+    private int longestRunCount;
+    private int currentRunSize;
+
+    private long count;
+    private int firstNumber;
+    private int previousNumber;
+
+    /**
+     * Leading run, known once it is interrupted. Until then all the numbers belong to the current run.
+     */
+    private int[] leadingRun;
+
+    /**
+     * Positions of the batch passed to {@link #acceptAll}, where the current run continues
+     */
+    private long[] continuations;
+
+    public SequenceRunTracker(boolean increasing) {
+        this.increasing = increasing;
+    }
+
+    @Override
+    public void accept(int number) {
+        if (count == 0) {
+            firstNumber = number;
+        } else if (continues(previousNumber, number)) {
+            if (currentRunSize == 0) {
+                runs.add(previousNumber);
+                currentRunSize = 1;
+            }
+            runs.add(number);
+            currentRunSize++;
+        } else {
+            closeLeadingRun();
+            finishRun();
+        }
+
+        previousNumber = number;
+        count++;
+    }
+
+    /**
+     * Accepts the numbers like {@link #accept(int)} for each of them. The positions where the runs continue are
+     * found with {@link IntKernels}, and the numbers of every run are copied to the buffer at once.
+     *
+     * @param numbers array holding the numbers
+     * @param from    index of the first number
+     * @param to      index following the last number
+     */
+    @Override
+    public void acceptAll(int[] numbers, int from, int to) {
+        if (from == to) {
+            return;
+        }
+        accept(numbers[from]);
+
+        int size = to - from;
+        if (continuations == null || continuations.length < IntKernels.maskLength(size)) {
+            continuations = new long[IntKernels.maskLength(size)];
+        }
+        IntKernels.get().markContinuations(numbers, from, to, increasing, continuations);
+
+        int position = 1;
+        while (position < size) {
+            if ((continuations[position >>> 6] & 1L << position) != 0) {
+                int end = nextBit(continuations, position, size, false);
+                if (currentRunSize == 0) {
+                    runs.add(numbers[from + position - 1]);
+                    currentRunSize = 1;
+                }
+                runs.addAll(numbers, from + position, from + end);
+                currentRunSize += end - position;
+                position = end;
+            } else {
+                closeLeadingRun();
+                finishRun();
+                position = nextBit(continuations, position, size, true);
+            }
+        }
+
+        previousNumber = numbers[to - 1];
+        count += size - 1;
+    }
+
+    /**
+     * Appends the results of a tracker, which processed the numbers immediately following the numbers of this one
+     *
+     * @param next tracker of the following part of the file
+     */
+    public void merge(SequenceRunTracker next) {
+        if (next.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            copyFrom(next);
+            return;
+        }
+
+        boolean leadingRunOpen = leadingRun == null;
+        boolean nextLeadingRunOpen = next.leadingRun == null;
+
+        if (continues(previousNumber, next.firstNumber)) {
+            if (currentRunSize == 0) {
+                runs.add(previousNumber);
+                currentRunSize = 1;
+            }
+            int[] nextLeadingRun = next.leadingRun();
+            runs.addAll(nextLeadingRun, 0, nextLeadingRun.length);
+            currentRunSize += nextLeadingRun.length;
+
+            if (leadingRunOpen && !nextLeadingRunOpen) {
+                leadingRun = runs.toArray(runs.size() - currentRunSize, runs.size());
+            }
+            if (!nextLeadingRunOpen) {
+                finishRun();
+                addRuns(next);
+                appendCurrentRun(next);
+            }
+        } else {
+            closeLeadingRun();
+            finishRun();
+            addRuns(next);
+            appendCurrentRun(next);
+        }
+
+        previousNumber = next.previousNumber;
+        count += next.count;
+    }
+
+    /**
+     * @return longest runs in the order they appear in the file, empty if no run was found
+     */
+    public List<List<Integer>> getLongestRuns() {
+        finishRun();
+        List<List<Integer>> result = new ArrayList<>(longestRunCount);
+        for (int run = 0; run < longestRunCount; run++) {
+            List<Integer> values = new ArrayList<>(longestRunSize);
+            for (int i = run * longestRunSize; i < (run + 1) * longestRunSize; i++) {
+                values.add(runs.get(i));
+            }
+            result.add(values);
+        }
+        return result;
+    }
+
+    /**
+     * @return total amount of numbers of the longest runs
+     */
+    public long getLongestRunsSize() {
+        finishRun();
+        return (long) longestRunCount * longestRunSize;
+    }
+
+    /**
+     * Passes the longest runs to the writer one by one, straight from the buffer of the tracker,
+     * without creating a list of all of them
+     *
+     * @param writer receives the runs in the order they appear in the file
+     * @return amount of the written runs, 0 if no run was found
+     * @throws IOException if the writer fails
+     */
+    public int writeLongestRuns(RunWriter writer) throws IOException {
+        finishRun();
+        for (int run = 0; run < longestRunCount; run++) {
+            writer.write(runs.array(), run * longestRunSize, (run + 1) * longestRunSize);
+        }
+        return longestRunCount;
+    }
+
+    /**
+     * Writes the state of the tracker, so that it can be restored with {@link #readFrom(DataInput)}
+     * and continued with the following numbers
+     *
+     * @param out destination of the state
+     * @throws IOException if the state cannot be written
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeBoolean(increasing);
+        out.writeLong(count);
+        out.writeInt(firstNumber);
+        out.writeInt(previousNumber);
+        out.writeInt(longestRunSize);
+        out.writeInt(longestRunCount);
+        out.writeInt(currentRunSize);
+        writeValues(out, runs.array(), runs.size());
+        out.writeBoolean(leadingRun != null);
+        if (leadingRun != null) {
+            writeValues(out, leadingRun, leadingRun.length);
+        }
+    }
+
+    /**
+     * Restores the state written with {@link #writeTo(DataOutput)}, replacing the state of this tracker
+     *
+     * @param in source of the state
+     * @throws IOException if the state cannot be read or was written by a tracker of the other direction
+     */
+    public void readFrom(DataInput in) throws IOException {
+        if (in.readBoolean() != increasing) {
+            throw new StreamCorruptedException("State of the runs of the other direction");
+        }
+        count = in.readLong();
+        firstNumber = in.readInt();
+        previousNumber = in.readInt();
+        longestRunSize = in.readInt();
+        longestRunCount = in.readInt();
+        currentRunSize = in.readInt();
+        int[] values = readValues(in);
+        runs = new IntArrayList(values.length);
+        runs.addAll(values, 0, values.length);
+        leadingRun = in.readBoolean() ? readValues(in) : null;
+    }
+
+    private static void writeValues(DataOutput out, int[] values, int length) throws IOException {
+        out.writeInt(length);
+        for (int i = 0; i < length; i++) {
+            out.writeInt(values[i]);
+        }
+    }
+
+    private static int[] readValues(DataInput in) throws IOException {
+        int[] values = new int[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    private boolean continues(int previous, int number) {
+        return increasing ? previous < number : previous > number;
+    }
+
+    /**
+     * @return leading run, or all the numbers if the leading run is still open
+     */
+    private int[] leadingRun() {
+        if (leadingRun != null) {
+            return leadingRun;
+        }
+        return trailingRun();
+    }
+
+    /**
+     * @return current run, or the last number alone if it does not belong to a run
+     */
+    private int[] trailingRun() {
+        if (currentRunSize > 0) {
+            return runs.toArray(runs.size() - currentRunSize, runs.size());
+        }
+        return new int[]{previousNumber};
+    }
+
+    private void closeLeadingRun() {
+        if (leadingRun == null) {
+            leadingRun = trailingRun();
+        }
+    }
+
+    /**
+     * @param set true to find the next set bit, false to find the next clear one
+     * @return position of the next bit at or after the specified position, or the size if there is none
+     */
+    private static int nextBit(long[] mask, int position, int size, boolean set) {
+        int word = position >>> 6;
+        long bits = (set ? mask[word] : ~mask[word]) & -1L << position;
+        while (bits == 0) {
+            if (++word >= IntKernels.maskLength(size)) {
+                return size;
+            }
+            bits = set ? mask[word] : ~mask[word];
+        }
+        return Math.min(word * Long.SIZE + Long.numberOfTrailingZeros(bits), size);
+    }
+
+    /**
+     * Keeps the current run in the buffer if it is one of the longest runs, otherwise truncates it
+     */
+    private void finishRun() {
+        if (currentRunSize == 0) {
+            return;
+        }
+
+        int currentRunStart = runs.size() - currentRunSize;
+        if (currentRunSize > longestRunSize) {
+            runs.removeRange(0, currentRunStart);
+            longestRunSize = currentRunSize;
+            longestRunCount = 1;
+        } else if (currentRunSize == longestRunSize) {
+            longestRunCount++;
+        } else {
+            runs.removeRange(currentRunStart, runs.size());
+        }
+        currentRunSize = 0;
+    }
+
+    /**
+     * Adds the longest runs of the following tracker, the current run of this one has to be finished
+     */
+    private void addRuns(SequenceRunTracker next) {
+        if (next.longestRunCount == 0 || next.longestRunSize < longestRunSize) {
+            return;
+        }
+        if (next.longestRunSize > longestRunSize) {
+            runs.clear();
+            longestRunSize = next.longestRunSize;
+            longestRunCount = 0;
+        }
+        runs.addAll(next.runs.array(), 0, next.longestRunCount * next.longestRunSize);
+        longestRunCount += next.longestRunCount;
+    }
+
+    private void appendCurrentRun(SequenceRunTracker next) {
+        runs.addAll(next.runs.array(), next.runs.size() - next.currentRunSize, next.runs.size());
+        currentRunSize = next.currentRunSize;
+    }
+
+    private void copyFrom(SequenceRunTracker other) {
+        runs = other.runs;
+        longestRunSize = other.longestRunSize;
+        longestRunCount = other.longestRunCount;
+        currentRunSize = other.currentRunSize;
+        count = other.count;
+        firstNumber = other.firstNumber;
+        previousNumber = other.previousNumber;
+        leadingRun = other.leadingRun;
+    }
+
+    @FunctionalInterface
+    public interface RunWriter {
+        /**
+         * @param values array holding the numbers of the run, valid only during the call
+         * @param from   index of the first number of the run
+         * @param to     index following the last number of the run
+         * @throws IOException if the run cannot be written
+         */
+        void write(int[] values, int from, int to) throws IOException;
+
+        /**
+         * Writes a run that is already boxed, e.g. one taken from the cache
+         *
+         * @param values numbers of the run
+         * @throws IOException if the run cannot be written
+         */
+        default void write(List<Integer> values) throws IOException {
+            int[] array = values.stream().mapToInt(Integer::intValue).toArray();
+            write(array, 0, array.length);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.numbersequenceprocessing.service.analysis;
+
+import com.example.numbersequenceprocessing.data.dto.response.SequenceStatistics;
+
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.IntSummaryStatistics;
+import java.util.NoSuchElementException;
+
+/**
+ * Accumulates every supported statistic from a single traversal of the numbers.
+ * Collectors of adjacent parts of a file can be merged, which allows to traverse the parts in parallel.
+ * The state of a collector can be written and restored later to continue with the numbers appended to the file.
+ */
+public class SequenceStatisticsCollector implements IntBatchConsumer, Closeable {
+    private long count;
+    private long sum;
+    private int min = Integer.MAX_VALUE;
+    private int max = Integer.MIN_VALUE;
+
+    private final SpillableIntBuffer values;
+    private QuantileSketch sketch;
+    private final SequenceRunTracker increasingRuns = new SequenceRunTracker(true);
+    private final SequenceRunTracker decreasingRuns = new SequenceRunTracker(false);
+
+    /**
+     * Creates a collector, which keeps all the numbers for the median on the heap
+     */
+    public SequenceStatisticsCollector() {
+        this(Long.MAX_VALUE);
+    }
+
+    /**
+     * @param medianHeapBudget amount of bytes the numbers kept for the median may take on the heap
+     *                         before being spilled to disk
+     */
+    public SequenceStatisticsCollector(long medianHeapBudget) {
+        this(medianHeapBudget, QuantileSketch.DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    /**
+     * @param medianHeapBudget amount of bytes the numbers kept for the median may take on the heap
+     *                         before being spilled to disk
+     * @param sketchAccuracy   relative accuracy of the quantile sketch
+     */
+    public SequenceStatisticsCollector(long medianHeapBudget, double sketchAccuracy) {
+        this.values = new SpillableIntBuffer(medianHeapBudget);
+        this.sketch = new QuantileSketch(sketchAccuracy);
+    }
+
+    @Override
+    public void accept(int number) {
+        count++;
+        sum += number;
+        min = Math.min(min, number);
+        max = Math.max(max, number);
+
+        values.accept(number);
+        sketch.accept(number);
+        increasingRuns.accept(number);
+        decreasingRuns.accept(number);
+    }
+
+    /**
+     * Accepts the batch like {@link #accept(int)}, the count, sum, minimum, maximum and runs are computed
+     * with {@link IntKernels}
+     */
+    @Override
+    public void acceptAll(int[] numbers, int from, int to) {
+        if (from == to) {
+            return;
+        }
+        IntSummaryStatistics summary = IntKernels.get().summarize(numbers, from, to);
+        count += summary.getCount();
+        sum += summary.getSum();
+        min = Math.min(min, summary.getMin());
+        max = Math.max(max, summary.getMax());
+
+        values.acceptAll(numbers, from, to);
+        for (int i = from; i < to; i++) {
+            sketch.accept(numbers[i]);
+        }
+        increasingRuns.acceptAll(numbers, from, to);
+        decreasingRuns.acceptAll(numbers, from, to);
+    }
+
+    /**
+     * Appends the statistics of the numbers immediately following the numbers of this collector.
+     * The heap budget of the median stays the same, the numbers of the next collector which do not fit are spilled.
+     *
+     * @param next collector of the following part of the file
+     */
+    public void merge(SequenceStatisticsCollector next) {
+        values.addAll(next.values);
+        mergeSummary(next);
+    }
+
+    /**
+     * Appends the statistics like {@link #merge(SequenceStatisticsCollector)} and takes over the heap budget
+     * of the median of the next collector, which split one budget with this one, e.g. as a chunk of a file
+     *
+     * @param next collector of the following chunk of the file
+     */
+    public void mergeChunk(SequenceStatisticsCollector next) {
+        values.addAllWithBudget(next.values);
+        mergeSummary(next);
+    }
+
+    /**
+     * Writes the state of the collector, so that it can be restored with {@link #readFrom(DataInput, long)}.
+     * Has to be called before {@link #toStatistics()}, which finishes the runs and reorders the numbers.
+     *
+     * @param out destination of the state
+     * @throws IOException if the state cannot be written
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        writeSummaryTo(out);
+        values.writeTo(out, 0);
+    }
+
+    /**
+     * Writes the state of the collector except the numbers kept for the median, which are written separately
+     * by {@link #writeValuesTo(DataOutput, long)}. Has to be called before {@link #toStatistics()}.
+     *
+     * @param out destination of the state
+     * @throws IOException if the state cannot be written
+     */
+    public void writeSummaryTo(DataOutput out) throws IOException {
+        out.writeLong(count);
+        out.writeLong(sum);
+        out.writeInt(min);
+        out.writeInt(max);
+        increasingRuns.writeTo(out);
+        decreasingRuns.writeTo(out);
+        sketch.writeTo(out);
+        out.writeLong(values.size());
+    }
+
+    /**
+     * Writes the numbers kept for the median in the order they were collected, skipping the first ones,
+     * so that the numbers collected since the last write can be appended to the numbers written then.
+     * Has to be called before {@link #toStatistics()}.
+     *
+     * @param out  destination of the numbers
+     * @param from amount of the first numbers, which were already written
+     * @throws IOException if the numbers cannot be written
+     */
+    public void writeValuesTo(DataOutput out, long from) throws IOException {
+        values.writeTo(out, from);
+    }
+
+    /**
+     * Restores a collector written with {@link #writeTo(DataOutput)}
+     *
+     * @param in               source of the state
+     * @param medianHeapBudget amount of bytes the numbers kept for the median may take on the heap
+     * @return collector, which continues with the numbers following the numbers of the written one
+     * @throws IOException if the state cannot be read
+     */
+    public static SequenceStatisticsCollector readFrom(DataInput in, long medianHeapBudget) throws IOException {
+        return readFrom(in, in, medianHeapBudget);
+    }
+
+    /**
+     * Restores a collector written with {@link #writeSummaryTo(DataOutput)} and
+     * {@link #writeValuesTo(DataOutput, long)}
+     *
+     * @param summary          source of the state without the numbers
+     * @param values           source of the numbers kept for the median, only the amount of numbers
+     *                         recorded in the state is read
+     * @param medianHeapBudget amount of bytes the numbers kept for the median may take on the heap
+     * @return collector, which continues with the numbers following the numbers of the written one
+     * @throws IOException if the state cannot be read
+     */
+    public static SequenceStatisticsCollector readFrom(DataInput summary, DataInput values, long medianHeapBudget)
+            throws IOException {
+        SequenceStatisticsCollector collector = new SequenceStatisticsCollector(medianHeapBudget);
+        try {
+            collector.count = summary.readLong();
+            collector.sum = summary.readLong();
+            collector.min = summary.readInt();
+            collector.max = summary.readInt();
+            collector.increasingRuns.readFrom(summary);
+            collector.decreasingRuns.readFrom(summary);
+            collector.sketch = QuantileSketch.readFrom(summary);
+            collector.values.readFrom(values, summary.readLong());
+        } catch (IOException | RuntimeException e) {
+            collector.close();
+            throw e;
+        }
+        return collector;
+    }
+
+    /**
+     * @return amount of the numbers kept for the median
+     */
+    public long getValueCount() {
+        return values.size();
+    }
+
+    /**
+     * @return collected statistics
+     * @throws NoSuchElementException if no numbers were collected
+     */
+    public SequenceStatistics toStatistics() {
+        if (count == 0) {
+            throw new NoSuchElementException("File is empty");
+        }
+
+        SequenceStatistics statistics = new SequenceStatistics();
+        statistics.setCount(count);
+        statistics.setMaxValue(max);
+        statistics.setMinValue(min);
+        statistics.setMean((double) sum / count);
+        statistics.setMedian(values.median());
+        statistics.setIncreasingSequences(increasingRuns.getLongestRuns());
+        statistics.setDecreasingSequences(decreasingRuns.getLongestRuns());
+        statistics.setQuantileSketch(sketch);
+        return statistics;
+    }
+
+    /**
+     * Deletes the numbers spilled to disk for the median
+     */
+    @Override
+    public void close() {
+        values.close();
+    }
+
+    private void mergeSummary(SequenceStatisticsCollector next) {
+        count += next.count;
+        sum += next.sum;
+        min = Math.min(min, next.min);
+        max = Math.max(max, next.max);
+
+        sketch.merge(next.sketch);
+        increasingRuns.merge(next.increasingRuns);
+        decreasingRuns.merge(next.decreasingRuns);
+    }
+}
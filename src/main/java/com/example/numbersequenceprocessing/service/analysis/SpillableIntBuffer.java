@@ -0,0 +1,331 @@
+package com.example.numbersequenceprocessing.service.analysis;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+/**
+ * Keeps the numbers required for the median. Numbers are stored in a primitive array until
+ * the heap budget is exhausted, the rest are spilled to a temporary file, which is deleted on {@link #close()}.
+ * Once the buffer has spilled, all the following numbers are appended to the file, so that the numbers keep
+ * the order they were added in: the ones on the heap first, then the spilled ones.
+ */
+@Slf4j
+public class SpillableIntBuffer implements IntBatchConsumer, Closeable {
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+    private static final int SPILL_BUFFER_SIZE = 1024 * 1024;
+    private static final int BUCKETS = 1 << 16;
+
+    private final IntArrayList heap = new IntArrayList(1024);
+    private long heapLimit;
+
+    private FileChannel spill;
+    private ByteBuffer spillBuffer;
+    private long spilledCount;
+
+    /**
+     * Creates a buffer, which keeps all the numbers on the heap
+     */
+    public SpillableIntBuffer() {
+        this(Long.MAX_VALUE);
+    }
+
+    /**
+     * @param heapBudget amount of bytes the numbers may take on the heap before being spilled to disk
+     */
+    public SpillableIntBuffer(long heapBudget) {
+        this.heapLimit = Math.min(heapBudget / Integer.BYTES, MAX_ARRAY_SIZE);
+    }
+
+    @Override
+    public void accept(int number) {
+        if (spill == null && heap.size() < heapLimit) {
+            heap.add(number);
+            return;
+        }
+
+        try {
+            if (spill == null) {
+                openSpill();
+            }
+            if (!spillBuffer.hasRemaining()) {
+                flushSpill();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        spillBuffer.putInt(number);
+        spilledCount++;
+    }
+
+    @Override
+    public void acceptAll(int[] numbers, int from, int to) {
+        if (spill == null && heap.size() + (long) (to - from) <= heapLimit) {
+            heap.addAll(numbers, from, to);
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            accept(numbers[i]);
+        }
+    }
+
+    public long size() {
+        return heap.size() + spilledCount;
+    }
+
+    /**
+     * Moves the numbers of the other buffer to this one, after its own numbers. The heap budget stays the same:
+     * the numbers which do not fit are spilled.
+     *
+     * @param other buffer to take the numbers from, becomes empty
+     */
+    public void addAll(SpillableIntBuffer other) {
+        acceptAll(other.heap.array(), 0, other.heap.size());
+
+        if (other.spilledCount > 0) {
+            try {
+                if (spill == null) {
+                    openSpill();
+                }
+                flushSpill();
+                other.flushSpill();
+                long offset = spill.size();
+                long size = other.spill.size();
+                long transferred = 0;
+                other.spill.position(0);
+                while (transferred < size) {
+                    transferred += spill.transferFrom(other.spill, offset + transferred, size - transferred);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            spilledCount += other.spilledCount;
+        }
+        other.close();
+    }
+
+    /**
+     * Moves the numbers of the other buffer to this one like {@link #addAll(SpillableIntBuffer)}, and takes over
+     * the heap budget of the other buffer as well. Meant for buffers splitting one budget between them,
+     * e.g. the buffers of the chunks of a file scanned in parallel.
+     *
+     * @param other buffer to take the numbers and the heap budget from, becomes empty
+     */
+    public void addAllWithBudget(SpillableIntBuffer other) {
+        heapLimit = Math.min(heapLimit + other.heapLimit, MAX_ARRAY_SIZE);
+        addAll(other);
+    }
+
+    /**
+     * Writes the numbers, so that they can be restored with {@link #readFrom(DataInput)}
+     *
+     * @param out destination of the numbers
+     * @throws IOException if the numbers cannot be written
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeLong(size());
+        writeTo(out, 0);
+    }
+
+    /**
+     * Writes the numbers following the first ones in the order they were added, without their count,
+     * e.g. to append the numbers added since the last write to the numbers written then
+     *
+     * @param out  destination of the numbers
+     * @param from amount of the first numbers to skip
+     * @throws IOException if the numbers cannot be written
+     */
+    public void writeTo(DataOutput out, long from) throws IOException {
+        try {
+            forEach(number -> {
+                try {
+                    out.writeInt(number);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, from);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Adds the numbers written with {@link #writeTo(DataOutput)}
+     *
+     * @param in source of the numbers
+     * @throws IOException if the numbers cannot be read
+     */
+    public void readFrom(DataInput in) throws IOException {
+        readFrom(in, in.readLong());
+    }
+
+    /**
+     * Adds the numbers written with {@link #writeTo(DataOutput, long)}
+     *
+     * @param in    source of the numbers
+     * @param count amount of numbers to read
+     * @throws IOException if the numbers cannot be read
+     */
+    public void readFrom(DataInput in, long count) throws IOException {
+        try {
+            for (long i = 0; i < count; i++) {
+                accept(in.readInt());
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Finds the median in linear time. Numbers kept on the heap are selected in place with {@link IntSelection},
+     * if some of them were spilled, the median is found with a radix selection over two sequential passes.
+     * The order of the numbers is not preserved.
+     *
+     * @return median of the numbers
+     * @throws NoSuchElementException if the buffer is empty
+     */
+    public double median() {
+        long size = size();
+        if (size == 0) {
+            throw new NoSuchElementException("File is empty");
+        }
+
+        if (spilledCount == 0) {
+            int[] values = heap.array();
+            int upper = IntSelection.select(values, heap.size(), (int) (size / 2));
+            return size % 2 == 1 ?
+                    upper :
+                    ((double) IntSelection.max(values, (int) (size / 2)) + upper) / 2;
+        }
+
+        int[] middle = radixSelect((size - 1) / 2, size / 2);
+        return ((double) middle[0] + middle[1]) / 2;
+    }
+
+    @Override
+    public void close() {
+        heap.clear();
+        if (spill != null) {
+            try {
+                spill.close();
+            } catch (IOException e) {
+                log.warn("Failed to delete the spill file: {}", e.getMessage());
+            }
+            spill = null;
+            spillBuffer = null;
+            spilledCount = 0;
+        }
+    }
+
+    /**
+     * Finds two numbers by their ranks: the first pass counts the numbers by their upper 16 bits,
+     * the second one counts the numbers falling into the buckets of the ranks by their lower 16 bits.
+     */
+    private int[] radixSelect(long lowerRank, long upperRank) {
+        long[] upperCounts = new long[BUCKETS];
+        forEach(number -> upperCounts[(number ^ Integer.MIN_VALUE) >>> 16]++);
+
+        long[] lowerBucket = findBucket(upperCounts, lowerRank);
+        long[] upperBucket = findBucket(upperCounts, upperRank);
+        int lowerPrefix = (int) lowerBucket[0];
+        int upperPrefix = (int) upperBucket[0];
+
+        long[] lowerCounts = new long[BUCKETS];
+        long[] upperCountsInBucket = lowerPrefix == upperPrefix ? lowerCounts : new long[BUCKETS];
+        forEach(number -> {
+            int unsigned = number ^ Integer.MIN_VALUE;
+            int prefix = unsigned >>> 16;
+            if (prefix == lowerPrefix) {
+                lowerCounts[unsigned & 0xFFFF]++;
+            } else if (prefix == upperPrefix) {
+                upperCountsInBucket[unsigned & 0xFFFF]++;
+            }
+        });
+
+        int lowerSuffix = (int) findBucket(lowerCounts, lowerBucket[1])[0];
+        int upperSuffix = (int) findBucket(upperCountsInBucket, upperBucket[1])[0];
+        return new int[]{
+                ((lowerPrefix << 16) | lowerSuffix) ^ Integer.MIN_VALUE,
+                ((upperPrefix << 16) | upperSuffix) ^ Integer.MIN_VALUE
+        };
+    }
+
+    /**
+     * @return index of the bucket containing the number with the specified rank and the rank within the bucket
+     */
+    private static long[] findBucket(long[] counts, long rank) {
+        long remaining = rank;
+        for (int i = 0; i < counts.length; i++) {
+            if (remaining < counts[i]) {
+                return new long[]{i, remaining};
+            }
+            remaining -= counts[i];
+        }
+        throw new IllegalStateException("Rank " + rank + " is out of bounds");
+    }
+
+    private void forEach(IntConsumer consumer) {
+        forEach(consumer, 0);
+    }
+
+    /**
+     * Passes the numbers in the order they were added, skipping the first ones without reading them
+     */
+    private void forEach(IntConsumer consumer, long from) {
+        for (int i = (int) Math.min(from, heap.size()); i < heap.size(); i++) {
+            consumer.accept(heap.get(i));
+        }
+        if (spill == null) {
+            return;
+        }
+
+        try {
+            flushSpill();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(SPILL_BUFFER_SIZE).order(ByteOrder.nativeOrder());
+            long position = Math.max(from - heap.size(), 0) * Integer.BYTES;
+            long size = spill.size();
+            while (position < size) {
+                int read = spill.read(buffer, position);
+                if (read <= 0) {
+                    throw new IOException("Spill file is shorter than expected");
+                }
+                position += read;
+                buffer.flip();
+                while (buffer.remaining() >= Integer.BYTES) {
+                    consumer.accept(buffer.getInt());
+                }
+                buffer.compact();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void openSpill() throws IOException {
+        spill = FileChannel.open(Files.createTempFile("numbers-", ".spill"),
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+        spillBuffer = ByteBuffer.allocateDirect(SPILL_BUFFER_SIZE).order(ByteOrder.nativeOrder());
+    }
+
+    private void flushSpill() throws IOException {
+        if (spill == null) {
+            return;
+        }
+        spillBuffer.flip();
+        while (spillBuffer.hasRemaining()) {
+            spill.write(spillBuffer, spill.size());
+        }
+        spillBuffer.clear();
+    }
+}
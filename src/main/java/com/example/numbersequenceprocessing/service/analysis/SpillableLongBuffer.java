@@ -0,0 +1,215 @@
+package com.example.numbersequenceprocessing.service.analysis;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+import java.util.function.LongConsumer;
+
+/**
+ * Keeps the numbers required for the median of 64-bit numbers, the counterpart of {@link SpillableIntBuffer}.
+ * Numbers are stored in a primitive array until the heap budget is exhausted, the rest are spilled
+ * to a temporary file, which is deleted on {@link #close()}.
+ */
+@Slf4j
+public class SpillableLongBuffer implements LongConsumer, Closeable {
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+    private static final int SPILL_BUFFER_SIZE = 1024 * 1024;
+    private static final int DIGIT_BITS = 16;
+    private static final int BUCKETS = 1 << DIGIT_BITS;
+
+    private final LongArrayList heap = new LongArrayList(1024);
+    private final long heapLimit;
+
+    private FileChannel spill;
+    private ByteBuffer spillBuffer;
+    private long spilledCount;
+
+    /**
+     * Creates a buffer, which keeps all the numbers on the heap
+     */
+    public SpillableLongBuffer() {
+        this(Long.MAX_VALUE);
+    }
+
+    /**
+     * @param heapBudget amount of bytes the numbers may take on the heap before being spilled to disk
+     */
+    public SpillableLongBuffer(long heapBudget) {
+        this.heapLimit = Math.min(heapBudget / Long.BYTES, MAX_ARRAY_SIZE);
+    }
+
+    @Override
+    public void accept(long number) {
+        if (heap.size() < heapLimit) {
+            heap.add(number);
+            return;
+        }
+
+        try {
+            if (spill == null) {
+                openSpill();
+            }
+            if (!spillBuffer.hasRemaining()) {
+                flushSpill();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        spillBuffer.putLong(number);
+        spilledCount++;
+    }
+
+    public long size() {
+        return heap.size() + spilledCount;
+    }
+
+    /**
+     * Finds the median in linear time. Numbers kept on the heap are selected in place with {@link LongSelection},
+     * if some of them were spilled, the median is found with a radix selection over four sequential passes.
+     * The order of the numbers is not preserved.
+     *
+     * @return exact median of the numbers, the mean of the two middle numbers of an even amount
+     * @throws NoSuchElementException if the buffer is empty
+     */
+    public BigDecimal median() {
+        long size = size();
+        if (size == 0) {
+            throw new NoSuchElementException("File is empty");
+        }
+
+        long lower;
+        long upper;
+        if (spilledCount == 0) {
+            long[] values = heap.array();
+            upper = LongSelection.select(values, heap.size(), (int) (size / 2));
+            lower = size % 2 == 1 ? upper : LongSelection.max(values, (int) (size / 2));
+        } else {
+            long[] middle = radixSelect((size - 1) / 2, size / 2);
+            lower = middle[0];
+            upper = middle[1];
+        }
+        return lower == upper ?
+                BigDecimal.valueOf(upper) :
+                BigDecimal.valueOf(lower).add(BigDecimal.valueOf(upper)).divide(BigDecimal.valueOf(2));
+    }
+
+    @Override
+    public void close() {
+        heap.clear();
+        if (spill != null) {
+            try {
+                spill.close();
+            } catch (IOException e) {
+                log.warn("Failed to delete the spill file: {}", e.getMessage());
+            }
+            spill = null;
+            spillBuffer = null;
+            spilledCount = 0;
+        }
+    }
+
+    /**
+     * Finds two numbers by their ranks, narrowing down the prefix of each of them by 16 bits per pass:
+     * every pass counts the numbers sharing the prefix found so far by their next 16 bits.
+     */
+    private long[] radixSelect(long lowerRank, long upperRank) {
+        long[] prefixes = new long[2];
+        long[] ranks = {lowerRank, upperRank};
+
+        for (int shift = Long.SIZE - DIGIT_BITS; shift >= 0; shift -= DIGIT_BITS) {
+            int digitShift = shift;
+            long lowerPrefix = prefixes[0];
+            long upperPrefix = prefixes[1];
+            long[] lowerCounts = new long[BUCKETS];
+            long[] upperCounts = lowerPrefix == upperPrefix ? lowerCounts : new long[BUCKETS];
+            forEach(number -> {
+                long unsigned = number ^ Long.MIN_VALUE;
+                long prefix = digitShift == Long.SIZE - DIGIT_BITS ? 0 : unsigned >>> (digitShift + DIGIT_BITS);
+                int digit = (int) (unsigned >>> digitShift) & (BUCKETS - 1);
+                if (prefix == lowerPrefix) {
+                    lowerCounts[digit]++;
+                } else if (prefix == upperPrefix) {
+                    upperCounts[digit]++;
+                }
+            });
+
+            long[] lowerBucket = findBucket(lowerCounts, ranks[0]);
+            long[] upperBucket = findBucket(upperCounts, ranks[1]);
+            prefixes[0] = lowerPrefix << DIGIT_BITS | lowerBucket[0];
+            prefixes[1] = upperPrefix << DIGIT_BITS | upperBucket[0];
+            ranks[0] = lowerBucket[1];
+            ranks[1] = upperBucket[1];
+        }
+        return new long[]{prefixes[0] ^ Long.MIN_VALUE, prefixes[1] ^ Long.MIN_VALUE};
+    }
+
+    /**
+     * @return index of the bucket containing the number with the specified rank and the rank within the bucket
+     */
+    private static long[] findBucket(long[] counts, long rank) {
+        long remaining = rank;
+        for (int i = 0; i < counts.length; i++) {
+            if (remaining < counts[i]) {
+                return new long[]{i, remaining};
+            }
+            remaining -= counts[i];
+        }
+        throw new IllegalStateException("Rank " + rank + " is out of bounds");
+    }
+
+    private void forEach(LongConsumer consumer) {
+        for (int i = 0; i < heap.size(); i++) {
+            consumer.accept(heap.get(i));
+        }
+        if (spill == null) {
+            return;
+        }
+
+        try {
+            flushSpill();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(SPILL_BUFFER_SIZE).order(ByteOrder.nativeOrder());
+            long position = 0;
+            long size = spill.size();
+            while (position < size) {
+                int read = spill.read(buffer, position);
+                if (read <= 0) {
+                    throw new IOException("Spill file is shorter than expected");
+                }
+                position += read;
+                buffer.flip();
+                while (buffer.remaining() >= Long.BYTES) {
+                    consumer.accept(buffer.getLong());
+                }
+                buffer.compact();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void openSpill() throws IOException {
+        spill = FileChannel.open(Files.createTempFile("numbers-", ".spill"),
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+        spillBuffer = ByteBuffer.allocateDirect(SPILL_BUFFER_SIZE).order(ByteOrder.nativeOrder());
+    }
+
+    private void flushSpill() throws IOException {
+        if (spill == null) {
+            return;
+        }
+        spillBuffer.flip();
+        while (spillBuffer.hasRemaining()) {
+            spill.write(spillBuffer, spill.size());
+        }
+        spillBuffer.clear();
+    }
+}
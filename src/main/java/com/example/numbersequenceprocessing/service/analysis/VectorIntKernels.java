@@ -0,0 +1,83 @@
+package com.example.numbersequenceprocessing.service.analysis;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+import java.util.IntSummaryStatistics;
+
+/**
+ * {@link IntKernels} on the Vector API, in the widest lanes the CPU supports. Only loaded by {@link IntKernels#get()}
+ * if the {@code jdk.incubator.vector} module is added to the JVM, this class must not be referenced otherwise.
+ * The sum is accumulated in long lanes, so that it does not overflow.
+ */
+class VectorIntKernels extends IntKernels {
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+    VectorIntKernels() {
+        if (INTS.length() < 4) {
+            throw new UnsupportedOperationException("CPU has no SIMD lanes for ints: " + INTS);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "Vector API in " + INTS.vectorBitSize() + "-bit lanes";
+    }
+
+    @Override
+    public IntSummaryStatistics summarize(int[] numbers, int from, int to) {
+        IntVector minimums = IntVector.broadcast(INTS, Integer.MAX_VALUE);
+        IntVector maximums = IntVector.broadcast(INTS, Integer.MIN_VALUE);
+        LongVector sums = LongVector.zero(LONGS);
+
+        int i = from;
+        for (int bound = from + INTS.loopBound(to - from); i < bound; i += INTS.length()) {
+            IntVector numbersVector = IntVector.fromArray(INTS, numbers, i);
+            minimums = minimums.min(numbersVector);
+            maximums = maximums.max(numbersVector);
+            sums = sums.add(numbersVector.convertShape(VectorOperators.I2L, LONGS, 0))
+                    .add(numbersVector.convertShape(VectorOperators.I2L, LONGS, 1));
+        }
+
+        int min = minimums.reduceLanes(VectorOperators.MIN);
+        int max = maximums.reduceLanes(VectorOperators.MAX);
+        long sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < to; i++) {
+            min = Math.min(min, numbers[i]);
+            max = Math.max(max, numbers[i]);
+            sum += numbers[i];
+        }
+        return new IntSummaryStatistics(to - from, min, max, sum);
+    }
+
+    @Override
+    public void markContinuations(int[] numbers, int from, int to, boolean increasing, long[] mask) {
+        int count = to - from;
+        Arrays.fill(mask, 0, maskLength(count), 0);
+        VectorOperators.Comparison comparison = increasing ? VectorOperators.GT : VectorOperators.LT;
+
+        int k = 1;
+        for (int bound = 1 + INTS.loopBound(count - 1); k < bound; k += INTS.length()) {
+            IntVector current = IntVector.fromArray(INTS, numbers, from + k);
+            IntVector previous = IntVector.fromArray(INTS, numbers, from + k - 1);
+            long bits = current.compare(comparison, previous).toLong();
+
+            int word = k >>> 6;
+            int shift = k & (Long.SIZE - 1);
+            mask[word] |= bits << shift;
+            if (shift + INTS.length() > Long.SIZE) {
+                mask[word + 1] |= bits >>> (Long.SIZE - shift);
+            }
+        }
+        for (; k < count; k++) {
+            int i = from + k;
+            if (increasing ? numbers[i] > numbers[i - 1] : numbers[i] < numbers[i - 1]) {
+                mask[k >>> 6] |= 1L << k;
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.numbersequenceprocessing.utils.checksum;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Algorithms of the checksums identifying the content of files in the cache
+ */
+public enum ChecksumAlgorithm {
+    /**
+     * Fast non-cryptographic 128-bit hash
+     */
+    MURMUR3_128("murmur3") {
+        @Override
+        public MessageDigest createDigest() {
+            return new Murmur3Digest();
+        }
+    },
+    /**
+     * Hardware accelerated 32-bit checksum, the fastest, but collisions are likely with many files
+     */
+    CRC32C("crc32c") {
+        @Override
+        public MessageDigest createDigest() {
+            return new Crc32cDigest();
+        }
+    },
+    /**
+     * Cryptographic hash, for files which may be crafted to collide
+     */
+    SHA_256("sha256") {
+        @Override
+        public MessageDigest createDigest() {
+            return getInstance("SHA-256");
+        }
+    },
+    MD5("md5") {
+        @Override
+        public MessageDigest createDigest() {
+            return getInstance("MD5");
+        }
+    };
+
+    private final String prefix;
+
+    ChecksumAlgorithm(String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * @return prefix of the checksums, so that the checksums of different algorithms never match
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public abstract MessageDigest createDigest();
+
+    private static MessageDigest getInstance(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support MD5 and SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
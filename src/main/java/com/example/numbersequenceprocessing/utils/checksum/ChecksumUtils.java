@@ -1,58 +1,142 @@
 package com.example.numbersequenceprocessing.utils.checksum;
 
 import com.example.numbersequenceprocessing.utils.file.FileUtils;
+import com.example.numbersequenceprocessing.utils.metrics.MetricsUtils;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
 import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 @Slf4j
 @Component
 public class ChecksumUtils {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /**
+     * Size of the direct buffer local files are read into, large enough to keep the digest busy between reads
+     */
+    private static final int FILE_BUFFER_SIZE = 1024 * 1024;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
     private final FileUtils fileUtils;
+    private final ChecksumAlgorithm algorithm;
+    private final Timer contentTimer;
+    private final Timer fileKeyTimer;
+    /**
+     * Direct buffers are expensive to allocate, so they are reused by the requests
+     */
+    private final Queue<ByteBuffer> fileBuffers = new ConcurrentLinkedQueue<>();
 
-    public ChecksumUtils(FileUtils fileUtils) {
+    public ChecksumUtils(FileUtils fileUtils, MetricsUtils metricsUtils,
+                         @Value("${numbers.checksum.algorithm:MURMUR3_128}") ChecksumAlgorithm algorithm) {
         this.fileUtils = fileUtils;
+        this.algorithm = algorithm;
+        this.contentTimer = metricsUtils.getChecksumTimer("content");
+        this.fileKeyTimer = metricsUtils.getChecksumTimer("file-key");
     }
 
     /**
-     * Calculating checksum (MD5) for a file located on the specified path
+     * Calculating checksum for a file located on the specified path, over its bytes as they are stored
      * @param filePath path ot file
-     * @return checksum MD5
+     * @return checksum of the configured algorithm
      * @throws IOException if an error occurred while reading the file
      */
     public String getChecksum(String filePath) throws IOException {
-        InputStream stream = fileUtils.readFile(filePath);
-        return calculateChecksum(stream);
+        Timer.Sample sample = Timer.start();
+        try (FileChannel channel = FileChannel.open(fileUtils.getPath(filePath), StandardOpenOption.READ)) {
+            return calculateChecksum(channel);
+        } finally {
+            sample.stop(contentTimer);
+        }
     }
 
     /**
-     * Checksum calculation for a file sent over the network
+     * Checksum calculation for a file sent over the network. A compressed file is decompressed and identified
+     * by the checksum of its content, the same one the files passed by path are cached under, so that a file
+     * gets the same cache key whether it is uploaded or passed by path, compressed or not.
      * @param file file sent via http
-     * @return checksum MD5
+     * @return checksum of the configured algorithm
      * @throws IOException if an error occurred while reading the file
      */
     public String getChecksum(MultipartFile file) throws IOException {
-        InputStream stream = fileUtils.readFile(file);
-        return calculateChecksum(stream);
+        Timer.Sample sample = Timer.start();
+        try (InputStream stream = fileUtils.readFile(file)) {
+            return calculateChecksum(stream);
+        } finally {
+            sample.stop(contentTimer);
+        }
     }
 
-    private String calculateChecksum(InputStream stream) throws IOException {
-        MessageDigest digest;
-
+    /**
+     * Calculates a cheap key for a file located on the specified path from its absolute path, size and
+     * modification time, without reading the file content
+     * @param filePath path to file
+     * @return key, which changes whenever the file is replaced or modified
+     * @throws IOException if the file attributes cannot be read
+     */
+    public String getFileKey(String filePath) throws IOException {
+        Timer.Sample sample = Timer.start();
         try {
-            digest = MessageDigest.getInstance("MD5");
-        } catch (NoSuchAlgorithmException e) {
-            log.info(e.getMessage());
-            return null;
+            return calculateFileKey(filePath);
+        } finally {
+            sample.stop(fileKeyTimer);
         }
+    }
 
-        StringBuilder sb = new StringBuilder();
-        byte[] buffer = new byte[8192];
+    /**
+     * Wraps the stream, so that the checksum is calculated while the data is being read by the consumer
+     * @param stream file data
+     * @return digesting stream, the checksum of which can be obtained with {@link #getChecksum(DigestInputStream)}
+     */
+    public DigestInputStream digestingStream(InputStream stream) {
+        return new DigestInputStream(stream, createDigest());
+    }
+
+    /**
+     * Completes the checksum of the data read through the digesting stream.
+     * The rest of the stream is read first, if the consumer has not reached its end.
+     * @param stream stream created with {@link #digestingStream(InputStream)}
+     * @return checksum of the whole stream
+     * @throws IOException if an error occurred while reading the rest of the stream
+     */
+    public String getChecksum(DigestInputStream stream) throws IOException {
+        Timer.Sample sample = Timer.start();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        while (stream.read(buffer) > 0) {
+            // the digest is updated by the stream itself
+        }
+        String checksum = algorithm.getPrefix() + "-" + toHex(stream.getMessageDigest().digest());
+        sample.stop(contentTimer);
+        return checksum;
+    }
+
+    private String calculateFileKey(String filePath) throws IOException {
+        Path path = new File(filePath).toPath().toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+
+        // the key is hashed with a fixed 128-bit algorithm, a short checksum like CRC32C would make collisions likely
+        MessageDigest digest = ChecksumAlgorithm.MURMUR3_128.createDigest();
+        digest.update((path + "|" + attributes.size() + "|" + attributes.lastModifiedTime().toMillis())
+                .getBytes(StandardCharsets.UTF_8));
+        return "file-" + toHex(digest.digest());
+    }
+
+    private String calculateChecksum(InputStream stream) throws IOException {
+        MessageDigest digest = createDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
 
         do {
             int read = stream.read(buffer);
@@ -61,12 +145,42 @@ public class ChecksumUtils {
             digest.update(buffer, 0, read);
         } while(true);
 
-        byte[] sum = digest.digest();
+        return algorithm.getPrefix() + "-" + toHex(digest.digest());
+    }
+
+    private String calculateChecksum(FileChannel channel) throws IOException {
+        MessageDigest digest = createDigest();
+        ByteBuffer buffer = fileBuffers.poll();
+        if (buffer == null)
+            buffer = ByteBuffer.allocateDirect(FILE_BUFFER_SIZE);
+
+        try {
+            while (true) {
+                buffer.clear();
+                if (channel.read(buffer) < 0)
+                    break;
+                buffer.flip();
+                digest.update(buffer);
+            }
+        } finally {
+            fileBuffers.offer(buffer);
+        }
+
+        return algorithm.getPrefix() + "-" + toHex(digest.digest());
+    }
+
+    private MessageDigest createDigest() {
+        return algorithm.createDigest();
+    }
+
+    private String toHex(byte[] sum) {
+        char[] chars = new char[sum.length * 2];
 
-        for (byte b : sum) {
-            sb.append(Integer.toString((b & 0xff) + 0x100, 16).substring(1));
+        for (int i = 0; i < sum.length; i++) {
+            chars[i * 2] = HEX_DIGITS[(sum[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX_DIGITS[sum[i] & 0xf];
         }
 
-        return sb.toString();
+        return new String(chars);
     }
 }
@@ -0,0 +1,49 @@
+package com.example.numbersequenceprocessing.utils.checksum;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.zip.CRC32C;
+
+/**
+ * CRC32C as a {@link MessageDigest}, computed with the hardware instructions where available.
+ * The 32-bit result is suitable for detecting changes, not for identifying many different files.
+ */
+class Crc32cDigest extends MessageDigest {
+    private final CRC32C crc = new CRC32C();
+
+    Crc32cDigest() {
+        super("CRC32C");
+    }
+
+    @Override
+    protected int engineGetDigestLength() {
+        return Integer.BYTES;
+    }
+
+    @Override
+    protected void engineUpdate(byte input) {
+        crc.update(input);
+    }
+
+    @Override
+    protected void engineUpdate(byte[] input, int offset, int len) {
+        crc.update(input, offset, len);
+    }
+
+    @Override
+    protected void engineUpdate(ByteBuffer input) {
+        crc.update(input);
+    }
+
+    @Override
+    protected byte[] engineDigest() {
+        byte[] result = ByteBuffer.allocate(Integer.BYTES).putInt((int) crc.getValue()).array();
+        crc.reset();
+        return result;
+    }
+
+    @Override
+    protected void engineReset() {
+        crc.reset();
+    }
+}
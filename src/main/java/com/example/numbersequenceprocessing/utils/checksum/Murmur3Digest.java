@@ -0,0 +1,145 @@
+package com.example.numbersequenceprocessing.utils.checksum;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.MessageDigest;
+
+/**
+ * 128-bit MurmurHash3 (x64 variant, seed 0) as a {@link MessageDigest}, so it can be used wherever a digest is,
+ * e.g. in a {@link java.security.DigestInputStream}. The data is consumed in blocks of two longs,
+ * the result matches the reference implementation and Guava's {@code murmur3_128()}.
+ * Not suitable where collision resistance against crafted data is required.
+ */
+class Murmur3Digest extends MessageDigest {
+    private static final int BLOCK_SIZE = 16;
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    /**
+     * Bytes of the incomplete block
+     */
+    private final ByteBuffer tail = ByteBuffer.allocate(BLOCK_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private long h1;
+    private long h2;
+    private long length;
+
+    Murmur3Digest() {
+        super("Murmur3_128");
+    }
+
+    @Override
+    protected int engineGetDigestLength() {
+        return BLOCK_SIZE;
+    }
+
+    @Override
+    protected void engineUpdate(byte input) {
+        tail.put(input);
+        length++;
+        if (!tail.hasRemaining()) {
+            processTail();
+        }
+    }
+
+    @Override
+    protected void engineUpdate(byte[] input, int offset, int len) {
+        engineUpdate(ByteBuffer.wrap(input, offset, len));
+    }
+
+    @Override
+    protected void engineUpdate(ByteBuffer input) {
+        ByteBuffer data = input.slice().order(ByteOrder.LITTLE_ENDIAN);
+        length += data.remaining();
+        input.position(input.limit());
+
+        if (tail.position() > 0) {
+            while (tail.hasRemaining() && data.hasRemaining()) {
+                tail.put(data.get());
+            }
+            if (tail.hasRemaining()) {
+                return;
+            }
+            processTail();
+        }
+        while (data.remaining() >= BLOCK_SIZE) {
+            mix(data.getLong(), data.getLong());
+        }
+        tail.put(data);
+    }
+
+    @Override
+    protected byte[] engineDigest() {
+        long k1 = 0;
+        long k2 = 0;
+        int remaining = tail.position();
+        for (int i = remaining - 1; i >= 8; i--) {
+            k2 ^= (tail.get(i) & 0xffL) << ((i - 8) * 8);
+        }
+        for (int i = Math.min(remaining, 8) - 1; i >= 0; i--) {
+            k1 ^= (tail.get(i) & 0xffL) << (i * 8);
+        }
+        if (remaining > 8) {
+            h2 ^= mixK2(k2);
+        }
+        if (remaining > 0) {
+            h1 ^= mixK1(k1);
+        }
+
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+
+        byte[] result = ByteBuffer.allocate(BLOCK_SIZE).order(ByteOrder.LITTLE_ENDIAN)
+                .putLong(h1).putLong(h2).array();
+        engineReset();
+        return result;
+    }
+
+    @Override
+    protected void engineReset() {
+        tail.clear();
+        h1 = 0;
+        h2 = 0;
+        length = 0;
+    }
+
+    private void processTail() {
+        tail.flip();
+        mix(tail.getLong(), tail.getLong());
+        tail.clear();
+    }
+
+    private void mix(long k1, long k2) {
+        h1 ^= mixK1(k1);
+        h1 = Long.rotateLeft(h1, 27);
+        h1 += h2;
+        h1 = h1 * 5 + 0x52dce729;
+
+        h2 ^= mixK2(k2);
+        h2 = Long.rotateLeft(h2, 31);
+        h2 += h1;
+        h2 = h2 * 5 + 0x38495ab5;
+    }
+
+    private static long mixK1(long k1) {
+        return Long.rotateLeft(k1 * C1, 31) * C2;
+    }
+
+    private static long mixK2(long k2) {
+        return Long.rotateLeft(k2 * C2, 33) * C1;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
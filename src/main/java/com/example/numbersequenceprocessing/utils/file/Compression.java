@@ -0,0 +1,77 @@
+package com.example.numbersequenceprocessing.utils.file;
+
+import com.github.luben.zstd.RecyclingBufferPool;
+import com.github.luben.zstd.ZstdInputStreamNoFinalizer;
+import org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Compression formats of the files, which are decompressed on the fly while the numbers are parsed.
+ * A format is recognized by the magic bytes at the beginning of the file, none of which is a character
+ * of a text file with numbers, so a text file is never taken for a compressed one.
+ */
+public enum Compression {
+    GZIP(new byte[]{0x1f, (byte) 0x8b}) {
+        @Override
+        public InputStream decompress(InputStream stream, int bufferSize) throws IOException {
+            return new GZIPInputStream(stream, bufferSize);
+        }
+    },
+    /**
+     * The buffers of the native decompressor are taken from a pool shared by all streams
+     * instead of being allocated for every stream
+     */
+    ZSTD(new byte[]{0x28, (byte) 0xb5, 0x2f, (byte) 0xfd}) {
+        @Override
+        public InputStream decompress(InputStream stream, int bufferSize) throws IOException {
+            return new ZstdInputStreamNoFinalizer(stream, RecyclingBufferPool.INSTANCE);
+        }
+    },
+    LZ4(new byte[]{0x04, 0x22, 0x4d, 0x18}) {
+        @Override
+        public InputStream decompress(InputStream stream, int bufferSize) throws IOException {
+            return new FramedLZ4CompressorInputStream(stream, true);
+        }
+    };
+
+    /**
+     * Length of the longest magic bytes, enough to recognize any format
+     */
+    public static final int MAGIC_LENGTH = 4;
+
+    private final byte[] magic;
+
+    Compression(byte[] magic) {
+        this.magic = magic;
+    }
+
+    /**
+     * @param header first bytes of the file
+     * @param length amount of the bytes read, may be less than {@link #MAGIC_LENGTH} for a short file
+     * @return compression format the file starts with, empty for an uncompressed file
+     */
+    public static Optional<Compression> detect(byte[] header, int length) {
+        return Arrays.stream(values())
+                .filter(compression -> length >= compression.magic.length
+                        && Arrays.equals(header, 0, compression.magic.length, compression.magic, 0,
+                        compression.magic.length))
+                .findFirst();
+    }
+
+    /**
+     * Wraps the stream of the compressed data, every compressed frame or member of the data is decompressed
+     *
+     * @param stream     compressed data, starting with the magic bytes of the format
+     * @param bufferSize size of the buffer the compressed data is read into, used by {@link #GZIP} only,
+     *                   {@link #ZSTD} takes its buffers from a shared pool and {@link #LZ4} sizes its buffer
+     *                   by the block size declared in the frame
+     * @return stream of the decompressed data
+     * @throws IOException if the header of the compressed data cannot be read
+     */
+    public abstract InputStream decompress(InputStream stream, int bufferSize) throws IOException;
+}
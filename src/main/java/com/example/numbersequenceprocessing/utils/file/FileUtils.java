@@ -1,30 +1,93 @@
 package com.example.numbersequenceprocessing.utils.file;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.*;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
 
 @Component
 public class FileUtils {
+    private final int bufferSize;
+
+    /**
+     * @param bufferSize size of the buffer compressed files are read into
+     */
+    public FileUtils(@Value("${numbers.compression.buffer-size}") DataSize bufferSize) {
+        this.bufferSize = (int) bufferSize.toBytes();
+    }
+
     /**
-     * Reads a file located on the disk at the specified path
+     * Reads a file located on the disk at the specified path, decompressing it on the fly if it is compressed
      * @param filePath path to local file
-     * @return input stream
+     * @return input stream of the decompressed data
      * @throws IOException if something goes wrong while reading a file
      */
     public InputStream readFile(String filePath) throws IOException {
-        return Files.newInputStream(new File(filePath).toPath());
+        return readFile(getPath(filePath));
+    }
+
+    /**
+     * Reads a file located on the disk, decompressing it on the fly if it is compressed
+     * @param file path to local file
+     * @return input stream of the decompressed data
+     * @throws IOException if something goes wrong while reading a file
+     */
+    public InputStream readFile(Path file) throws IOException {
+        return decompress(Files.newInputStream(file));
+    }
+
+    /**
+     * Resolves the path to a file located on the disk
+     * @param filePath path to local file
+     * @return path
+     */
+    public Path getPath(String filePath) {
+        return new File(filePath).toPath();
     }
 
     /**
-     * Reads a file transferred from the network
+     * Reads a file transferred from the network, decompressing it on the fly if it is compressed
      * @param file {@link MultipartFile}
-     * @return input stream
+     * @return input stream of the decompressed data
      * @throws IOException if something goes wrong while reading a file
      */
     public InputStream readFile(MultipartFile file) throws IOException {
-        return file.getInputStream();
+        return decompress(file.getInputStream());
+    }
+
+    /**
+     * Recognizes the {@link Compression} of the data by its magic bytes and decompresses it on the fly
+     * @param stream data, which may be compressed
+     * @return the data, decompressed if it is compressed
+     * @throws IOException if the beginning of the data cannot be read
+     */
+    public InputStream decompress(InputStream stream) throws IOException {
+        PushbackInputStream input = new PushbackInputStream(stream, Compression.MAGIC_LENGTH);
+        byte[] header = new byte[Compression.MAGIC_LENGTH];
+        int length = input.readNBytes(header, 0, header.length);
+        input.unread(header, 0, length);
+
+        Optional<Compression> compression = Compression.detect(header, length);
+        return compression.isPresent() ? compression.get().decompress(input, bufferSize) : input;
+    }
+
+    /**
+     * @param file path to local file
+     * @return true if the file is compressed, so it can only be read sequentially through {@link #readFile(Path)}
+     * @throws IOException if the file cannot be read
+     */
+    public boolean isCompressed(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        try (InputStream stream = Files.newInputStream(file)) {
+            byte[] header = new byte[Compression.MAGIC_LENGTH];
+            return Compression.detect(header, stream.readNBytes(header, 0, header.length)).isPresent();
+        }
     }
 }
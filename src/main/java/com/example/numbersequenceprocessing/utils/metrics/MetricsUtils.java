@@ -0,0 +1,67 @@
+package com.example.numbersequenceprocessing.utils.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Meters of the file processing. All tags take a few fixed values, the meters are looked up
+ * once per request, never per number.
+ */
+@Component
+public class MetricsUtils {
+    public static final String MODE_SEQUENTIAL = "sequential";
+    public static final String MODE_PARALLEL = "parallel";
+    public static final String MODE_INDEX = "index";
+    public static final String MODE_INCREMENTAL = "incremental";
+    public static final String MODE_COLUMN = "column";
+
+    private final MeterRegistry registry;
+
+    public MetricsUtils(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * @param operation name of the operation or of the result holding the results of all operations
+     * @param mode      how the file was processed, one of the MODE constants
+     * @return timer of the computations of the operation, which were not answered from the cache
+     */
+    public Timer getOperationTimer(String operation, String mode) {
+        return Timer.builder("numbers.operation")
+                .description("Time of computing the result of an operation, without the cached results")
+                .tag("operation", operation)
+                .tag("mode", mode)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * @param kind "content" for the checksum of the file content, "file-key" for the key calculated
+     *             from the file attributes
+     * @return timer of the checksum calculations, apart from the digest updated while the file is parsed
+     */
+    public Timer getChecksumTimer(String kind) {
+        return Timer.builder("numbers.checksum")
+                .description("Time of calculating the checksums of files")
+                .tag("kind", kind)
+                .register(registry);
+    }
+
+    /**
+     * @param source how the file was transferred, "multipart" or "stream"
+     * @param bytes  size of the file
+     */
+    public void recordUpload(String source, long bytes) {
+        DistributionSummary.builder("numbers.upload.size")
+                .description("Size of the files transferred in requests")
+                .baseUnit("bytes")
+                .tag("source", source)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1024.0)
+                .maximumExpectedValue((double) (1L << 30))
+                .register(registry)
+                .record(bytes);
+    }
+}
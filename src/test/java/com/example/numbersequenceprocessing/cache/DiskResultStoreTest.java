@@ -0,0 +1,125 @@
+package com.example.numbersequenceprocessing.cache;
+
+import com.example.numbersequenceprocessing.data.enums.OperationType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class DiskResultStoreTest {
+    private static final List<List<Integer>> SEQUENCES = List.of(List.of(1, 2, 3, 4, 5, 6, 7, 8));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsStoredResultAfterRestart() throws IOException {
+        store(DataSize.ofKilobytes(64)).put(key("a"), SEQUENCES);
+
+        assertEquals(SEQUENCES, store(DataSize.ofKilobytes(64)).get(key("a")));
+    }
+
+    @Test
+    void deletesLeastRecentlyUsedResultsAboveMaximumSize() throws IOException {
+        long resultSize = measureResultSize();
+        DiskResultStore store = store(DataSize.ofBytes(resultSize * 2));
+
+        store.put(key("a"), SEQUENCES);
+        store.put(key("b"), SEQUENCES);
+        assertNotNull(store.get(key("a")));
+        store.put(key("c"), SEQUENCES);
+
+        assertNotNull(store.get(key("a")));
+        assertNull(store.get(key("b")));
+        assertNotNull(store.get(key("c")));
+        assertEquals(2, countResults());
+    }
+
+    @Test
+    void deletesResultsAboveMaximumSizeOnStartup() throws IOException {
+        long resultSize = measureResultSize();
+        DiskResultStore store = store(DataSize.ofBytes(resultSize * 3));
+        store.put(key("a"), SEQUENCES);
+        store.put(key("b"), SEQUENCES);
+        store.put(key("c"), SEQUENCES);
+
+        store(DataSize.ofBytes(resultSize));
+
+        assertEquals(1, countResults());
+    }
+
+    @Test
+    void warmsUpMostRecentResultsFirst() throws IOException {
+        DiskResultStore store = store(DataSize.ofKilobytes(64));
+        store.put(key("a"), 1);
+        store.put(key("b"), 2);
+        store.put(key("c"), 3);
+
+        Map<String, Object> loaded = new LinkedHashMap<>();
+        store.warmUp(2, (key, value) -> loaded.put(key.getChecksum(), value));
+
+        assertEquals(Map.of("c", 3, "b", 2), loaded);
+        assertEquals(List.of("c", "b"), List.copyOf(loaded.keySet()));
+    }
+
+    @Test
+    void storesNothingWhenDisabled() throws IOException {
+        DiskResultStore store = new DiskResultStore(false, directory.resolve("disabled").toString(),
+                DataSize.ofKilobytes(64));
+
+        store.put(key("a"), SEQUENCES);
+        store.warmUp(10, (key, value) -> fail("Disabled store loaded " + key));
+
+        assertNull(store.get(key("a")));
+        assertTrue(Files.notExists(directory.resolve("disabled")));
+    }
+
+    @Test
+    void skipsResultsOfUnsupportedTypes() throws IOException {
+        DiskResultStore store = store(DataSize.ofKilobytes(64));
+
+        store.put(key("a"), List.of("1", "2"));
+
+        assertNull(store.get(key("a")));
+        assertEquals(0, countResults());
+    }
+
+    private DiskResultStore store(DataSize maximumSize) throws IOException {
+        return new DiskResultStore(true, directory.resolve("store").toString(), maximumSize);
+    }
+
+    /**
+     * @return size of the file of a stored result, which is the same for all keys used by the tests
+     */
+    private long measureResultSize() throws IOException {
+        DiskResultStore store = new DiskResultStore(true, directory.resolve("measure").toString(),
+                DataSize.ofKilobytes(64));
+        store.put(key("x"), SEQUENCES);
+        try (Stream<Path> files = Files.list(directory.resolve("measure"))) {
+            return Files.size(files.findFirst().orElseThrow());
+        }
+    }
+
+    private long countResults() throws IOException {
+        try (Stream<Path> files = Files.list(directory.resolve("store"))) {
+            return files.count();
+        }
+    }
+
+    private static SequenceCacheKey key(String checksum) {
+        return SequenceCacheKey.of(OperationType.INCREASING_SEQUENCE, checksum);
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.numbersequenceprocessing.cache;
+
+import com.example.numbersequenceprocessing.data.dto.response.SequenceStatistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileStatisticsIndexTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void findsWrittenStatistics() throws IOException {
+        FileStatisticsIndex index = index(10);
+        Path file = numbers("numbers.txt", "1\n3\n2\n");
+        SequenceStatistics statistics = statistics();
+
+        index.write(file, attributes(file), "checksum", statistics);
+
+        assertTrue(index.contains(file));
+        FileStatisticsIndex.IndexEntry entry = index.find(file).orElseThrow();
+        assertEquals("checksum", entry.getChecksum());
+        assertEquals(statistics, entry.getStatistics());
+    }
+
+    @Test
+    void invalidatesEntryOfResizedFile() throws IOException {
+        FileStatisticsIndex index = index(10);
+        Path file = numbers("numbers.txt", "1\n3\n2\n");
+        index.write(file, attributes(file), null, statistics());
+
+        Files.writeString(file, "1\n3\n2\n4\n");
+        Files.setLastModifiedTime(file, attributes(file).lastModifiedTime());
+
+        assertFalse(index.contains(file));
+        assertTrue(index.find(file).isEmpty());
+    }
+
+    @Test
+    void invalidatesEntryOfModifiedFile() throws IOException {
+        FileStatisticsIndex index = index(10);
+        Path file = numbers("numbers.txt", "1\n3\n2\n");
+        index.write(file, attributes(file), null, statistics());
+
+        Files.writeString(file, "4\n3\n2\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(attributes(file).lastModifiedTime().toMillis() + 1000));
+
+        assertFalse(index.contains(file));
+        assertTrue(index.find(file).isEmpty());
+    }
+
+    @Test
+    void removesEntriesOfDeletedFilesOnStartup() throws IOException {
+        Path kept = numbers("kept.txt", "1\n");
+        Path deleted = numbers("deleted.txt", "2\n");
+        FileStatisticsIndex index = index(10);
+        index.write(kept, attributes(kept), null, statistics());
+        index.write(deleted, attributes(deleted), null, statistics());
+
+        Files.delete(deleted);
+        index(10);
+
+        assertEquals(1, countEntries());
+        assertTrue(index.contains(kept));
+    }
+
+    @Test
+    void removesLeastRecentlyUsedEntriesAboveMaximum() throws IOException {
+        FileStatisticsIndex index = index(2);
+        Path first = numbers("first.txt", "1\n");
+        Path second = numbers("second.txt", "2\n");
+        Path third = numbers("third.txt", "3\n");
+
+        index.write(first, attributes(first), null, statistics());
+        index.write(second, attributes(second), null, statistics());
+        dateEntriesBack();
+        index.find(first);
+        index.write(third, attributes(third), null, statistics());
+
+        assertEquals(2, countEntries());
+        assertTrue(index.contains(first));
+        assertFalse(index.contains(second));
+        assertTrue(index.contains(third));
+    }
+
+    private FileStatisticsIndex index(int maximumEntries) throws IOException {
+        return new FileStatisticsIndex(true, directory.resolve("index").toString(), maximumEntries);
+    }
+
+    private Path numbers(String name, String content) throws IOException {
+        return Files.writeString(directory.resolve(name), content);
+    }
+
+    /**
+     * Dates the entries back, so that the entries used afterwards are more recent even on coarse file times
+     */
+    private void dateEntriesBack() throws IOException {
+        try (Stream<Path> entries = Files.list(directory.resolve("index"))) {
+            for (Path entry : (Iterable<Path>) entries::iterator) {
+                Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+            }
+        }
+    }
+
+    private long countEntries() throws IOException {
+        try (Stream<Path> entries = Files.list(directory.resolve("index"))) {
+            return entries.count();
+        }
+    }
+
+    private static BasicFileAttributes attributes(Path file) throws IOException {
+        return Files.readAttributes(file, BasicFileAttributes.class);
+    }
+
+    private static SequenceStatistics statistics() {
+        SequenceStatistics statistics = new SequenceStatistics();
+        statistics.setCount(3);
+        statistics.setMaxValue(3);
+        statistics.setMinValue(1);
+        statistics.setMedian(2.0);
+        statistics.setMean(2.0);
+        statistics.setIncreasingSequences(List.of(List.of(1, 3)));
+        statistics.setDecreasingSequences(List.of(List.of(3, 2)));
+        return statistics;
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.numbersequenceprocessing.cache;
+
+import com.example.numbersequenceprocessing.service.analysis.NumberStreamParser;
+import com.example.numbersequenceprocessing.service.analysis.SequenceStatisticsCollector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncrementalStateStoreTest {
+    private static final long SEED = 19;
+    private static final long MEDIAN_HEAP_BUDGET = 1024 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void continuesScanOfAppendedFile() throws IOException {
+        IncrementalStateStore store = store();
+        Path file = Files.writeString(directory.resolve("numbers.txt"), numbers(1_000, 0));
+        long firstPart = Files.size(file);
+        try (SequenceStatisticsCollector collector = new SequenceStatisticsCollector(MEDIAN_HEAP_BUDGET)) {
+            scan(collector, file, 0, firstPart);
+            store.write(file, firstPart, store.fingerprint(file, firstPart), collector, 0);
+        }
+
+        Files.writeString(file, numbers(500, 1), StandardOpenOption.APPEND);
+        long secondPart = Files.size(file);
+        IncrementalStateStore.ScanState state = store.find(file, MEDIAN_HEAP_BUDGET).orElseThrow();
+        try (SequenceStatisticsCollector collector = state.getCollector()) {
+            assertEquals(firstPart, state.getScannedBytes());
+            assertEquals(1_000, state.getStoredValues());
+            scan(collector, file, firstPart, secondPart);
+            store.write(file, secondPart, store.fingerprint(file, secondPart), collector, state.getStoredValues());
+        }
+
+        state = store.find(file, MEDIAN_HEAP_BUDGET).orElseThrow();
+        try (SequenceStatisticsCollector restored = state.getCollector();
+             SequenceStatisticsCollector expected = new SequenceStatisticsCollector(MEDIAN_HEAP_BUDGET)) {
+            scan(expected, file, 0, secondPart);
+            assertEquals(secondPart, state.getScannedBytes());
+            assertEquals(expected.toStatistics(), restored.toStatistics());
+        }
+        assertEquals(1_500 * Integer.BYTES, Files.size(valuesFile()));
+    }
+
+    @Test
+    void continuesSpilledScanWithMergedPart() throws IOException {
+        IncrementalStateStore store = store();
+        long heapBudget = 100 * Integer.BYTES;
+        Path file = Files.writeString(directory.resolve("numbers.txt"), numbers(1_000, 0));
+        long firstPart = Files.size(file);
+        writeState(store, file, heapBudget);
+
+        Files.writeString(file, numbers(500, 1), StandardOpenOption.APPEND);
+        long secondPart = Files.size(file);
+        IncrementalStateStore.ScanState state = store.find(file, heapBudget).orElseThrow();
+        try (SequenceStatisticsCollector collector = state.getCollector();
+             SequenceStatisticsCollector part = new SequenceStatisticsCollector(heapBudget)) {
+            scan(part, file, firstPart, secondPart);
+            collector.merge(part);
+            store.write(file, secondPart, store.fingerprint(file, secondPart), collector, state.getStoredValues());
+        }
+
+        state = store.find(file, heapBudget).orElseThrow();
+        try (SequenceStatisticsCollector restored = state.getCollector();
+             SequenceStatisticsCollector expected = new SequenceStatisticsCollector()) {
+            scan(expected, file, 0, secondPart);
+            assertEquals(expected.toStatistics(), restored.toStatistics());
+        }
+    }
+
+    @Test
+    void discardsStateOfTruncatedFile() throws IOException {
+        IncrementalStateStore store = store();
+        Path file = Files.writeString(directory.resolve("numbers.txt"), numbers(1_000, 0));
+        writeState(store, file);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(file) / 2);
+        }
+
+        assertTrue(store.find(file, MEDIAN_HEAP_BUDGET).isEmpty());
+        assertEquals(0, countStateFiles());
+    }
+
+    @Test
+    void discardsStateOfRewrittenFile() throws IOException {
+        IncrementalStateStore store = store();
+        Path file = Files.writeString(directory.resolve("numbers.txt"), numbers(1_000, 0));
+        writeState(store, file);
+
+        String content = Files.readString(file);
+        Files.writeString(file, content.replace('1', '2'));
+
+        assertTrue(store.find(file, MEDIAN_HEAP_BUDGET).isEmpty());
+        assertEquals(0, countStateFiles());
+    }
+
+    @Test
+    void discardsStateOfFileEditedInTheMiddle() throws IOException {
+        IncrementalStateStore store = store();
+        Path file = Files.writeString(directory.resolve("numbers.txt"), numbers(200_000, 0));
+        writeState(store, file);
+
+        byte[] content = Files.readAllBytes(file);
+        for (int i = content.length / 2 - 40_000; i < content.length / 2 + 40_000; i++) {
+            if (content[i] == '1') {
+                content[i] = '2';
+            }
+        }
+        Files.write(file, content);
+
+        assertTrue(store.find(file, MEDIAN_HEAP_BUDGET).isEmpty());
+    }
+
+    private IncrementalStateStore store() throws IOException {
+        return new IncrementalStateStore(true, directory.resolve("state").toString());
+    }
+
+    private static void writeState(IncrementalStateStore store, Path file) throws IOException {
+        writeState(store, file, MEDIAN_HEAP_BUDGET);
+    }
+
+    private static void writeState(IncrementalStateStore store, Path file, long heapBudget) throws IOException {
+        long size = Files.size(file);
+        try (SequenceStatisticsCollector collector = new SequenceStatisticsCollector(heapBudget)) {
+            scan(collector, file, 0, size);
+            store.write(file, size, store.fingerprint(file, size), collector, 0);
+        }
+        store.find(file, heapBudget).orElseThrow().getCollector().close();
+    }
+
+    private static void scan(SequenceStatisticsCollector collector, Path file, long start, long end)
+            throws IOException {
+        try (InputStream stream = Files.newInputStream(file)) {
+            stream.skipNBytes(start);
+            new NumberStreamParser(new ByteArrayInputStream(stream.readNBytes((int) (end - start))))
+                    .parse(collector);
+        }
+    }
+
+    private Path valuesFile() throws IOException {
+        try (Stream<Path> files = Files.list(directory.resolve("state"))) {
+            return files.filter(file -> file.toString().endsWith(".values")).findFirst().orElseThrow();
+        }
+    }
+
+    private long countStateFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory.resolve("state"))) {
+            return files.count();
+        }
+    }
+
+    private static String numbers(int count, int part) {
+        return new Random(SEED + part).ints(count, -1000, 1000).mapToObj(Integer::toString)
+                .collect(Collectors.joining("\n", "", "\n"));
+    }
+}
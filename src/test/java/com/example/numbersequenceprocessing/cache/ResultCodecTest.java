@@ -0,0 +1,134 @@
+package com.example.numbersequenceprocessing.cache;
+
+import com.example.numbersequenceprocessing.data.dto.response.SequenceStatistics;
+import com.example.numbersequenceprocessing.data.dto.response.TypedSequenceStatistics;
+import com.example.numbersequenceprocessing.data.enums.NumberType;
+import com.example.numbersequenceprocessing.service.analysis.QuantileSketch;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.StreamCorruptedException;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ResultCodecTest {
+
+    @Test
+    void restoresNumbers() throws IOException {
+        assertEquals(Integer.MIN_VALUE, roundTrip(Integer.MIN_VALUE));
+        assertEquals(-7364.418442641844, roundTrip(-7364.418442641844));
+    }
+
+    @Test
+    void restoresSequences() throws IOException {
+        List<List<Integer>> sequences = List.of(List.of(1, 3, 7), List.of(Integer.MIN_VALUE, Integer.MAX_VALUE));
+
+        assertEquals(sequences, roundTrip(sequences));
+        assertEquals(List.of(), roundTrip(List.of()));
+    }
+
+    @Test
+    void restoresStatisticsWithSketch() throws IOException {
+        SequenceStatistics statistics = statistics();
+        statistics.setQuantileSketch(sketch(-7, 0, 3, 3, 1000));
+
+        SequenceStatistics restored = (SequenceStatistics) roundTrip(statistics);
+
+        assertEquals(statistics, restored);
+        assertEquals(statistics.getQuantileSketch().quantile(0.5), restored.getQuantileSketch().quantile(0.5));
+    }
+
+    @Test
+    void restoresStatisticsWithoutSketch() throws IOException {
+        SequenceStatistics restored = (SequenceStatistics) roundTrip(statistics());
+
+        assertEquals(statistics(), restored);
+        assertNull(restored.getQuantileSketch());
+    }
+
+    @Test
+    void restoresSketch() throws IOException {
+        QuantileSketch sketch = sketch(Integer.MIN_VALUE, -1, 0, 1, Integer.MAX_VALUE);
+
+        assertEquals(sketch, roundTrip(sketch));
+    }
+
+    @Test
+    void refusesToWriteOtherResults() {
+        DataOutputStream out = new DataOutputStream(new ByteArrayOutputStream());
+
+        assertThrows(NotSerializableException.class, () -> ResultCodec.write(out, List.of("1", "3", "7")));
+        assertThrows(NotSerializableException.class, () -> ResultCodec.write(out, new BigDecimal("0.125")));
+    }
+
+    @Test
+    void rejectsUnknownType() {
+        assertThrows(StreamCorruptedException.class,
+                () -> ResultCodec.read(new DataInputStream(new ByteArrayInputStream(new byte[]{42}))));
+        assertThrows(StreamCorruptedException.class,
+                () -> ResultCodec.read(new DataInputStream(new ByteArrayInputStream(new byte[]{0}))));
+    }
+
+    @Test
+    void restoresTypedStatistics() throws IOException {
+        TypedSequenceStatistics int64 = typed(NumberType.INT64, 0, Long.MAX_VALUE, Long.MIN_VALUE,
+                List.of(List.of(-5L, 3L, Long.MAX_VALUE)), List.of(List.of(7L, Long.MIN_VALUE)));
+        TypedSequenceStatistics decimal = typed(NumberType.DECIMAL, 2, new BigDecimal("12.50"),
+                new BigDecimal("-0.07"), List.of(List.of(new BigDecimal("-0.07"), new BigDecimal("1.00"))),
+                List.of(List.of(new BigDecimal("12.50"), new BigDecimal("3.25"))));
+
+        assertEquals(int64, roundTrip(int64));
+        assertEquals(decimal, roundTrip(decimal));
+    }
+
+    private static TypedSequenceStatistics typed(NumberType type, int scale, Number max, Number min,
+                                                 List<List<Number>> increasing, List<List<Number>> decreasing) {
+        TypedSequenceStatistics statistics = new TypedSequenceStatistics();
+        statistics.setType(type);
+        statistics.setScale(scale);
+        statistics.setCount(5);
+        statistics.setMaxValue(max);
+        statistics.setMinValue(min);
+        statistics.setSum(new BigDecimal("123456789012345678901234.5"));
+        statistics.setMedian(new BigDecimal("-0.125"));
+        statistics.setMean(new BigDecimal("24691357802469135780246.9"));
+        statistics.setIncreasingSequences(increasing);
+        statistics.setDecreasingSequences(decreasing);
+        return statistics;
+    }
+
+    private static Object roundTrip(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ResultCodec.write(new DataOutputStream(bytes), value);
+        return ResultCodec.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    private static SequenceStatistics statistics() {
+        SequenceStatistics statistics = new SequenceStatistics();
+        statistics.setCount(5);
+        statistics.setMaxValue(7);
+        statistics.setMinValue(1);
+        statistics.setMedian(3.0);
+        statistics.setMean(3.4);
+        statistics.setIncreasingSequences(List.of(List.of(1, 3, 7)));
+        statistics.setDecreasingSequences(List.of(List.of(7, 2)));
+        return statistics;
+    }
+
+    private static QuantileSketch sketch(int... numbers) {
+        QuantileSketch sketch = new QuantileSketch(QuantileSketch.DEFAULT_RELATIVE_ACCURACY);
+        for (int number : numbers) {
+            sketch.accept(number);
+        }
+        return sketch;
+    }
+}
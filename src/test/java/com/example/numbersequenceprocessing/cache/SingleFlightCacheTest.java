@@ -0,0 +1,161 @@
+package com.example.numbersequenceprocessing.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightCacheTest {
+    private static final String KEY = "numbers";
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch leaderStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseLeader = new CountDownLatch(1);
+
+    @AfterEach
+    void shutDown() {
+        releaseLeader.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void waiterReceivesValueOfLeader() throws Exception {
+        SingleFlightCache cache = cache(Duration.ofMinutes(1));
+        AtomicInteger computations = new AtomicInteger();
+        Future<Object> leader = startLeader(cache, () -> {
+            computations.incrementAndGet();
+            return "leader";
+        });
+
+        Future<Object> waiter = startWaiter(cache, () -> {
+            computations.incrementAndGet();
+            return "waiter";
+        });
+        releaseLeader.countDown();
+
+        assertEquals("leader", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("leader", waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(1, computations.get());
+        assertEquals("leader", cache.get(KEY).get());
+    }
+
+    @Test
+    void waiterFailsWithErrorOfLeader() throws Exception {
+        SingleFlightCache cache = cache(Duration.ofMinutes(1));
+        Future<Object> leader = startLeader(cache, () -> {
+            throw new OutOfMemoryError("median buffer");
+        });
+
+        Future<Object> waiter = startWaiter(cache, () -> "waiter");
+        releaseLeader.countDown();
+
+        assertInstanceOf(OutOfMemoryError.class, failure(leader));
+        Throwable failure = failure(waiter);
+        assertInstanceOf(Cache.ValueRetrievalException.class, failure);
+        assertInstanceOf(OutOfMemoryError.class, failure.getCause());
+    }
+
+    @Test
+    void waiterComputesValueItselfWhenLeaderIsCancelled() throws Exception {
+        SingleFlightCache cache = cache(Duration.ofMinutes(1));
+        Future<Object> leader = startLeader(cache, () -> {
+            throw new CancellationException("job cancelled");
+        });
+
+        Future<Object> waiter = startWaiter(cache, () -> "waiter");
+        releaseLeader.countDown();
+
+        assertInstanceOf(Cache.ValueRetrievalException.class, failure(leader));
+        assertEquals("waiter", waiter.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void waiterComputesValueItselfAfterTimeout() throws Exception {
+        SingleFlightCache cache = cache(Duration.ofMillis(50));
+        Future<Object> leader = startLeader(cache, () -> "leader");
+
+        assertEquals("waiter", cache.get(KEY, () -> "waiter"));
+        releaseLeader.countDown();
+        assertEquals("leader", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void doesNotRecomputeValueStoredAfterMiss() {
+        AtomicInteger lookups = new AtomicInteger();
+        Cache delegate = new ConcurrentMapCache("Numbers") {
+            @Override
+            public ValueWrapper get(Object key) {
+                if (lookups.getAndIncrement() == 0) {
+                    // a concurrent computation finishes right after this miss
+                    put(key, "stored");
+                    return null;
+                }
+                return super.get(key);
+            }
+        };
+        SingleFlightCache cache = new SingleFlightCache(delegate, new SimpleMeterRegistry(), Duration.ofMinutes(1));
+
+        assertEquals("stored", cache.get(KEY, () -> {
+            throw new AssertionError("Value computed twice");
+        }));
+    }
+
+    private static SingleFlightCache cache(Duration timeout) {
+        return new SingleFlightCache(new ConcurrentMapCache("Numbers"), new SimpleMeterRegistry(), timeout);
+    }
+
+    /**
+     * Starts the first caller, whose computation waits for {@link #releaseLeader}
+     */
+    private Future<Object> startLeader(SingleFlightCache cache, Callable<Object> valueLoader)
+            throws InterruptedException {
+        Future<Object> leader = executor.submit(() -> cache.get(KEY, () -> {
+            leaderStarted.countDown();
+            releaseLeader.await();
+            return valueLoader.call();
+        }));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+        return leader;
+    }
+
+    /**
+     * Starts a caller of the same key and returns once it waits for the result of the leader
+     */
+    private Future<Object> startWaiter(SingleFlightCache cache, Callable<Object> valueLoader)
+            throws InterruptedException {
+        Thread[] thread = new Thread[1];
+        CountDownLatch started = new CountDownLatch(1);
+        Future<Object> waiter = executor.submit(() -> {
+            thread[0] = Thread.currentThread();
+            started.countDown();
+            return cache.get(KEY, valueLoader);
+        });
+        started.await();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread[0].getState() != Thread.State.TIMED_WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        return waiter;
+    }
+
+    private static Throwable failure(Future<Object> future) {
+        return assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS)).getCause();
+    }
+}
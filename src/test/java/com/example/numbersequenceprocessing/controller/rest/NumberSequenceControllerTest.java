@@ -0,0 +1,164 @@
+package com.example.numbersequenceprocessing.controller.rest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class NumberSequenceControllerTest {
+
+    private static final long SEED = 31;
+    /**
+     * Endpoints of the separate operations with the fields of the results of all operations they correspond to
+     */
+    private static final Map<String, String> OPERATIONS = Map.of(
+            "get-max-value", "maxValue",
+            "get-min-value", "minValue",
+            "get-median", "median",
+            "get-mean", "mean",
+            "get-increasing-sequence", "increasingSequences",
+            "get-decreasing-sequence", "decreasingSequences");
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void streamsIncreasingSequencesAsJsonLines() throws Exception {
+        Path file = Files.writeString(directory.resolve("numbers.txt"), "1\n2\n3\n1\n5\n6\n0\n");
+
+        stream("/api/stream-increasing-sequence", file)
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("[1,2,3]\n[1,5,6]\n"));
+    }
+
+    @Test
+    void streamsCachedDecreasingSequencesAsJsonLines() throws Exception {
+        Path file = Files.writeString(directory.resolve("numbers.txt"), "9\n4\n-2\n7\n8\n3\n1\n");
+
+        for (int request = 0; request < 2; request++) {
+            stream("/api/stream-decreasing-sequence", file)
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andExpect(content().string("[9,4,-2]\n[8,3,1]\n"));
+        }
+    }
+
+    @Test
+    void answersMissingFileWithJsonError() throws Exception {
+        stream("/api/stream-increasing-sequence", directory.resolve("missing.txt"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.status").value("BAD_REQUEST"));
+    }
+
+    @Test
+    void answersFileWithoutSequencesWithJsonError() throws Exception {
+        Path file = Files.writeString(directory.resolve("numbers.txt"), "4\n4\n4\n");
+
+        stream("/api/stream-decreasing-sequence", file)
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.status").value("BAD_REQUEST"));
+    }
+
+    @Test
+    void analyzesFileLikeSeparateOperations() throws Exception {
+        Path file = Files.writeString(directory.resolve("numbers.txt"), numbers(SEED));
+
+        Map<String, JsonNode> separate = new LinkedHashMap<>();
+        for (String operation : OPERATIONS.keySet()) {
+            separate.put(operation, data(mockMvc.perform(post("/api/" + operation)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body(file)))));
+        }
+        JsonNode analyzed = data(mockMvc.perform(post("/api/analyze")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body(file))));
+
+        assertSameResults(separate, analyzed);
+    }
+
+    @Test
+    void analyzesUploadLikeSeparateOperations() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("textFile", "numbers.txt", MediaType.TEXT_PLAIN_VALUE,
+                numbers(SEED + 1).getBytes(StandardCharsets.US_ASCII));
+
+        Map<String, JsonNode> separate = new LinkedHashMap<>();
+        for (String operation : OPERATIONS.keySet()) {
+            separate.put(operation, data(mockMvc.perform(multipart("/api/multipart-file/" + operation).file(file))));
+        }
+        JsonNode analyzed = data(mockMvc.perform(multipart("/api/multipart-file/analyze").file(file)));
+
+        assertSameResults(separate, analyzed);
+    }
+
+    @Test
+    void answersTooManyHistogramBucketsWithBadRequest() throws Exception {
+        Path file = Files.writeString(directory.resolve("numbers.txt"), numbers(SEED));
+
+        mockMvc.perform(post("/api/get-histogram?buckets=2000000000")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body(file)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("BAD_REQUEST"));
+    }
+
+    private JsonNode data(ResultActions result) throws Exception {
+        String response = result.andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("data");
+    }
+
+    private static void assertSameResults(Map<String, JsonNode> separate, JsonNode analyzed) {
+        separate.forEach((operation, result) ->
+                assertEquals(result, analyzed.get(OPERATIONS.get(operation)), operation));
+    }
+
+    private static String numbers(long seed) {
+        return new Random(seed).ints(1_000, -500, 500).mapToObj(Integer::toString)
+                .collect(Collectors.joining("\n", "", "\n"));
+    }
+
+    private ResultActions stream(String path, Path file) throws Exception {
+        return mockMvc.perform(post(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body(file)));
+    }
+
+    private static String body(Path file) {
+        return "{\"filePath\": \"" + file.toString().replace("\\", "\\\\") + "\"}";
+    }
+}
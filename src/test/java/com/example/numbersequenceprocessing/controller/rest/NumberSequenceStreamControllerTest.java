@@ -0,0 +1,85 @@
+package com.example.numbersequenceprocessing.controller.rest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class NumberSequenceStreamControllerTest {
+    private static final byte[] NUMBERS = "1\n2\n3\n1\n5\n6\n0\n".getBytes(StandardCharsets.US_ASCII);
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    void processesPlainBody() throws Exception {
+        send("/api/stream/get-max-value", MediaType.TEXT_PLAIN, NUMBERS)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data").value(6));
+        send("/api/stream/get-increasing-sequence", MediaType.TEXT_PLAIN, NUMBERS)
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"data\": [[1, 2, 3], [1, 5, 6]]}"));
+        send("/api/stream/perform-operation?operation=MEAN", MediaType.TEXT_PLAIN, NUMBERS)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data").value(18.0 / 7));
+    }
+
+    @Test
+    void decompressesGzipBody() throws Exception {
+        byte[] compressed = gzip(NUMBERS);
+
+        send("/api/stream/get-min-value", MediaType.APPLICATION_OCTET_STREAM, compressed)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data").value(0));
+        send("/api/stream/analyze", MediaType.APPLICATION_OCTET_STREAM, compressed)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.maxValue").value(6))
+                .andExpect(jsonPath("$.data.median").value(2.0))
+                .andExpect(content().json("{\"data\": {\"increasingSequences\": [[1, 2, 3], [1, 5, 6]]}}"));
+    }
+
+    @Test
+    void answersEmptyBodyWithBadRequest() throws Exception {
+        send("/api/stream/get-median", MediaType.TEXT_PLAIN, new byte[0])
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("BAD_REQUEST"));
+    }
+
+    @Test
+    void answersTooManyHistogramBucketsWithBadRequest() throws Exception {
+        send("/api/stream/get-histogram?buckets=2000000000", MediaType.TEXT_PLAIN, NUMBERS)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("BAD_REQUEST"));
+    }
+
+    private ResultActions send(String path, MediaType contentType, byte[] body) throws Exception {
+        return mockMvc.perform(post(path)
+                .contentType(contentType)
+                .content(body));
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.numbersequenceprocessing.controller.rest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SequenceBatchControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writesResultOfEveryRequestAsJsonLine() throws Exception {
+        Path numbers = Files.writeString(directory.resolve("numbers.txt"), "1\n2\n3\n1\n5\n6\n0\n");
+        Path missing = directory.resolve("missing.txt");
+
+        String body = execute("["
+                + request(numbers, "MAX_VALUE") + ","
+                + request(missing, "MIN_VALUE") + ","
+                + request(numbers, "INCREASING_SEQUENCE") + ","
+                + "{\"filePath\": \"" + path(numbers) + "\", \"operation\": \"MEAN\", \"type\": \"INT64\"},"
+                + "{\"filePath\": \"" + path(numbers) + "\"}"
+                + "]");
+
+        assertTrue(body.endsWith("\n"));
+        List<JsonNode> results = readLines(body);
+        assertEquals(5, results.size());
+
+        assertResult(results.get(0), 0, numbers, "OK", "successful request");
+        assertEquals(6, results.get(0).get("data").asInt());
+
+        assertResult(results.get(1), 1, missing, "BAD_REQUEST", "No such file was found in the passed path");
+        assertTrue(results.get(1).get("data").isNull());
+
+        assertResult(results.get(2), 2, numbers, "OK", "successful request");
+        assertEquals("[[1,2,3],[1,5,6]]", results.get(2).get("data").toString());
+
+        assertResult(results.get(3), 3, numbers, "BAD_REQUEST", "Only INT32 numbers are processed in a batch");
+        assertResult(results.get(4), 4, numbers, "BAD_REQUEST", "No operation was specified");
+    }
+
+    @Test
+    void writesNothingForEmptyBatch() throws Exception {
+        assertEquals("", execute("[]"));
+    }
+
+    private String execute(String requests) throws Exception {
+        return mockMvc.perform(post("/api/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requests))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    /**
+     * @return the results of the lines, which are written in the order of completion, sorted by request index
+     */
+    private List<JsonNode> readLines(String body) throws Exception {
+        List<JsonNode> results = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            JsonNode result = objectMapper.readTree(line);
+            assertTrue(result.isObject(), line);
+            results.add(result);
+        }
+        return results.stream()
+                .sorted(Comparator.comparingInt(result -> result.get("index").asInt()))
+                .collect(Collectors.toList());
+    }
+
+    private static void assertResult(JsonNode result, int index, Path file, String status, String message) {
+        assertEquals(index, result.get("index").asInt());
+        assertEquals(file.toString(), result.get("filePath").asText());
+        assertEquals(status, result.get("status").asText());
+        assertEquals(message, result.get("message").asText());
+    }
+
+    private static String request(Path file, String operation) {
+        return "{\"filePath\": \"" + path(file) + "\", \"operation\": \"" + operation + "\"}";
+    }
+
+    private static String path(Path file) {
+        return file.toString().replace("\\", "\\\\");
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.numbersequenceprocessing.service;
+
+import com.example.numbersequenceprocessing.data.dto.response.ColumnFileInfo;
+import com.example.numbersequenceprocessing.service.analysis.NumberColumnFile;
+import com.example.numbersequenceprocessing.utils.file.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnConversionServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private Path columns;
+    private Path numbers;
+    private ColumnConversionService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        columns = Files.createDirectory(directory.resolve("columns"));
+        numbers = Files.writeString(directory.resolve("numbers.txt"), "1\n2\n3\n");
+        service = new ColumnConversionService(new FileUtils(DataSize.ofKilobytes(64)), 2, columns.toString());
+    }
+
+    @Test
+    void writesColumnFileToColumnDirectory() throws IOException {
+        ColumnFileInfo info = service.convert(numbers.toString(), "numbers.nsq");
+
+        Path target = columns.toRealPath().resolve("numbers.nsq");
+        assertEquals(target.toString(), info.getFilePath());
+        assertEquals(3, info.getCount());
+        assertTrue(NumberColumnFile.isColumnFile(target));
+
+        service.convert(numbers.toString(), target.toString());
+        assertEquals(3, NumberColumnFile.open(target).getCount());
+    }
+
+    @Test
+    void rejectsTargetOutsideColumnDirectory() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.convert(numbers.toString(), directory.resolve("numbers.nsq").toString()));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.convert(numbers.toString(), "../numbers.nsq"));
+        assertTrue(Files.notExists(directory.resolve("numbers.nsq")));
+    }
+
+    @Test
+    void rejectsOverwritingOtherFiles() throws IOException {
+        Path text = Files.writeString(columns.resolve("other.txt"), "4\n");
+
+        assertThrows(IllegalArgumentException.class, () -> service.convert(numbers.toString(), "other.txt"));
+        assertEquals("4\n", Files.readString(text));
+    }
+
+    @Test
+    void rejectsSourceAsTarget() throws IOException {
+        service.convert(numbers.toString(), "numbers.nsq");
+        Path source = columns.resolve("numbers.nsq");
+
+        assertThrows(IllegalArgumentException.class, () -> service.convert(source.toString(), "numbers.nsq"));
+        assertEquals(3, NumberColumnFile.open(source).getCount());
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.numbersequenceprocessing.service;
+
+import com.example.numbersequenceprocessing.data.dto.response.JobStatus;
+import com.example.numbersequenceprocessing.data.dto.response.SequenceStatistics;
+import com.example.numbersequenceprocessing.data.enums.JobState;
+import com.example.numbersequenceprocessing.data.enums.OperationType;
+import com.example.numbersequenceprocessing.data.exception.JobNotFoundException;
+import com.example.numbersequenceprocessing.data.exception.SequenceException;
+import com.example.numbersequenceprocessing.service.analysis.ScanProgress;
+import com.example.numbersequenceprocessing.utils.checksum.ChecksumUtils;
+import com.example.numbersequenceprocessing.utils.file.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SequenceJobServiceTest {
+    private static final String FILE_PATH = "/data/numbers.txt";
+
+    private final NumberSequenceService numberSequenceService = mock(NumberSequenceService.class);
+    private final ChecksumUtils checksumUtils = mock(ChecksumUtils.class);
+    private final FileUtils fileUtils = mock(FileUtils.class);
+    private final ThreadPoolExecutor jobExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1));
+
+    /**
+     * Released by the tests to let the running scan finish
+     */
+    private final CountDownLatch releaseScan = new CountDownLatch(1);
+    private final CountDownLatch scanStarted = new CountDownLatch(1);
+    private final AtomicInteger scans = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException, SequenceException {
+        when(checksumUtils.getFileKey(anyString())).thenReturn("checksum");
+        when(fileUtils.getPath(anyString())).thenAnswer(invocation -> Path.of(invocation.<String>getArgument(0)));
+        when(numberSequenceService.analyze(eq("checksum"), any(Path.class), any(ScanProgress.class)))
+                .thenAnswer(invocation -> {
+                    ScanProgress progress = invocation.getArgument(2);
+                    scans.incrementAndGet();
+                    progress.setTotalBytes(100);
+                    progress.advance(40);
+                    scanStarted.countDown();
+                    while (!releaseScan.await(1, TimeUnit.MILLISECONDS)) {
+                        progress.advance(0);
+                    }
+                    progress.advance(60);
+                    return new SequenceStatistics();
+                });
+        when(numberSequenceService.getResult(eq(OperationType.MAX_VALUE), any(), any(), any())).thenReturn(7);
+    }
+
+    @AfterEach
+    void shutDown() {
+        releaseScan.countDown();
+        jobExecutor.shutdownNow();
+    }
+
+    @Test
+    void reportsProgressAndResultOfJob() throws Exception {
+        SequenceJobService service = service(Duration.ofHours(1));
+
+        JobStatus submitted = service.submit(FILE_PATH, OperationType.MAX_VALUE, null, null);
+        awaitScan();
+
+        JobStatus running = service.getStatus(submitted.getId());
+        assertEquals(JobState.RUNNING, running.getState());
+        assertEquals(40, running.getProcessedBytes());
+        assertEquals(100, running.getTotalBytes());
+
+        releaseScan.countDown();
+        JobStatus completed = await(service, submitted.getId(), JobState.COMPLETED);
+        assertEquals(7, completed.getResult());
+        assertEquals(100, completed.getProcessedBytes());
+    }
+
+    @Test
+    void returnsActiveJobForSameOperationOnSameFile() throws Exception {
+        SequenceJobService service = service(Duration.ofHours(1));
+
+        JobStatus first = service.submit(FILE_PATH, OperationType.MAX_VALUE, null, null);
+        awaitScan();
+        JobStatus second = service.submit(FILE_PATH, OperationType.MAX_VALUE, null, null);
+        JobStatus otherOperation = service.submit(FILE_PATH, OperationType.MIN_VALUE, null, null);
+
+        assertEquals(first.getId(), second.getId());
+        assertNotEquals(first.getId(), otherOperation.getId());
+
+        releaseScan.countDown();
+        await(service, first.getId(), JobState.COMPLETED);
+        JobStatus afterCompletion = service.submit(FILE_PATH, OperationType.MAX_VALUE, null, null);
+        assertNotEquals(first.getId(), afterCompletion.getId());
+    }
+
+    @Test
+    void cancelsRunningJob() throws Exception {
+        SequenceJobService service = service(Duration.ofHours(1));
+
+        JobStatus submitted = service.submit(FILE_PATH, OperationType.MAX_VALUE, null, null);
+        awaitScan();
+        service.cancel(submitted.getId());
+
+        await(service, submitted.getId(), JobState.CANCELLED);
+        JobStatus resubmitted = service.submit(FILE_PATH, OperationType.MAX_VALUE, null, null);
+        assertNotEquals(submitted.getId(), resubmitted.getId());
+    }
+
+    @Test
+    void cancelsQueuedJobWithoutRunningIt() throws Exception {
+        SequenceJobService service = service(Duration.ofHours(1));
+
+        JobStatus running = service.submit(FILE_PATH, OperationType.MAX_VALUE, null, null);
+        awaitScan();
+        JobStatus queued = service.submit(FILE_PATH, OperationType.MIN_VALUE, null, null);
+        assertEquals(JobState.QUEUED, queued.getState());
+
+        assertEquals(JobState.CANCELLED, service.cancel(queued.getId()).getState());
+        releaseScan.countDown();
+        await(service, running.getId(), JobState.COMPLETED);
+        assertEquals(1, scans.get());
+    }
+
+    @Test
+    void rejectsJobWhenQueueIsFull() throws Exception {
+        SequenceJobService service = service(Duration.ofHours(1));
+
+        service.submit(FILE_PATH, OperationType.MAX_VALUE, null, null);
+        awaitScan();
+        service.submit(FILE_PATH, OperationType.MIN_VALUE, null, null);
+
+        assertThrows(RejectedExecutionException.class,
+                () -> service.submit(FILE_PATH, OperationType.MEAN, null, null));
+    }
+
+    @Test
+    void reportsFailureOfJob() throws Exception {
+        when(numberSequenceService.getResult(eq(OperationType.INCREASING_SEQUENCE), any(), any(), any()))
+                .thenThrow(new SequenceException());
+        SequenceJobService service = service(Duration.ofHours(1));
+
+        JobStatus submitted = service.submit(FILE_PATH, OperationType.INCREASING_SEQUENCE, null, null);
+        releaseScan.countDown();
+
+        JobStatus failed = await(service, submitted.getId(), JobState.FAILED);
+        assertEquals("No sequences were found in the file", failed.getError());
+    }
+
+    @Test
+    void removesExpiredJobs() throws Exception {
+        SequenceJobService service = service(Duration.ZERO);
+
+        JobStatus submitted = service.submit(FILE_PATH, OperationType.MAX_VALUE, null, null);
+        awaitScan();
+        assertEquals(JobState.RUNNING, service.getStatus(submitted.getId()).getState());
+        releaseScan.countDown();
+        awaitFinished();
+
+        assertThrows(JobNotFoundException.class, () -> service.getStatus(submitted.getId()));
+    }
+
+    @Test
+    void rejectsUnknownJob() {
+        SequenceJobService service = service(Duration.ofHours(1));
+
+        assertThrows(JobNotFoundException.class, () -> service.getStatus("unknown"));
+        assertThrows(JobNotFoundException.class, () -> service.cancel("unknown"));
+    }
+
+    private SequenceJobService service(Duration retention) {
+        return new SequenceJobService(numberSequenceService, checksumUtils, fileUtils, jobExecutor, retention);
+    }
+
+    private void awaitScan() throws InterruptedException {
+        assertTrue(scanStarted.await(5, TimeUnit.SECONDS), "Scan has not started");
+    }
+
+    private static JobStatus await(SequenceJobService service, String id, JobState state) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            JobStatus status = service.getStatus(id);
+            if (status.getState() == state) {
+                return status;
+            }
+            Thread.sleep(1);
+        }
+        return fail("Job " + id + " is not " + state);
+    }
+
+    /**
+     * Waits until the executor finished the job without polling its status, which would remove it once expired
+     */
+    private void awaitFinished() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (jobExecutor.getCompletedTaskCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(1, jobExecutor.getCompletedTaskCount(), "Job has not finished");
+        Thread.sleep(2);
+    }
+}
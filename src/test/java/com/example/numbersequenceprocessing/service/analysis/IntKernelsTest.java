@@ -0,0 +1,49 @@
+package com.example.numbersequenceprocessing.service.analysis;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+
+import java.util.Arrays;
+import java.util.IntSummaryStatistics;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The tests run with the Vector API module added, so {@link IntKernels#get()} is compared with the scalar loops
+ */
+class IntKernelsTest {
+
+    @RepeatedTest(50)
+    void summarizesLikeScalarLoops(RepetitionInfo repetition) {
+        Random random = new Random(repetition.getCurrentRepetition());
+        int[] numbers = random.ints(random.nextInt(2000) + 1).toArray();
+        int from = random.nextInt(numbers.length);
+        int to = from + random.nextInt(numbers.length - from + 1);
+
+        IntSummaryStatistics expected = IntKernels.scalar().summarize(numbers, from, to);
+        IntSummaryStatistics actual = IntKernels.get().summarize(numbers, from, to);
+
+        assertEquals(Arrays.stream(numbers, from, to).summaryStatistics().toString(), expected.toString());
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @RepeatedTest(50)
+    void marksContinuationsLikeScalarLoops(RepetitionInfo repetition) {
+        Random random = new Random(repetition.getCurrentRepetition());
+        int[] numbers = random.ints(random.nextInt(2000) + 1, 0, 4).toArray();
+        int from = random.nextInt(numbers.length);
+        int to = from + random.nextInt(numbers.length - from + 1);
+
+        for (boolean increasing : new boolean[]{true, false}) {
+            long[] expected = new long[IntKernels.maskLength(to - from)];
+            long[] actual = new long[expected.length];
+            Arrays.fill(actual, -1);
+            IntKernels.scalar().markContinuations(numbers, from, to, increasing, expected);
+            IntKernels.get().markContinuations(numbers, from, to, increasing, actual);
+
+            assertArrayEquals(expected, actual, IntKernels.get().getName());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.numbersequenceprocessing.service.analysis;
+
+import com.example.numbersequenceprocessing.data.dto.response.TypedSequenceStatistics;
+import com.example.numbersequenceprocessing.data.enums.NumberType;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LongSequenceStatisticsCollectorTest {
+
+    @Test
+    void sumsBeyondLongRangeWithoutOverflow() throws IOException {
+        TypedSequenceStatistics statistics = collect("9223372036854775807\n9223372036854775807\n1\n", 0,
+                NumberType.INT64);
+
+        assertEquals(new BigDecimal("18446744073709551615"), statistics.getSum());
+        assertEquals(new BigDecimal("6148914691236517205"), statistics.getMean());
+        assertEquals(new BigDecimal("9223372036854775807"), statistics.getMedian());
+        assertEquals(Long.MAX_VALUE, statistics.getMaxValue());
+    }
+
+    @Test
+    void findsRunsStartingAtExtremes() throws IOException {
+        TypedSequenceStatistics statistics = collect(
+                "-9223372036854775808\n0\n9223372036854775807\n-9223372036854775808\n", 0, NumberType.INT64);
+
+        assertEquals(List.<List<Number>>of(List.of(Long.MIN_VALUE, 0L, Long.MAX_VALUE)),
+                statistics.getIncreasingSequences());
+        assertEquals(List.<List<Number>>of(List.of(Long.MAX_VALUE, Long.MIN_VALUE)),
+                statistics.getDecreasingSequences());
+        assertEquals(new BigDecimal("-4611686018427387904"), statistics.getMedian());
+    }
+
+    @Test
+    void keepsDecimalsExact() throws IOException {
+        TypedSequenceStatistics statistics = collect("0.1\n0.2\n-1.5\n+3\n", 2, NumberType.DECIMAL);
+
+        assertEquals(new BigDecimal("1.80"), statistics.getSum());
+        assertEquals(new BigDecimal("0.45"), statistics.getMean());
+        assertEquals(new BigDecimal("0.15"), statistics.getMedian());
+        assertEquals(new BigDecimal("3.00"), statistics.getMaxValue());
+        assertEquals(new BigDecimal("-1.50"), statistics.getMinValue());
+    }
+
+    @Test
+    void rejectsLostPrecisionAndOverflow() {
+        assertThrows(NumberFormatException.class, () -> collect("1.234\n", 2, NumberType.DECIMAL));
+        assertThrows(NumberFormatException.class, () -> collect("92233720368547758.08\n", 2, NumberType.DECIMAL));
+        assertThrows(NumberFormatException.class, () -> collect("9223372036854775808\n", 0, NumberType.INT64));
+        assertThrows(NumberFormatException.class, () -> collect("1.5\n", 0, NumberType.INT64));
+    }
+
+    @RepeatedTest(20)
+    void spilledNumbersGiveSameResults(RepetitionInfo repetition) {
+        Random random = new Random(repetition.getCurrentRepetition());
+        long[] numbers = random.longs(random.nextInt(2_000) + 1).toArray();
+
+        LongSequenceStatisticsCollector heap = new LongSequenceStatisticsCollector();
+        LongSequenceStatisticsCollector spilled = new LongSequenceStatisticsCollector(64 * Long.BYTES);
+        Arrays.stream(numbers).forEach(heap);
+        Arrays.stream(numbers).forEach(spilled);
+
+        BigInteger sum = Arrays.stream(numbers).mapToObj(BigInteger::valueOf).reduce(BigInteger.ZERO, BigInteger::add);
+        TypedSequenceStatistics statistics = heap.toStatistics(NumberType.INT64, 0);
+        assertEquals(new BigDecimal(sum), statistics.getSum());
+        assertEquals(statistics, spilled.toStatistics(NumberType.INT64, 0));
+        spilled.close();
+    }
+
+    private static TypedSequenceStatistics collect(String numbers, int scale, NumberType type) throws IOException {
+        try (LongSequenceStatisticsCollector collector = new LongSequenceStatisticsCollector()) {
+            new LongStreamParser(new ByteArrayInputStream(numbers.getBytes(StandardCharsets.US_ASCII)), scale)
+                    .parse(collector);
+            return collector.toStatistics(type, scale);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.numbersequenceprocessing.service.analysis;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.IntSummaryStatistics;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NumberColumnFileTest {
+    private static final long SEED = 23;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsWrittenNumbersAndSummarizesBlocks() throws IOException {
+        int[] numbers = new Random(SEED).ints(1000).toArray();
+        Path file = write(numbers, 64);
+
+        NumberColumnFile columns = NumberColumnFile.open(file);
+        IntArrayList read = new IntArrayList();
+        columns.scan(read::add, null);
+
+        assertTrue(NumberColumnFile.isColumnFile(file));
+        assertEquals(16, columns.getBlockCount());
+        assertArrayEquals(numbers, read.toArray());
+        IntSummaryStatistics expected = Arrays.stream(numbers).summaryStatistics();
+        IntSummaryStatistics summary = columns.summarize();
+        assertEquals(expected.getMin(), summary.getMin());
+        assertEquals(expected.getMax(), summary.getMax());
+        assertEquals(expected.getSum(), summary.getSum());
+    }
+
+    @Test
+    void rejectsTruncatedFile() throws IOException {
+        Path file = write(new int[]{1, 2, 3}, 2);
+        Files.write(file, Arrays.copyOf(Files.readAllBytes(file), (int) Files.size(file) - 1));
+
+        assertThrows(StreamCorruptedException.class, () -> NumberColumnFile.open(file));
+    }
+
+    @Test
+    void doesNotTakeTextForColumnFile() throws IOException {
+        Path file = Files.writeString(directory.resolve("numbers.txt"), "1\n2\n3\n");
+
+        assertFalse(NumberColumnFile.isColumnFile(file));
+    }
+
+    private Path write(int[] numbers, int blockSize) throws IOException {
+        Path file = directory.resolve("numbers.nsq");
+        try (NumberColumnWriter writer = new NumberColumnWriter(file, blockSize)) {
+            Arrays.stream(numbers).forEach(writer);
+            writer.finish();
+        }
+        return file;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.numbersequenceprocessing.service.analysis;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NumberStreamParserTest {
+
+    @Test
+    void parsesSignsLineSeparatorsAndBlankLines() throws IOException {
+        IntArrayList numbers = new IntArrayList();
+
+        long count = parser("12\r\n-7\n\n+3\r\n\r\n2147483647\n-2147483648").parse(numbers::add);
+
+        assertEquals(5, count);
+        assertArrayEquals(new int[]{12, -7, 3, Integer.MAX_VALUE, Integer.MIN_VALUE}, numbers.toArray());
+    }
+
+    @Test
+    void parsesNumbersSplitBetweenReads() throws IOException {
+        IntArrayList numbers = new IntArrayList();
+
+        new NumberStreamParser(stream("123456\n-98765\n"), new byte[3]).parse(numbers::add);
+
+        assertArrayEquals(new int[]{123456, -98765}, numbers.toArray());
+    }
+
+    @Test
+    void rejectsNumbersOutOfIntRange() {
+        assertThrows(NumberFormatException.class, () -> parser("2147483648").parse(n -> { }));
+        assertThrows(NumberFormatException.class, () -> parser("-2147483649\n").parse(n -> { }));
+    }
+
+    @Test
+    void rejectsInvalidCharacters() {
+        assertThrows(NumberFormatException.class, () -> parser("1.5").parse(n -> { }));
+        assertThrows(NumberFormatException.class, () -> parser("1 \n").parse(n -> { }));
+        assertThrows(NumberFormatException.class, () -> parser("-\n1").parse(n -> { }));
+        assertThrows(NumberFormatException.class, () -> parser("1-2").parse(n -> { }));
+    }
+
+    private static NumberStreamParser parser(String content) {
+        return new NumberStreamParser(stream(content));
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.US_ASCII));
+    }
+}
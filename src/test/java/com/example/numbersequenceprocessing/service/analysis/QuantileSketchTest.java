@@ -0,0 +1,79 @@
+package com.example.numbersequenceprocessing.service.analysis;
+
+import com.example.numbersequenceprocessing.data.dto.response.HistogramBucket;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuantileSketchTest {
+
+    @RepeatedTest(20)
+    void estimatesQuantilesWithinRelativeAccuracy(RepetitionInfo repetition) {
+        Random random = new Random(repetition.getCurrentRepetition());
+        int[] numbers = random.ints(random.nextInt(10_000) + 1, -1_000_000, 1_000_000).toArray();
+        QuantileSketch sketch = sketch(numbers);
+        Arrays.sort(numbers);
+
+        for (double quantile : new double[]{0, 0.01, 0.25, 0.5, 0.75, 0.99, 1}) {
+            int exact = numbers[(int) (quantile * (numbers.length - 1))];
+            double estimate = sketch.quantile(quantile);
+            assertTrue(Math.abs(estimate - exact) <= QuantileSketch.DEFAULT_RELATIVE_ACCURACY * Math.abs(exact),
+                    quantile + ": " + estimate + " instead of " + exact);
+        }
+    }
+
+    @RepeatedTest(20)
+    void mergedPartsMatchSequentialSketch(RepetitionInfo repetition) {
+        Random random = new Random(repetition.getCurrentRepetition());
+        int[] numbers = random.ints(random.nextInt(1_000) + 1).toArray();
+        int split = random.nextInt(numbers.length);
+
+        QuantileSketch merged = sketch(Arrays.copyOfRange(numbers, 0, split));
+        merged.merge(sketch(Arrays.copyOfRange(numbers, split, numbers.length)));
+
+        assertEquals(sketch(numbers), merged);
+    }
+
+    @Test
+    void histogramCountsAllNumbers() {
+        List<HistogramBucket> histogram = sketch(0, 1, 2, 3, 60, 97, 98, 99).histogram(4);
+
+        assertEquals(4, histogram.size());
+        assertEquals(0, histogram.get(0).getLowerBound());
+        assertEquals(100, histogram.get(3).getUpperBound());
+        assertEquals(List.of(4L, 0L, 1L, 3L), histogram.stream().map(HistogramBucket::getCount).toList());
+    }
+
+    @Test
+    void restoresWrittenSketch() throws IOException {
+        QuantileSketch sketch = sketch(-7, 0, 0, 3, Integer.MAX_VALUE, Integer.MIN_VALUE);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        sketch.writeTo(new DataOutputStream(bytes));
+        QuantileSketch restored = QuantileSketch.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(sketch, restored);
+        assertEquals(sketch.quantile(0.5), restored.quantile(0.5));
+    }
+
+    private static QuantileSketch sketch(int... numbers) {
+        QuantileSketch sketch = new QuantileSketch(QuantileSketch.DEFAULT_RELATIVE_ACCURACY);
+        for (int number : numbers) {
+            sketch.accept(number);
+        }
+        return sketch;
+    }
+}
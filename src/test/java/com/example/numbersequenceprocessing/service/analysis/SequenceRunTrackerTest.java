@@ -0,0 +1,127 @@
+package com.example.numbersequenceprocessing.service.analysis;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SequenceRunTrackerTest {
+
+    @Test
+    void keepsAllRunsTiedForTheLongest() {
+        int[] numbers = new int[100_000];
+        for (int i = 0; i < numbers.length; i++) {
+            numbers[i] = i % 2 == 0 ? 0 : 1;
+        }
+
+        List<List<Integer>> runs = track(true, numbers).getLongestRuns();
+
+        assertEquals(numbers.length / 2, runs.size());
+        assertTrue(runs.stream().allMatch(List.of(0, 1)::equals));
+    }
+
+    @Test
+    void replacesShorterRunsByLongerOne() {
+        assertEquals(List.of(List.of(9, 7, 5, 3)), track(false, 2, 1, 4, 3, 9, 7, 5, 3, 8, 6).getLongestRuns());
+    }
+
+    @Test
+    void findsNoRunInConstantNumbers() {
+        assertTrue(track(true, 4, 4, 4).getLongestRuns().isEmpty());
+        assertEquals(0, track(true, 4, 4, 4).getLongestRunsSize());
+    }
+
+    @Test
+    void countsNumbersOfLongestRuns() {
+        assertEquals(6, track(true, 1, 2, 3, 1, 5, 6, 0).getLongestRunsSize());
+    }
+
+    @RepeatedTest(50)
+    void matchesAllRunsFilteredByLength(RepetitionInfo repetition) {
+        Random random = new Random(repetition.getCurrentRepetition());
+        int[] numbers = random.ints(random.nextInt(300) + 1, 0, 8).toArray();
+
+        for (boolean increasing : new boolean[]{true, false}) {
+            assertEquals(findLongestRuns(increasing, numbers), track(increasing, numbers).getLongestRuns(),
+                    Arrays.toString(numbers));
+        }
+    }
+
+    @RepeatedTest(50)
+    void mergedBatchesMatchAllRunsFilteredByLength(RepetitionInfo repetition) {
+        Random random = new Random(repetition.getCurrentRepetition());
+        int[] numbers = random.ints(random.nextInt(1000) + 1, 0, random.nextInt(8) + 1).toArray();
+        int split = random.nextInt(numbers.length);
+
+        for (boolean increasing : new boolean[]{true, false}) {
+            SequenceRunTracker merged = trackInBatches(increasing, random, Arrays.copyOfRange(numbers, 0, split));
+            merged.merge(trackInBatches(increasing, random, Arrays.copyOfRange(numbers, split, numbers.length)));
+
+            assertEquals(findLongestRuns(increasing, numbers), merged.getLongestRuns(), Arrays.toString(numbers));
+        }
+    }
+
+    @RepeatedTest(20)
+    void writesSameRunsAsItReturns(RepetitionInfo repetition) throws IOException {
+        Random random = new Random(repetition.getCurrentRepetition());
+        int[] numbers = random.ints(random.nextInt(1000) + 1, 0, 8).toArray();
+        SequenceRunTracker tracker = track(true, numbers);
+
+        List<List<Integer>> written = new ArrayList<>();
+        int count = tracker.writeLongestRuns((values, from, to) ->
+                written.add(Arrays.stream(values, from, to).boxed().toList()));
+
+        assertEquals(tracker.getLongestRuns(), written);
+        assertEquals(written.size(), count);
+    }
+
+    private static SequenceRunTracker trackInBatches(boolean increasing, Random random, int... numbers) {
+        SequenceRunTracker tracker = new SequenceRunTracker(increasing);
+        int from = 0;
+        while (from < numbers.length) {
+            int to = Math.min(numbers.length, from + random.nextInt(200));
+            tracker.acceptAll(numbers, from, to);
+            from = to;
+        }
+        return tracker;
+    }
+
+    private static SequenceRunTracker track(boolean increasing, int... numbers) {
+        SequenceRunTracker tracker = new SequenceRunTracker(increasing);
+        Arrays.stream(numbers).forEach(tracker::accept);
+        return tracker;
+    }
+
+    /**
+     * Reference implementation collecting every run
+     */
+    private static List<List<Integer>> findLongestRuns(boolean increasing, int... numbers) {
+        List<List<Integer>> runs = new ArrayList<>();
+        List<Integer> run = new ArrayList<>();
+        for (int number : numbers) {
+            if (!run.isEmpty() && !(increasing ? run.get(run.size() - 1) < number : run.get(run.size() - 1) > number)) {
+                runs.add(run);
+                run = new ArrayList<>();
+            }
+            run.add(number);
+        }
+        runs.add(run);
+
+        int longest = runs.stream().mapToInt(List::size).max().orElse(0);
+        List<List<Integer>> longestRuns = new ArrayList<>();
+        for (List<Integer> candidate : runs) {
+            if (longest > 1 && candidate.size() == longest) {
+                longestRuns.add(candidate);
+            }
+        }
+        return longestRuns;
+    }
+}
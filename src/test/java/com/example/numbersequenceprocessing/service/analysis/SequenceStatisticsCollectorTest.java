@@ -0,0 +1,77 @@
+package com.example.numbersequenceprocessing.service.analysis;
+
+import com.example.numbersequenceprocessing.data.dto.response.SequenceStatistics;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SequenceStatisticsCollectorTest {
+
+    @Test
+    void findsLongestRunsInFileOrder() {
+        SequenceStatistics statistics = collect(1, 3, 7, 2, 4, 6, 5, 1).toStatistics();
+
+        assertEquals(List.of(List.of(1, 3, 7), List.of(2, 4, 6)), statistics.getIncreasingSequences());
+        assertEquals(List.of(List.of(6, 5, 1)), statistics.getDecreasingSequences());
+        assertEquals(3.5, statistics.getMedian());
+    }
+
+    @Test
+    void mergesRunCrossingSeveralParts() {
+        SequenceStatisticsCollector merged = collect(5, 1);
+        merged.merge(collect(2));
+        merged.merge(collect(3, 4));
+        merged.merge(collect(9, 8));
+
+        assertEquals(collect(5, 1, 2, 3, 4, 9, 8).toStatistics(), merged.toStatistics());
+    }
+
+    @RepeatedTest(50)
+    void mergedPartsMatchSequentialScan(RepetitionInfo repetition) {
+        Random random = new Random(repetition.getCurrentRepetition());
+        int[] numbers = random.ints(random.nextInt(200) + 1, 0, 6).toArray();
+
+        SequenceStatisticsCollector merged = new SequenceStatisticsCollector();
+        int from = 0;
+        while (from < numbers.length) {
+            int to = Math.min(numbers.length, from + random.nextInt(6));
+            merged.merge(collect(Arrays.copyOfRange(numbers, from, to)));
+            from = to;
+        }
+
+        assertEquals(collect(numbers).toStatistics(), merged.toStatistics(), Arrays.toString(numbers));
+    }
+
+    @RepeatedTest(50)
+    void restoredStateContinuesWithAppendedNumbers(RepetitionInfo repetition) throws IOException {
+        Random random = new Random(repetition.getCurrentRepetition());
+        int[] numbers = random.ints(random.nextInt(200) + 1, 0, 6).toArray();
+        int split = random.nextInt(numbers.length);
+
+        ByteArrayOutputStream state = new ByteArrayOutputStream();
+        collect(Arrays.copyOf(numbers, split)).writeTo(new DataOutputStream(state));
+        SequenceStatisticsCollector restored = SequenceStatisticsCollector.readFrom(
+                new DataInputStream(new ByteArrayInputStream(state.toByteArray())), 40);
+        Arrays.stream(numbers, split, numbers.length).forEach(restored);
+
+        assertEquals(collect(numbers).toStatistics(), restored.toStatistics(), Arrays.toString(numbers));
+        restored.close();
+    }
+
+    private static SequenceStatisticsCollector collect(int... numbers) {
+        SequenceStatisticsCollector collector = new SequenceStatisticsCollector();
+        Arrays.stream(numbers).forEach(collector);
+        return collector;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.numbersequenceprocessing.service.analysis;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SpillableIntBufferTest {
+
+    @RepeatedTest(20)
+    void findsMedianOnHeap(RepetitionInfo repetition) {
+        int[] numbers = randomNumbers(repetition.getCurrentRepetition());
+
+        try (SpillableIntBuffer buffer = new SpillableIntBuffer()) {
+            Arrays.stream(numbers).forEach(buffer);
+            assertEquals(sortedMedian(numbers), buffer.median());
+        }
+    }
+
+    @RepeatedTest(20)
+    void findsMedianOfSpilledNumbers(RepetitionInfo repetition) {
+        int[] numbers = randomNumbers(repetition.getCurrentRepetition());
+
+        try (SpillableIntBuffer buffer = new SpillableIntBuffer(40)) {
+            Arrays.stream(numbers).forEach(buffer);
+            assertEquals(sortedMedian(numbers), buffer.median());
+        }
+    }
+
+    @Test
+    void takesOverNumbersOfMergedBuffer() {
+        int[] numbers = randomNumbers(0);
+        int half = numbers.length / 2;
+
+        try (SpillableIntBuffer first = new SpillableIntBuffer(12);
+             SpillableIntBuffer second = new SpillableIntBuffer(12)) {
+            Arrays.stream(numbers, 0, half).forEach(first);
+            Arrays.stream(numbers, half, numbers.length).forEach(second);
+
+            first.addAll(second);
+
+            assertEquals(numbers.length, first.size());
+            assertEquals(0, second.size());
+            assertEquals(sortedMedian(numbers), first.median());
+        }
+    }
+
+    @Test
+    void appendsMergedNumbersAfterSpilledNumbers() throws IOException {
+        try (SpillableIntBuffer buffer = new SpillableIntBuffer(4 * Integer.BYTES);
+             SpillableIntBuffer next = new SpillableIntBuffer(4 * Integer.BYTES)) {
+            IntStream.rangeClosed(1, 6).forEach(buffer);
+            IntStream.rangeClosed(7, 8).forEach(next);
+
+            buffer.addAll(next);
+
+            assertArrayEquals(new int[]{7, 8}, written(buffer, 6));
+            assertArrayEquals(IntStream.rangeClosed(1, 8).toArray(), written(buffer, 0));
+        }
+    }
+
+    @Test
+    void keepsHeapBudgetOfMergedBuffer() throws IOException {
+        try (SpillableIntBuffer buffer = new SpillableIntBuffer(4 * Integer.BYTES);
+             SpillableIntBuffer next = new SpillableIntBuffer(4 * Integer.BYTES)) {
+            IntStream.rangeClosed(1, 3).forEach(buffer);
+            IntStream.rangeClosed(4, 6).forEach(next);
+
+            buffer.addAll(next);
+            IntStream.rangeClosed(7, 8).forEach(buffer);
+
+            assertArrayEquals(new int[]{5, 6, 7, 8}, written(buffer, 4));
+            assertArrayEquals(IntStream.rangeClosed(1, 8).toArray(), written(buffer, 0));
+        }
+    }
+
+    @Test
+    void rejectsEmptyBuffer() {
+        try (SpillableIntBuffer buffer = new SpillableIntBuffer(0)) {
+            assertThrows(NoSuchElementException.class, buffer::median);
+        }
+    }
+
+    private static int[] randomNumbers(long seed) {
+        Random random = new Random(seed);
+        return random.ints(random.nextInt(5000) + 1,
+                random.nextBoolean() ? Integer.MIN_VALUE : -100, Integer.MAX_VALUE).toArray();
+    }
+
+    private static int[] written(SpillableIntBuffer buffer, long from) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        buffer.writeTo(new DataOutputStream(bytes), from);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        int[] numbers = new int[bytes.size() / Integer.BYTES];
+        for (int i = 0; i < numbers.length; i++) {
+            numbers[i] = in.readInt();
+        }
+        return numbers;
+    }
+
+    private static double sortedMedian(int[] numbers) {
+        int[] sorted = numbers.clone();
+        Arrays.sort(sorted);
+        int size = sorted.length;
+        return size % 2 == 1 ?
+                sorted[size / 2] :
+                ((double) sorted[size / 2 - 1] + sorted[size / 2]) / 2;
+    }
+}
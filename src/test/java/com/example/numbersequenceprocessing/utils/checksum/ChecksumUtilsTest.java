@@ -0,0 +1,53 @@
+package com.example.numbersequenceprocessing.utils.checksum;
+
+import com.example.numbersequenceprocessing.utils.file.FileUtils;
+import com.example.numbersequenceprocessing.utils.metrics.MetricsUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChecksumUtilsTest {
+    private static final byte[] NUMBERS = "1\n-2\n3\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final FileUtils fileUtils = new FileUtils(DataSize.ofKilobytes(64));
+    private final ChecksumUtils checksumUtils = new ChecksumUtils(fileUtils,
+            new MetricsUtils(new SimpleMeterRegistry()), ChecksumAlgorithm.MURMUR3_128);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void identifiesCompressedUploadByItsContent() throws IOException {
+        byte[] compressed = gzip(NUMBERS);
+        Path file = Files.write(directory.resolve("numbers.txt.gz"), compressed);
+
+        String upload = checksumUtils.getChecksum(new MockMultipartFile("file", compressed));
+
+        assertEquals(checksumUtils.getChecksum(new MockMultipartFile("file", NUMBERS)), upload);
+        try (InputStream stream = fileUtils.readFile(file);
+             DigestInputStream reader = checksumUtils.digestingStream(stream)) {
+            assertEquals(checksumUtils.getChecksum(reader), upload);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.numbersequenceprocessing.utils.checksum;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class Murmur3DigestTest {
+
+    @Test
+    void matchesReferenceHash() {
+        assertEquals("00000000000000000000000000000000", hash(new byte[0]));
+        assertEquals("6c1b07bc7bbc4be347939ac4a93c437a",
+                hash("The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void doesNotDependOnHowDataIsSplit() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100; i++) {
+            byte[] data = new byte[random.nextInt(200)];
+            random.nextBytes(data);
+            byte[] expected = new Murmur3Digest().digest(data);
+
+            MessageDigest digest = new Murmur3Digest();
+            int position = 0;
+            while (position < data.length) {
+                int length = Math.min(random.nextInt(20), data.length - position);
+                if (length == 1) {
+                    digest.update(data[position]);
+                } else {
+                    ByteBuffer direct = ByteBuffer.allocateDirect(length).put(data, position, length).flip();
+                    digest.update(direct);
+                }
+                position += length;
+            }
+
+            assertArrayEquals(expected, digest.digest());
+        }
+    }
+
+    private static String hash(byte[] data) {
+        return HexFormat.of().formatHex(new Murmur3Digest().digest(data));
+    }
+}
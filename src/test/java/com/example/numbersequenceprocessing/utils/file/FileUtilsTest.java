@@ -0,0 +1,79 @@
+package com.example.numbersequenceprocessing.utils.file;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileUtilsTest {
+    private static final long SEED = 29;
+    private static final byte[] NUMBERS = new Random(SEED).ints(10_000).mapToObj(Integer::toString)
+            .collect(Collectors.joining("\n", "", "\n")).getBytes(StandardCharsets.US_ASCII);
+
+    private final FileUtils fileUtils = new FileUtils(DataSize.ofKilobytes(64));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void decompressesEveryFormat() throws IOException {
+        assertArrayEquals(NUMBERS, decompress(compress(GZIPOutputStream::new)));
+        assertArrayEquals(NUMBERS, decompress(compress(ZstdOutputStream::new)));
+        assertArrayEquals(NUMBERS, decompress(compress(FramedLZ4CompressorOutputStream::new)));
+    }
+
+    @Test
+    void passesUncompressedDataThrough() throws IOException {
+        assertArrayEquals(NUMBERS, decompress(NUMBERS));
+        assertArrayEquals(new byte[]{'7'}, decompress(new byte[]{'7'}));
+        assertArrayEquals(new byte[0], decompress(new byte[0]));
+    }
+
+    @Test
+    void recognizesCompressedFile() throws IOException {
+        Path compressed = Files.write(directory.resolve("numbers.txt.zst"), compress(ZstdOutputStream::new));
+        Path plain = Files.write(directory.resolve("numbers.txt"), NUMBERS);
+
+        assertTrue(fileUtils.isCompressed(compressed));
+        assertFalse(fileUtils.isCompressed(plain));
+        try (InputStream stream = fileUtils.readFile(compressed)) {
+            assertArrayEquals(NUMBERS, stream.readAllBytes());
+        }
+    }
+
+    private byte[] decompress(byte[] data) throws IOException {
+        try (InputStream stream = fileUtils.decompress(new ByteArrayInputStream(data))) {
+            return stream.readAllBytes();
+        }
+    }
+
+    private static byte[] compress(Compressor compressor) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream stream = compressor.wrap(bytes)) {
+            stream.write(NUMBERS);
+        }
+        return bytes.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface Compressor {
+        OutputStream wrap(OutputStream stream) throws IOException;
+    }
+}